@@ -0,0 +1,101 @@
+package com.skwarek.blogger.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of account emails. A negative answer means the email is definitely
+ * not taken, so signups can go straight to the insert; a positive one may be false
+ * and is confirmed with a query. Emails are lower-cased first, so a case-insensitive
+ * collation can only turn answers into false positives, never into false negatives.
+ * Bits are never cleared: deleted accounts leave false positives behind until the
+ * next restart. Until {@link #markLoaded()} every email might be taken.
+ */
+@Component
+public class EmailFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean loaded;
+
+    public EmailFilter(@Value("${blogger.email-filter.expected-emails:1000000}") long expectedEmails,
+                       @Value("${blogger.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedEmails * Math.log(2)));
+    }
+
+    public boolean mightContain(String email) {
+        if (!loaded) {
+            return true;
+        }
+
+        long hash = hash(email);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(first + i * second) % bitCount;
+
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(first + i * second) % bitCount;
+            long mask = 1L << bit;
+            int index = (int) (bit >>> 6);
+            long word;
+
+            while (((word = words.get(index)) & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 64-bit FNV-1a over the lower-cased email, finished with the MurmurHash3 mixer so
+     * both halves are usable as independent hashes.
+     */
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.skwarek.blogger.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skwarek.blogger.config.ReplicaReads;
+import com.skwarek.blogger.dto.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches list pages per owner: the posts of an account, the comments of a post. Each
+ * owner has a generation and pages are stored under the generation that was current
+ * when they were read. Invalidating an owner only drops its generation, so the next read
+ * takes a new one and the old pages are never looked up again; they age out of the
+ * bounded page cache on their own. Generations come from a single counter, so an owner
+ * whose generation was evicted can never get an older value back.
+ */
+@Component
+public class ListCache {
+
+    public enum Scope {
+        ACCOUNT_POSTS,
+        POST_COMMENTS
+    }
+
+    private final AtomicLong lastGeneration = new AtomicLong();
+    private final Cache<OwnerKey, Long> generations;
+    private final Cache<PageKey, CursorPage<?>> pages;
+
+    public ListCache(@Value("${blogger.list-cache.max-items:100000}") long maxItems,
+                     @Value("${blogger.list-cache.max-owners:100000}") long maxOwners,
+                     @Value("${blogger.list-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxOwners)
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxItems)
+                .weigher((PageKey key, CursorPage<?> page) -> page.getItems().size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Returns the owner's current generation. Callers take it before their transaction
+     * reads anything. A write that commits once the transaction's snapshot exists drops
+     * the generation only after its commit, and a generation taken after that would be
+     * a new one, under which the page loaded from the older snapshot would be cached.
+     */
+    public long generation(Scope scope, Long ownerId) {
+        return generations.get(new OwnerKey(scope, ownerId), key -> lastGeneration.incrementAndGet());
+    }
+
+    /**
+     * Returns the cached page for the owner and query under the given generation, or
+     * loads and caches it. The loader runs outside of any cache lock. A page loaded from
+     * a read replica is not cached, as the replica may lag behind the primary.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CursorPage<T> get(Scope scope, Long ownerId, long generation, List<?> query, Supplier<CursorPage<T>> loader) {
+        PageKey pageKey = new PageKey(scope, ownerId, generation, query);
+
+        CursorPage<T> page = (CursorPage<T>) pages.getIfPresent(pageKey);
+
+        if (page == null) {
+            page = loader.get();
+            if (!ReplicaReads.bypassingCaches()) {
+                pages.put(pageKey, page);
+            }
+        }
+
+        return page;
+    }
+
+    /**
+     * Drops the owner's generation. Inside a transaction this happens after completion,
+     * so a read that races with the write cannot cache the old state under the new
+     * generation.
+     */
+    public void invalidate(Scope scope, Long ownerId) {
+        OwnerKey ownerKey = new OwnerKey(scope, ownerId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generations.invalidate(ownerKey);
+                }
+            });
+        } else {
+            generations.invalidate(ownerKey);
+        }
+    }
+
+    private record OwnerKey(Scope scope, Long ownerId) {
+    }
+
+    private record PageKey(Scope scope, Long ownerId, long generation, List<?> query) {
+    }
+
+}
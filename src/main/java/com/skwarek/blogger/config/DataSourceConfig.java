@@ -0,0 +1,30 @@
+package com.skwarek.blogger.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the JDBC pool explicitly, because Spring Boot skips its own once an R2DBC
+ * connection factory is configured. JPA keeps the whole write path and the blocking
+ * reads on this pool; the reactive read API has its own R2DBC pool next to it. Both
+ * pools are still configured through the usual {@code spring.datasource.*} and
+ * {@code spring.r2dbc.*} properties. With read replicas on, this is the primary pool behind the
+ * routing data source of {@link ReadReplicaConfig}.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+}
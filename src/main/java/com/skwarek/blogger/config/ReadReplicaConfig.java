@@ -0,0 +1,67 @@
+package com.skwarek.blogger.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in read replicas, switched on with {@code blogger.read-replicas.enabled=true}.
+ * JPA then runs on a routing data source: read-only transactions go to one of the
+ * {@code blogger.read-replicas.urls}, everything else to the primary pool of
+ * {@link DataSourceConfig}. Replicas share the primary's credentials and
+ * {@code spring.datasource.hikari.*} settings. A client that has just written reads
+ * from the primary for {@code blogger.read-replicas.read-your-writes}.
+ * <p>
+ * With open-in-view, a request keeps the connection its first statement got, so a GET
+ * stays on one replica, or on the primary when it starts outside a read-only
+ * transaction. Entities and pages read from a replica are not cached, so a client
+ * reading from the primary never gets a row a replica had not caught up on.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "blogger.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource dataSource, DataSourceProperties dataSourceProperties,
+                                                             Environment environment,
+                                                             @Value("${blogger.read-replicas.urls:}") List<String> urls) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+
+        for (String url : urls) {
+            HikariDataSource replica = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + replicas.size());
+            replicas.add(replica);
+        }
+
+        return new ReplicaRoutingDataSource(dataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy routingDataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${blogger.read-replicas.read-your-writes:5s}") Duration window) {
+        return new ReadYourWritesFilter(window, Clock.systemUTC());
+    }
+
+}
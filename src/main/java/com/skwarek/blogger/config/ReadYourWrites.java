@@ -0,0 +1,26 @@
+package com.skwarek.blogger.config;
+
+/**
+ * Pins the database work of the current thread to the primary, whatever its
+ * transactions say, for the clients that have just written and must read that back.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+}
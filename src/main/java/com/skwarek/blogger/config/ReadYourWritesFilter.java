@@ -0,0 +1,84 @@
+package com.skwarek.blogger.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gives every client a read-your-writes window. A request that may write runs on the
+ * primary and hands the client a cookie holding the end of the window; until then the
+ * client's reads run on the primary too, so they never see a replica that has not
+ * caught up with its own writes. The window only needs to outlast the replication lag.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "blogger-primary-until";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = !READ_METHODS.contains(request.getMethod());
+
+        if (write) {
+            response.addCookie(windowCookie());
+        }
+
+        if (!write && !insideWindow(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReadYourWrites.pin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.unpin();
+        }
+    }
+
+    private Cookie windowCookie() {
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(clock.millis() + window.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+
+        return cookie;
+    }
+
+    private boolean insideWindow(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return clock.millis() < Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.skwarek.blogger.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps what a replica returns out of the caches. A replica may lag behind the primary,
+ * and a cached row or page would outlive the read and be served to the clients pinned
+ * to the primary as well. The mark is the shared cache store mode of the JPA session, so
+ * it lasts exactly as long as the session holds its replica connection: a transaction,
+ * or a whole request with open-in-view.
+ */
+public final class ReplicaReads {
+
+    private static final String CACHE_STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private ReplicaReads() {
+    }
+
+    /**
+     * Stops the JPA sessions of the current thread from putting what they read into the
+     * second-level cache; they still read from it.
+     */
+    static void bypassCaches() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().setProperty(CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+            }
+        }
+    }
+
+    /**
+     * Whether a JPA session of the current thread reads from a replica, so that what it
+     * reads must not be cached.
+     */
+    public static boolean bypassingCaches() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder && isBypassing(holder.getEntityManager())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isBypassing(EntityManager entityManager) {
+        return entityManager.isOpen() && entityManager.getProperties().get(CACHE_STORE_MODE) == CacheStoreMode.BYPASS;
+    }
+
+}
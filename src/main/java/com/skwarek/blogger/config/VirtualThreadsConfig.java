@@ -0,0 +1,45 @@
+package com.skwarek.blogger.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in virtual-thread mode, switched on with {@code blogger.threads.virtual=true}.
+ * Every request runs on its own virtual thread instead of one of Tomcat's pooled
+ * platform threads, and so does MVC async work like the streaming export. A request
+ * blocked on JDBC then parks its virtual thread and frees the carrier, and the
+ * connection pool alone bounds concurrent database work. That only holds while JDBC
+ * code does not block inside {@code synchronized}, which pins the carrier, so the build
+ * pins MySQL driver and HikariCP versions without such blocks on the query path. The
+ * {@code virtual-threads} Maven profile runs the app in this mode with
+ * {@code -Djdk.tracePinnedThreads=short} to report any pinning that is left.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "blogger.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("virtual-", 0).factory());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+}
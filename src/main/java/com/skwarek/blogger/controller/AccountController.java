@@ -2,14 +2,16 @@ package com.skwarek.blogger.controller;
 
 import com.skwarek.blogger.domain.Account;
 import com.skwarek.blogger.dto.AccountRequest;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.View;
 import com.skwarek.blogger.service.AccountService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 @CrossOrigin(origins = "http://localhost:8081")
 @RestController
@@ -23,10 +25,14 @@ public class AccountController {
     }
 
     @GetMapping(value = "/accounts")
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        List<Account> accounts = accountService.findAll();
-
-        if (!accounts.isEmpty()) {
+    public ResponseEntity<CursorPage<?>> getAllAccounts(@RequestParam(value = "after", required = false) String after,
+                                                        @RequestParam(value = "limit", required = false) Integer limit,
+                                                        @RequestParam(value = "view", defaultValue = "full") String view) {
+        CursorPage<?> accounts = View.of(view) == View.SUMMARY
+                ? accountService.findAllSummaries(after, limit)
+                : accountService.findAll(after, limit);
+
+        if (!accounts.getItems().isEmpty()) {
             return ResponseEntity.ok(accounts);
         } else {
             return ResponseEntity.noContent().build();
@@ -34,10 +40,16 @@ public class AccountController {
     }
 
     @GetMapping(value = "/accounts/{accountId}")
-    public ResponseEntity<Account> getAccountById(@PathVariable("accountId") Long accountId) {
-        Account account = accountService.findById(accountId);
+    public ResponseEntity<Account> getAccountById(@PathVariable("accountId") Long accountId, WebRequest webRequest) {
+        String eTag = accountService.findETagById(accountId);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        Account account = accountService.findWithPostsById(accountId);
 
-        return ResponseEntity.ok(account);
+        return ResponseEntity.ok().eTag(eTag).body(account);
     }
 
     @PostMapping(value = "/accounts/create")
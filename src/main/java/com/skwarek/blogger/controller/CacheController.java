@@ -0,0 +1,28 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.CacheRegionStats;
+import com.skwarek.blogger.service.CacheService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "http://localhost:8081")
+@RestController
+@RequestMapping(value = "/api")
+public class CacheController {
+
+    private final CacheService cacheService;
+
+    public CacheController(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @GetMapping(value = "/cache/stats")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        List<CacheRegionStats> stats = cacheService.findRegionStats();
+
+        return ResponseEntity.ok(stats);
+    }
+
+}
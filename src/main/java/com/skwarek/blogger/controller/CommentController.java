@@ -2,10 +2,15 @@ package com.skwarek.blogger.controller;
 
 import com.skwarek.blogger.domain.Comment;
 import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.View;
 import com.skwarek.blogger.service.CommentService;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -23,8 +28,42 @@ public class CommentController {
     }
 
     @GetMapping(value = "/posts/{postId}/comments")
-    public ResponseEntity<List<Comment>> getAllCommentsByPostId(@PathVariable("postId") Long postId) {
-        List<Comment> comments = commentService.findAllByPostId(postId);
+    public ResponseEntity<CursorPage<?>> getAllCommentsByPostId(@PathVariable("postId") Long postId,
+                                                                @RequestParam(value = "after", required = false) String after,
+                                                                @RequestParam(value = "limit", required = false) Integer limit,
+                                                                @RequestParam(value = "order", defaultValue = "asc") String order,
+                                                                @RequestParam(value = "total", defaultValue = "false") boolean withTotal,
+                                                                @RequestParam(value = "view", defaultValue = "full") String view) {
+        Sort.Direction direction = CursorPage.directionOf(order);
+        CursorPage<?> comments = View.of(view) == View.SUMMARY
+                ? commentService.findAllSummariesByPostId(postId, after, limit, direction, withTotal)
+                : commentService.findAllByPostId(postId, after, limit, direction, withTotal);
+
+        if (!comments.getItems().isEmpty()) {
+            return ResponseEntity.ok(comments);
+        } else {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    @GetMapping(value = "/posts/{postId}/comments/search")
+    public ResponseEntity<List<CommentSummary>> searchCommentsByPostId(@PathVariable("postId") Long postId,
+                                                                       @RequestParam(value = "q") String query,
+                                                                       @RequestParam(value = "limit", required = false) Integer limit) {
+        List<CommentSummary> comments = commentService.searchByPostId(postId, query, limit);
+
+        if (!comments.isEmpty()) {
+            return ResponseEntity.ok(comments);
+        } else {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    @GetMapping(value = "/accounts/{accountId}/comments/search")
+    public ResponseEntity<List<CommentSummary>> searchCommentsByAccountId(@PathVariable("accountId") Long accountId,
+                                                                          @RequestParam(value = "q") String query,
+                                                                          @RequestParam(value = "limit", required = false) Integer limit) {
+        List<CommentSummary> comments = commentService.searchByAccountId(accountId, query, limit);
 
         if (!comments.isEmpty()) {
             return ResponseEntity.ok(comments);
@@ -34,10 +73,16 @@ public class CommentController {
     }
 
     @GetMapping(value = "/comments/{commentId}")
-    public ResponseEntity<Comment> getCommentById(@PathVariable("commentId") Long commentId) {
+    public ResponseEntity<Comment> getCommentById(@PathVariable("commentId") Long commentId, WebRequest webRequest) {
+        String eTag = commentService.findETagById(commentId);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
         Comment comment = commentService.findById(commentId);
 
-        return ResponseEntity.ok(comment);
+        return ResponseEntity.ok().eTag(eTag).body(comment);
     }
 
     @PostMapping(value = "/posts/{postId}/comments/create")
@@ -54,6 +99,14 @@ public class CommentController {
         return ResponseEntity.created(location).body(createdComment);
     }
 
+    @PostMapping(value = "/posts/{postId}/comments/batch")
+    public ResponseEntity<List<Long>> createComments2Post(@PathVariable("postId") Long postId,
+                                                          @RequestBody List<CommentRequest> commentRequests) {
+        List<Long> createdCommentIds = commentService.createAll2Post(postId, commentRequests);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdCommentIds);
+    }
+
     @PutMapping(value = "/comments/{commentId}")
     public ResponseEntity<Comment> updateComment(@PathVariable("commentId") Long commentId,
                                                  @RequestBody CommentRequest commentRequest) {
@@ -0,0 +1,30 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.QueuedComment;
+import com.skwarek.blogger.service.CommentQueueService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:8081")
+@RestController
+@RequestMapping(value = "/api")
+@ConditionalOnProperty(name = "blogger.comment-queue.enabled", havingValue = "true")
+public class CommentQueueController {
+
+    private final CommentQueueService commentQueueService;
+
+    public CommentQueueController(CommentQueueService commentQueueService) {
+        this.commentQueueService = commentQueueService;
+    }
+
+    @PostMapping(value = "/posts/{postId}/comments/queue")
+    public ResponseEntity<QueuedComment> queueComment2Post(@PathVariable("postId") Long postId,
+                                                           @RequestBody CommentRequest commentRequest) {
+        QueuedComment queuedComment = commentQueueService.enqueue2Post(postId, commentRequest);
+
+        return ResponseEntity.accepted().body(queuedComment);
+    }
+
+}
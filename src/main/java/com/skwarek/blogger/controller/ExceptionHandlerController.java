@@ -1,9 +1,16 @@
 package com.skwarek.blogger.controller;
 
 import com.skwarek.blogger.exception.DuplicateAccountException;
+import com.skwarek.blogger.exception.FullCommentQueueException;
+import com.skwarek.blogger.exception.InvalidCommentException;
+import com.skwarek.blogger.exception.InvalidFollowException;
+import com.skwarek.blogger.exception.InvalidPageRequestException;
+import com.skwarek.blogger.exception.InvalidSearchQueryException;
 import com.skwarek.blogger.exception.NotFoundCommentException;
 import com.skwarek.blogger.exception.NotFoundPostException;
 import com.skwarek.blogger.exception.NotFoundAccountException;
+import com.skwarek.blogger.exception.TooLargeBatchException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -45,4 +52,54 @@ public class ExceptionHandlerController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(InvalidPageRequestException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> pageRequestInvalid() {
+        String error = "This page request is invalid.";
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidSearchQueryException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> searchQueryInvalid() {
+        String error = "This search query is invalid.";
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidCommentException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> commentInvalid() {
+        String error = "This comment is invalid.";
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidFollowException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> followInvalid() {
+        String error = "This follow is invalid.";
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(TooLargeBatchException.class)
+    @ResponseStatus(value = HttpStatus.PAYLOAD_TOO_LARGE)
+    public ResponseEntity<String> batchTooLarge() {
+        String error = "This batch is too large.";
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
+    }
+
+    @ExceptionHandler(FullCommentQueueException.class)
+    @ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<String> commentQueueFull() {
+        String error = "The comment queue is full, try again later.";
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
 }
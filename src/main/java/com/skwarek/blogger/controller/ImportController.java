@@ -0,0 +1,29 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.ImportReport;
+import com.skwarek.blogger.service.ImportService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@CrossOrigin(origins = "http://localhost:8081")
+@RestController
+@RequestMapping(value = "/api")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(value = "/accounts/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReport> importAccounts(InputStream ndjson) {
+        ImportReport report = importService.importAccounts(ndjson);
+
+        return ResponseEntity.ok(report);
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.skwarek.blogger.controller;
 
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
 import com.skwarek.blogger.dto.PostRequest;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.dto.View;
 import com.skwarek.blogger.service.PostService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -23,8 +28,37 @@ public class PostController {
     }
 
     @GetMapping(value = "/accounts/{accountId}/posts")
-    public ResponseEntity<List<Post>> getAllPostsByAccountId(@PathVariable("accountId") Long accountId) {
-        List<Post> posts = postService.findAllByAccountId(accountId);
+    public ResponseEntity<CursorPage<?>> getAllPostsByAccountId(@PathVariable("accountId") Long accountId,
+                                                                @RequestParam(value = "after", required = false) String after,
+                                                                @RequestParam(value = "limit", required = false) Integer limit,
+                                                                @RequestParam(value = "view", defaultValue = "full") String view) {
+        CursorPage<?> posts = View.of(view) == View.SUMMARY
+                ? postService.findAllSummariesByAccountId(accountId, after, limit)
+                : postService.findAllByAccountId(accountId, after, limit);
+
+        if (!posts.getItems().isEmpty()) {
+            return ResponseEntity.ok(posts);
+        } else {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    @GetMapping(value = "/feed")
+    public ResponseEntity<CursorPage<FeedItem>> getFeed(@RequestParam(value = "after", required = false) String after,
+                                                        @RequestParam(value = "limit", required = false) Integer limit) {
+        CursorPage<FeedItem> posts = postService.findFeed(after, limit);
+
+        if (!posts.getItems().isEmpty()) {
+            return ResponseEntity.ok(posts);
+        } else {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    @GetMapping(value = "/posts/search")
+    public ResponseEntity<List<PostSummary>> searchPosts(@RequestParam(value = "q") String query,
+                                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        List<PostSummary> posts = postService.search(query, limit);
 
         if (!posts.isEmpty()) {
             return ResponseEntity.ok(posts);
@@ -34,10 +68,16 @@ public class PostController {
     }
 
     @GetMapping(value = "/posts/{postId}")
-    public ResponseEntity<Post> getPostById(@PathVariable("postId") Long postId) {
-        Post post = postService.findById(postId);
+    public ResponseEntity<Post> getPostById(@PathVariable("postId") Long postId, WebRequest webRequest) {
+        String eTag = postService.findETagById(postId);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        Post post = postService.findWithCommentsById(postId);
 
-        return ResponseEntity.ok(post);
+        return ResponseEntity.ok().eTag(eTag).body(post);
     }
 
     @PostMapping(value = "/accounts/{accountId}/posts/create")
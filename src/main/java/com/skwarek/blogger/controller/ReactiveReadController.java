@@ -0,0 +1,39 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.service.ReactiveReadService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@CrossOrigin(origins = "http://localhost:8081")
+@RestController
+@RequestMapping(value = "/api/stream")
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+
+    public ReactiveReadController(ReactiveReadService reactiveReadService) {
+        this.reactiveReadService = reactiveReadService;
+    }
+
+    @GetMapping(value = "/accounts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AccountSummary> streamAccounts(@RequestParam(value = "after", required = false) Long afterId) {
+        return reactiveReadService.streamAccounts(afterId);
+    }
+
+    @GetMapping(value = "/accounts/{accountId}/posts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PostSummary> streamPostsByAccountId(@PathVariable("accountId") Long accountId,
+                                                    @RequestParam(value = "after", required = false) Long beforeId) {
+        return reactiveReadService.streamPostsByAccountId(accountId, beforeId);
+    }
+
+    @GetMapping(value = "/posts/{postId}/comments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CommentSummary> streamCommentsByPostId(@PathVariable("postId") Long postId,
+                                                       @RequestParam(value = "after", required = false) Long afterId) {
+        return reactiveReadService.streamCommentsByPostId(postId, afterId);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
+import com.skwarek.blogger.service.TimelineService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:8081")
+@RestController
+@RequestMapping(value = "/api")
+public class TimelineController {
+
+    private final TimelineService timelineService;
+
+    public TimelineController(TimelineService timelineService) {
+        this.timelineService = timelineService;
+    }
+
+    @GetMapping(value = "/accounts/{accountId}/timeline")
+    public ResponseEntity<CursorPage<FeedItem>> getTimeline(@PathVariable("accountId") Long accountId,
+                                                            @RequestParam(value = "after", required = false) String after,
+                                                            @RequestParam(value = "limit", required = false) Integer limit) {
+        CursorPage<FeedItem> posts = timelineService.findTimeline(accountId, after, limit);
+
+        if (!posts.getItems().isEmpty()) {
+            return ResponseEntity.ok(posts);
+        } else {
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    @PutMapping(value = "/accounts/{accountId}/following/{followeeId}")
+    public ResponseEntity<HttpStatus> follow(@PathVariable("accountId") Long accountId,
+                                             @PathVariable("followeeId") Long followeeId) {
+        timelineService.follow(accountId, followeeId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping(value = "/accounts/{accountId}/following/{followeeId}")
+    public ResponseEntity<HttpStatus> unfollow(@PathVariable("accountId") Long accountId,
+                                               @PathVariable("followeeId") Long followeeId) {
+        timelineService.unfollow(accountId, followeeId);
+
+        return ResponseEntity.noContent().build();
+    }
+
+}
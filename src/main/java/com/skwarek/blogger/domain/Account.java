@@ -1,7 +1,12 @@
 package com.skwarek.blogger.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,20 +19,43 @@ import java.util.List;
 @ToString
 @Builder
 @Entity
-@Table(name = "account")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
+@Table(name = "account", uniqueConstraints = @UniqueConstraint(name = Account.EMAIL_UNIQUE_KEY, columnNames = "email"))
+@NamedEntityGraph(name = "Account.posts", attributeNodes = @NamedAttributeNode("posts"))
 public class Account {
 
+    public static final String EMAIL_UNIQUE_KEY = "uk_account_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
-    @Column(name = "email", unique = true)
+    @Column(name = "email")
     private String email;
 
     @Column(name = "password")
     private String password;
 
     @Builder.Default
+    @Column(name = "follower_count", nullable = false, updatable = false)
+    private Long followerCount = 0L;
+
+    @Builder.Default
+    @JsonIgnore
+    @Column(name = "fan_out_on_read", nullable = false, updatable = false)
+    private Boolean fanOutOnRead = false;
+
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Builder.Default
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account-posts")
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "account", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Post> posts = new ArrayList<>();
 
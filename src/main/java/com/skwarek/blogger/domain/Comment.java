@@ -3,6 +3,12 @@ package com.skwarek.blogger.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -12,17 +18,36 @@ import lombok.*;
 @ToString(exclude = {"post"})
 @Builder
 @Entity
-@Table(name = "comment")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "comment")
+@Table(name = "comment", indexes = @Index(name = "idx_comment_post_id_id", columnList = "post_id, id"))
+@NamedEntityGraph(name = "Comment.post", attributeNodes = @NamedAttributeNode("post"))
 public class Comment {
 
+    public static final int MAX_CONTENT_LENGTH = 255;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = 50)
     private Long id;
 
-    @Column(name = "content")
+    @Column(name = "content", length = MAX_CONTENT_LENGTH)
     private String content;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     @JsonIgnore
     private Post post;
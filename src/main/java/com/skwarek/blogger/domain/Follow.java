@@ -0,0 +1,31 @@
+package com.skwarek.blogger.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * An account following another one. The primary key leads with the follower, for the
+ * accounts it follows; the index leads with the followee, for its followers.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(name = "follow", indexes = @Index(name = "idx_follow_followee_id_account_id", columnList = "followee_id, account_id"))
+public class Follow {
+
+    @EmbeddedId
+    private FollowId id;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+}
@@ -0,0 +1,24 @@
+package com.skwarek.blogger.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class FollowId implements Serializable {
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "followee_id")
+    private Long followeeId;
+
+}
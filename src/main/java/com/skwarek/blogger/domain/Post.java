@@ -3,7 +3,14 @@ package com.skwarek.blogger.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,22 +22,50 @@ import java.util.List;
 @ToString(exclude = {"account"})
 @Builder
 @Entity
-@Table(name = "post")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "post")
+@Table(name = "post", indexes = {
+        @Index(name = "idx_post_account_id_id", columnList = "account_id, id"),
+        @Index(name = "idx_post_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_post_account_id_created_at_id", columnList = "account_id, created_at, id")
+})
+@NamedEntityGraph(name = "Post.comments", attributeNodes = @NamedAttributeNode("comments"))
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "content")
     private String content;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Builder.Default
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Long commentCount = 0L;
+
+    @Version
+    @JsonIgnore
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     @JsonIgnore
     private Account account;
 
     @Builder.Default
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "post-comments")
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "post", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
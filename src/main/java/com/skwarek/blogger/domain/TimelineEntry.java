@@ -0,0 +1,38 @@
+package com.skwarek.blogger.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A post in the timeline of an account following its author, written when the post is
+ * created. The author and the creation time are copied from the post, so a page of a
+ * timeline is one range scan of {@code (account_id, created_at, post_id)}, and the
+ * entries of an author or a post can be deleted without reading the posts.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Builder
+@Entity
+@Table(name = "timeline_entry", indexes = {
+        @Index(name = "idx_timeline_entry_account_id_created_at_post_id", columnList = "account_id, created_at, post_id"),
+        @Index(name = "idx_timeline_entry_author_id_account_id", columnList = "author_id, account_id"),
+        @Index(name = "idx_timeline_entry_post_id", columnList = "post_id")
+})
+public class TimelineEntry {
+
+    @EmbeddedId
+    private TimelineEntryId id;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+}
@@ -0,0 +1,24 @@
+package com.skwarek.blogger.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class TimelineEntryId implements Serializable {
+
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(name = "post_id")
+    private Long postId;
+
+}
@@ -0,0 +1,22 @@
+package com.skwarek.blogger.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Builder
+public class AccountImportRequest {
+
+    private String email;
+    private String password;
+    @Builder.Default
+    private List<PostImportRequest> posts = new ArrayList<>();
+
+}
@@ -0,0 +1,4 @@
+package com.skwarek.blogger.dto;
+
+public record AccountSummary(Long id, String email) {
+}
@@ -0,0 +1,4 @@
+package com.skwarek.blogger.dto;
+
+public record CacheRegionStats(String region, long hitCount, long missCount, long putCount, double hitRatio) {
+}
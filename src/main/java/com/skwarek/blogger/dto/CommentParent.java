@@ -0,0 +1,4 @@
+package com.skwarek.blogger.dto;
+
+public record CommentParent(Long postId, Long accountId) {
+}
@@ -0,0 +1,55 @@
+package com.skwarek.blogger.dto;
+
+import com.skwarek.blogger.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque keyset cursor. Clients get it back as {@code nextCursor} and pass it
+ * unchanged as {@code after}; internally it is just the sort key of the last
+ * row of the previous page.
+ */
+public final class Cursor {
+
+    private static final String SEPARATOR = ":";
+
+    private Cursor() {
+    }
+
+    public static String encode(long... keys) {
+        String raw = Arrays.stream(keys)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(SEPARATOR));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long[] decode(String cursor, int length) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+
+            if (parts.length != length) {
+                throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+            }
+
+            return Arrays.stream(parts)
+                    .mapToLong(Long::parseLong)
+                    .toArray();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static long decodeId(String cursor, long firstPageId) {
+        if (cursor == null || cursor.isBlank()) {
+            return firstPageId;
+        }
+
+        return decode(cursor, 1)[0];
+    }
+
+}
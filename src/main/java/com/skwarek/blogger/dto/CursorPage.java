@@ -0,0 +1,81 @@
+package com.skwarek.blogger.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.skwarek.blogger.exception.InvalidPageRequestException;
+import lombok.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private List<T> items;
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+    public CursorPage<T> withTotal(long total) {
+        return new CursorPage<>(items, nextCursor, total);
+    }
+
+    public static int sizeOf(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new InvalidPageRequestException("Invalid limit: " + limit);
+        }
+
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static Sort.Direction directionOf(String order) {
+        return Sort.Direction.fromOptionalString(order)
+                .orElseThrow(() -> new InvalidPageRequestException("Invalid order: " + order));
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code size + 1} as the limit; the extra
+     * row only tells whether there is a next page and is never returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> keyOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, size);
+        String nextCursor = Cursor.encode(keyOf.apply(items.get(size - 1)));
+
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Same as {@link #of(List, int, Function)} for rows sorted by two keys, like a
+     * timestamp with the id to break ties.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, ToLongFunction<T> firstKeyOf, ToLongFunction<T> secondKeyOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> items = rows.subList(0, size);
+        T last = items.get(size - 1);
+        String nextCursor = Cursor.encode(firstKeyOf.applyAsLong(last), secondKeyOf.applyAsLong(last));
+
+        return new CursorPage<>(items, nextCursor);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.skwarek.blogger.dto;
+
+/**
+ * Strong entity tags built from {@code @Version} columns, so they can be computed
+ * without loading or serializing the entity.
+ */
+public final class ETag {
+
+    private ETag() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+}
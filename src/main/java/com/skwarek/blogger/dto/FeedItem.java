@@ -0,0 +1,16 @@
+package com.skwarek.blogger.dto;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+public record FeedItem(Long id, String content, Long commentCount, Instant createdAt, AccountSummary author) {
+
+    public static final Comparator<FeedItem> NEWEST_FIRST = Comparator.comparing(FeedItem::createdAt)
+            .thenComparing(FeedItem::id)
+            .reversed();
+
+    public FeedItem(Long id, String content, Long commentCount, Instant createdAt, Long authorId, String authorEmail) {
+        this(id, content, commentCount, createdAt, new AccountSummary(authorId, authorEmail));
+    }
+
+}
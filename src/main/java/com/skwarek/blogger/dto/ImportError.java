@@ -0,0 +1,4 @@
+package com.skwarek.blogger.dto;
+
+public record ImportError(long line, String message) {
+}
@@ -0,0 +1,14 @@
+package com.skwarek.blogger.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code failedLines} counts every rejected line while
+ * {@code errors} keeps only the first {@link #MAX_ERRORS} of them.
+ */
+public record ImportReport(long importedAccounts, long importedPosts, long importedComments,
+                           long failedLines, List<ImportError> errors) {
+
+    public static final int MAX_ERRORS = 100;
+
+}
@@ -0,0 +1,4 @@
+package com.skwarek.blogger.dto;
+
+public record IndexedComment(Long id, Long postId, String content) {
+}
@@ -0,0 +1,21 @@
+package com.skwarek.blogger.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Builder
+public class PostImportRequest {
+
+    private String content;
+    @Builder.Default
+    private List<CommentRequest> comments = new ArrayList<>();
+
+}
@@ -0,0 +1,4 @@
+package com.skwarek.blogger.dto;
+
+public record PostSummary(Long id, String content, Long commentCount) {
+}
@@ -0,0 +1,8 @@
+package com.skwarek.blogger.dto;
+
+/**
+ * A comment accepted into the write-behind queue. The provisional id identifies it in
+ * the queue only; the comment gets its real id when it is written.
+ */
+public record QueuedComment(Long provisionalId, Long postId) {
+}
@@ -0,0 +1,23 @@
+package com.skwarek.blogger.dto;
+
+import com.skwarek.blogger.exception.InvalidPageRequestException;
+
+import java.util.Arrays;
+
+/**
+ * Representation requested by a list endpoint: {@code full} serializes entities with
+ * their associations, {@code summary} returns flat projections read column by column.
+ */
+public enum View {
+
+    FULL,
+    SUMMARY;
+
+    public static View of(String view) {
+        return Arrays.stream(values())
+                .filter(v -> v.name().equalsIgnoreCase(view))
+                .findFirst()
+                .orElseThrow(() -> new InvalidPageRequestException("Invalid view: " + view));
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.skwarek.blogger.exception;
+
+public class FullCommentQueueException extends RuntimeException {
+
+    public FullCommentQueueException(String message) {
+        super(message);
+    }
+
+}
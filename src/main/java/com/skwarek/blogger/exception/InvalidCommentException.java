@@ -0,0 +1,9 @@
+package com.skwarek.blogger.exception;
+
+public class InvalidCommentException extends RuntimeException {
+
+    public InvalidCommentException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.skwarek.blogger.exception;
+
+public class InvalidFollowException extends RuntimeException {
+
+    public InvalidFollowException(String message) {
+        super(message);
+    }
+
+}
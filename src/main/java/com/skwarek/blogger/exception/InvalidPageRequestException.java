@@ -0,0 +1,9 @@
+package com.skwarek.blogger.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+
+}
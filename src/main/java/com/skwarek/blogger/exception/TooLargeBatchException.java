@@ -0,0 +1,9 @@
+package com.skwarek.blogger.exception;
+
+public class TooLargeBatchException extends RuntimeException {
+
+    public TooLargeBatchException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.skwarek.blogger.queue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only file of queued comments the database rejected for a reason a retry would
+ * not fix, one JSON object per line together with the error. The queue never reads it
+ * back; it keeps such comments out of the way of the others and leaves them for an
+ * operator to inspect.
+ */
+public class CommentDeadLetters implements Closeable {
+
+    public record DeadLetter(long seq, long postId, String content, String error) {
+    }
+
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public CommentDeadLetters(Path path, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open comment dead letters: " + path, e);
+        }
+    }
+
+    public void add(CommentJournal.Entry entry, Exception error) {
+        addAll(List.of(entry), error);
+    }
+
+    /**
+     * Adds comments that failed for the same reason, with one force for all of them.
+     */
+    public void addAll(List<CommentJournal.Entry> entries, Exception error) {
+        lock.lock();
+        try {
+            for (CommentJournal.Entry entry : entries) {
+                DeadLetter deadLetter = new DeadLetter(entry.seq(), entry.postId(), entry.content(), String.valueOf(error.getMessage()));
+                ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(deadLetter) + "\n").getBytes(StandardCharsets.UTF_8));
+
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            channel.force(false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize comment dead letter", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write comment dead letters", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
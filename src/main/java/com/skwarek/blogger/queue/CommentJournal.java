@@ -0,0 +1,285 @@
+package com.skwarek.blogger.queue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only journal of queued comments, one JSON object per line. A comment is
+ * appended, and forced to disk, before it is accepted; once it is in the database a
+ * line with its sequence number is appended. Appends are forced in groups: whoever
+ * forces the file covers every comment appended before, so concurrent requests share
+ * one disk flush instead of queueing behind one each. Replaying the file therefore yields the
+ * comments that were accepted but not written yet. A crash between the database commit
+ * and the done line replays a comment that was already written, so delivery is at least
+ * once. A torn last line, left by a crash in the middle of a write, is cut off on open.
+ * Once {@code compactAfter} comments are marked done, the comments still pending are
+ * copied to a new file that replaces the journal, so a queue that is never idle does not
+ * grow it without bound. Locks are {@link ReentrantLock}s, which, unlike monitors, do
+ * not pin a virtual thread to its carrier while it waits for the disk.
+ */
+public class CommentJournal implements Closeable {
+
+    public record Entry(long seq, long postId, String content) {
+    }
+
+    private record Done(List<Long> done) {
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final int compactAfter;
+    private final List<Entry> pending;
+    private final Map<Long, Entry> live;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final Condition forced = forceLock.newCondition();
+    private FileChannel channel;
+    private long lastSeq;
+    private int doneSinceCompaction;
+    private volatile long appendedSeq;
+    private long forcedSeq;
+    private boolean forcing;
+
+    public CommentJournal(Path path, ObjectMapper objectMapper, int compactAfter) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.compactAfter = compactAfter;
+
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.live = replay(Files.readAllBytes(path));
+            this.pending = List.copyOf(live.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open comment journal: " + path, e);
+        }
+    }
+
+    /**
+     * The comments left pending by the previous run, in the order they were accepted.
+     */
+    public List<Entry> pending() {
+        return pending;
+    }
+
+    /**
+     * Appends a comment without forcing it to disk; the caller accepts it only after
+     * {@link #force} for its sequence number returns.
+     */
+    public Entry append(long postId, String content) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(++lastSeq, postId, content);
+            writeLine(channel, entry);
+            live.put(entry.seq(), entry);
+            appendedSeq = entry.seq();
+
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns once the comment with the given sequence number, and every one appended
+     * before it, is on disk. A caller that finds a force in progress waits for it and
+     * returns without forcing again if that force covered its comment.
+     */
+    public void force(long seq) {
+        forceLock.lock();
+        try {
+            while (forcedSeq < seq) {
+                if (forcing) {
+                    forced.awaitUninterruptibly();
+                } else {
+                    forceAppended();
+                }
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the comments done, and compacts the journal once enough of them are.
+     */
+    public void markDone(List<Long> seqs) {
+        lock.lock();
+        try {
+            write(new Done(seqs));
+            seqs.forEach(live::remove);
+            doneSinceCompaction += seqs.size();
+
+            if (doneSinceCompaction >= compactAfter) {
+                compact();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empties the journal once nothing is pending. The last sequence number is kept in
+     * a done line, so sequence numbers keep growing across restarts.
+     */
+    public void reset() {
+        lock.lock();
+        try {
+            channel.truncate(0);
+
+            if (lastSeq > 0) {
+                write(new Done(List.of(lastSeq)));
+            }
+            live.clear();
+            doneSinceCompaction = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reset comment journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything appended so far. The force lock is released during the force, so
+     * the callers arriving meanwhile wait on the condition and are all covered by the
+     * next force.
+     */
+    private void forceAppended() {
+        long appended = appendedSeq;
+        FileChannel forcedChannel = channel;
+        forcing = true;
+        forceLock.unlock();
+
+        try {
+            force(forcedChannel);
+        } finally {
+            forceLock.lock();
+            forcing = false;
+            forced.signalAll();
+        }
+
+        forcedSeq = Math.max(forcedSeq, appended);
+    }
+
+    /**
+     * Writes the pending comments to a new file, behind a done line that keeps the last
+     * sequence number, and moves it over the journal, so a crash leaves either the old
+     * journal or the new one. No force is in progress meanwhile, and every comment
+     * appended so far is on disk afterwards.
+     */
+    private void compact() {
+        forceLock.lock();
+        try {
+            while (forcing) {
+                forced.awaitUninterruptibly();
+            }
+
+            Path compacted = path.resolveSibling(path.getFileName() + ".compacted");
+
+            try (FileChannel compactedChannel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeLine(compactedChannel, new Done(List.of(lastSeq)));
+                live.values().forEach(entry -> writeLine(compactedChannel, entry));
+                force(compactedChannel);
+            }
+
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+
+            forcedSeq = Math.max(forcedSeq, lastSeq);
+            doneSinceCompaction = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact comment journal", e);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private Map<Long, Entry> replay(byte[] content) throws IOException {
+        Map<Long, Entry> entries = new LinkedHashMap<>();
+        int lineStart = 0;
+
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+
+            JsonNode line = objectMapper.readTree(new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8));
+            lineStart = i + 1;
+
+            if (line.has("done")) {
+                for (JsonNode seq : line.get("done")) {
+                    entries.remove(seq.asLong());
+                    lastSeq = Math.max(lastSeq, seq.asLong());
+                    doneSinceCompaction++;
+                }
+            } else {
+                Entry entry = objectMapper.treeToValue(line, Entry.class);
+                entries.put(entry.seq(), entry);
+                lastSeq = Math.max(lastSeq, entry.seq());
+            }
+        }
+
+        channel.truncate(lineStart);
+        channel.position(lineStart);
+
+        return entries;
+    }
+
+    private void write(Object line) {
+        writeLine(channel, line);
+        force(channel);
+    }
+
+    private void writeLine(FileChannel target, Object line) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8));
+
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize comment journal line", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write comment journal", e);
+        }
+    }
+
+    private static void force(FileChannel target) {
+        try {
+            target.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write comment journal", e);
+        }
+    }
+
+}
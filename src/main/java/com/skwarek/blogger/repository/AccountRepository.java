@@ -1,10 +1,44 @@
 package com.skwarek.blogger.repository;
 
 import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.dto.AccountSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountStatementRepository {
+
+    @EntityGraph("Account.posts")
+    Optional<Account> findWithPostsById(Long id);
+
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<AccountSummary> findSummariesByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("select a.version from Account a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 
     boolean existsByEmail(String email);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Account> findForExportByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select a.email from Account a")
+    Stream<String> streamAllEmails();
+
+    @Modifying
+    @Query("delete from Account a where a.id = :id")
+    int deleteInBulkById(@Param("id") Long id);
+
 }
@@ -0,0 +1,15 @@
+package com.skwarek.blogger.repository;
+
+import java.util.Collection;
+
+public interface AccountStatementRepository {
+
+    int updateCredentials(Long accountId, String email, String password);
+
+    int addToFollowerCount(Long accountId, long delta, long fanOutMaxFollowers);
+
+    int decrementFollowerCounts(Collection<Long> accountIds);
+
+    int incrementVersion(Long accountId);
+
+}
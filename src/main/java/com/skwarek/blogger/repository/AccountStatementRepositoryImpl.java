@@ -0,0 +1,80 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.domain.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+
+/**
+ * Writes account rows with native statements; a duplicate email is left to the unique
+ * constraint instead of being checked with a query first.
+ */
+public class AccountStatementRepositoryImpl implements AccountStatementRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateCredentials(Long accountId, String email, String password) {
+        int updatedAccounts = RowStatements.create(entityManager, "update account set email = :email, " +
+                        "password = :password, version = version + 1 where id = :id")
+                .setParameter("email", email)
+                .setParameter("password", password)
+                .setParameter("id", accountId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Account.class, accountId);
+
+        return updatedAccounts;
+    }
+
+    /**
+     * Once the count goes over {@code fanOutMaxFollowers} the account is marked to have
+     * its posts read by its followers instead of written to their timelines, and stays
+     * marked, so none of its posts fall between the two. The flag is set first, because
+     * MySQL evaluates the assignments of an update from left to right.
+     */
+    @Override
+    public int addToFollowerCount(Long accountId, long delta, long fanOutMaxFollowers) {
+        int updatedAccounts = RowStatements.create(entityManager, "update account set " +
+                        "fan_out_on_read = fan_out_on_read or follower_count + :delta > :fanOutMaxFollowers, " +
+                        "follower_count = follower_count + :delta, version = version + 1 where id = :id")
+                .setParameter("delta", delta)
+                .setParameter("fanOutMaxFollowers", fanOutMaxFollowers)
+                .setParameter("id", accountId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Account.class, accountId);
+
+        return updatedAccounts;
+    }
+
+    @Override
+    public int decrementFollowerCounts(Collection<Long> accountIds) {
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+
+        int updatedAccounts = RowStatements.create(entityManager, "update account set " +
+                        "follower_count = follower_count - 1, version = version + 1 where id in (:ids)")
+                .setParameter("ids", accountIds)
+                .executeUpdate();
+
+        accountIds.forEach(accountId -> RowStatements.evictEntity(entityManager, Account.class, accountId));
+
+        return updatedAccounts;
+    }
+
+    @Override
+    public int incrementVersion(Long accountId) {
+        int updatedAccounts = RowStatements.create(entityManager, "update account set version = version + 1 where id = :id")
+                .setParameter("id", accountId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Account.class, accountId);
+
+        return updatedAccounts;
+    }
+
+}
@@ -1,12 +1,63 @@
 package com.skwarek.blogger.repository;
 
 import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.dto.CommentParent;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.IndexedComment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentStatementRepository {
+
+    @EntityGraph("Comment.post")
+    Optional<Comment> findWithPostById(Long id);
+
+    @Query("select new com.skwarek.blogger.dto.CommentParent(c.post.id, c.post.account.id) from Comment c where c.id = :id")
+    Optional<CommentParent> findParentById(@Param("id") Long id);
 
     List<Comment> findByPostId(Long postId);
 
+    List<Comment> findByPostIdAndIdGreaterThanOrderByIdAsc(Long postId, Long afterId, Pageable pageable);
+
+    List<Comment> findByPostIdAndIdLessThanOrderByIdDesc(Long postId, Long beforeId, Pageable pageable);
+
+    List<CommentSummary> findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(Long postId, Long afterId, Pageable pageable);
+
+    List<CommentSummary> findSummariesByPostIdAndIdLessThanOrderByIdDesc(Long postId, Long beforeId, Pageable pageable);
+
+    List<CommentSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("select c.version from Comment c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    long countByPostId(Long postId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("select c from Comment c where c.post.account.id in :accountIds order by c.post.id, c.id")
+    List<Comment> findForExportByAccountIdIn(@Param("accountIds") Collection<Long> accountIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.skwarek.blogger.dto.IndexedComment(c.id, c.post.id, c.content) from Comment c order by c.id")
+    Stream<IndexedComment> streamIndexedByOrderByIdAsc();
+
+    @Modifying
+    @Query("delete from Comment c where c.post.id = :postId")
+    int deleteInBulkByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from Comment c where c.post.id in (select p.id from Post p where p.account.id = :accountId)")
+    int deleteInBulkByAccountId(@Param("accountId") Long accountId);
+
 }
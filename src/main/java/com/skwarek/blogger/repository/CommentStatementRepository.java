@@ -0,0 +1,9 @@
+package com.skwarek.blogger.repository;
+
+public interface CommentStatementRepository {
+
+    int updateContent(Long commentId, String content);
+
+    int deleteFromPost(Long postId, Long commentId);
+
+}
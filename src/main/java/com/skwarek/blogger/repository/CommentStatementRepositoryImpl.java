@@ -0,0 +1,48 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.domain.Post;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+
+/**
+ * Writes a comment row with single native statements. A deleted comment also leaves
+ * the cached comments collection of its post.
+ */
+public class CommentStatementRepositoryImpl implements CommentStatementRepository {
+
+    private static final String POST_COMMENTS_ROLE = Post.class.getName() + ".comments";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateContent(Long commentId, String content) {
+        int updatedComments = RowStatements.create(entityManager, "update comment set content = :content, " +
+                        "updated_at = :updatedAt, version = version + 1 where id = :id")
+                .setParameter("content", content)
+                .setParameter("updatedAt", Instant.now())
+                .setParameter("id", commentId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Comment.class, commentId);
+
+        return updatedComments;
+    }
+
+    @Override
+    public int deleteFromPost(Long postId, Long commentId) {
+        int deletedComments = RowStatements.create(entityManager, "delete from comment where id = :id and post_id = :postId")
+                .setParameter("id", commentId)
+                .setParameter("postId", postId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Comment.class, commentId);
+        RowStatements.evictCollection(entityManager, POST_COMMENTS_ROLE, postId);
+
+        return deletedComments;
+    }
+
+}
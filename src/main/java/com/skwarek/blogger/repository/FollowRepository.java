@@ -0,0 +1,29 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.domain.Follow;
+import com.skwarek.blogger.domain.FollowId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FollowRepository extends JpaRepository<Follow, FollowId> {
+
+    @Query("select f.id.followeeId from Follow f where f.id.accountId = :accountId")
+    List<Long> findFolloweeIdsByAccountId(@Param("accountId") Long accountId);
+
+    @Query("select a.id from Follow f join Account a on a.id = f.id.followeeId " +
+            "where f.id.accountId = :accountId and a.fanOutOnRead = true")
+    List<Long> findFanOutOnReadFolloweeIdsByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("delete from Follow f where f.id.accountId = :accountId and f.id.followeeId = :followeeId")
+    int deleteInBulkById(@Param("accountId") Long accountId, @Param("followeeId") Long followeeId);
+
+    @Modifying
+    @Query("delete from Follow f where f.id.accountId = :accountId or f.id.followeeId = :accountId")
+    int deleteInBulkByAccountId(@Param("accountId") Long accountId);
+
+}
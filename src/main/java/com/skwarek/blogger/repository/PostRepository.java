@@ -1,12 +1,90 @@
 package com.skwarek.blogger.repository;
 
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.FeedItem;
+import com.skwarek.blogger.dto.PostSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostStatementRepository {
+
+    @EntityGraph("Post.comments")
+    Optional<Post> findWithCommentsById(Long id);
 
     List<Post> findByAccountId(Long accountId);
 
+    @EntityGraph("Post.comments")
+    List<Post> findWithCommentsByAccountId(Long accountId);
+
+    List<Post> findByAccountIdAndIdLessThanOrderByIdDesc(Long accountId, Long beforeId, Pageable pageable);
+
+    List<PostSummary> findSummariesByAccountIdAndIdLessThanOrderByIdDesc(Long accountId, Long beforeId, Pageable pageable);
+
+    @Query("select new com.skwarek.blogger.dto.FeedItem(p.id, p.content, p.commentCount, p.createdAt, a.id, a.email) " +
+            "from Post p join p.account a order by p.createdAt desc, p.id desc")
+    List<FeedItem> findFeedItems(Pageable pageable);
+
+    @Query("select new com.skwarek.blogger.dto.FeedItem(p.id, p.content, p.commentCount, p.createdAt, a.id, a.email) " +
+            "from Post p join p.account a " +
+            "where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id) " +
+            "order by p.createdAt desc, p.id desc")
+    List<FeedItem> findFeedItemsBefore(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.skwarek.blogger.dto.FeedItem(p.id, p.content, p.commentCount, p.createdAt, a.id, a.email) " +
+            "from Post p join p.account a where a.id in :accountIds " +
+            "order by p.createdAt desc, p.id desc")
+    List<FeedItem> findFeedItemsByAccountIdIn(@Param("accountIds") Collection<Long> accountIds, Pageable pageable);
+
+    @Query("select new com.skwarek.blogger.dto.FeedItem(p.id, p.content, p.commentCount, p.createdAt, a.id, a.email) " +
+            "from Post p join p.account a where a.id in :accountIds " +
+            "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id)) " +
+            "order by p.createdAt desc, p.id desc")
+    List<FeedItem> findFeedItemsByAccountIdInBefore(@Param("accountIds") Collection<Long> accountIds, @Param("createdAt") Instant createdAt,
+                                                    @Param("id") Long id, Pageable pageable);
+
+    @Query("select p.version from Post p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    List<PostSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("select p.id from Post p where p.account.id = :accountId")
+    List<Long> findIdsByAccountId(@Param("accountId") Long accountId);
+
+    @Query("select p.account.id from Post p where p.id = :id")
+    Optional<Long> findAccountIdById(@Param("id") Long id);
+
+    @Query("select max(p.id) from Post p")
+    Optional<Long> findMaxId();
+
+    @Query("select p.id from Post p where p.id > :afterId and p.id <= :toId " +
+            "and p.commentCount <> (select count(c) from Comment c where c.post = p)")
+    List<Long> findIdsWithDriftedCommentCount(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Post> findForExportByAccountIdInOrderByAccountIdAscIdAsc(Collection<Long> accountIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PostSummary> streamSummariesByOrderByIdAsc();
+
+    @Modifying
+    @Query("delete from Post p where p.account.id = :accountId")
+    int deleteInBulkByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("delete from Post p where p.id = :id")
+    int deleteInBulkById(@Param("id") Long id);
+
 }
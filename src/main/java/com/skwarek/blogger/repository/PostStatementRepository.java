@@ -0,0 +1,13 @@
+package com.skwarek.blogger.repository;
+
+public interface PostStatementRepository {
+
+    int updateContent(Long postId, String content);
+
+    int addToCommentCount(Long postId, long delta);
+
+    int recountComments(Long postId);
+
+    int incrementVersion(Long postId);
+
+}
@@ -0,0 +1,92 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.domain.Post;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes a post row with single native statements. Comments are embedded in their
+ * post, so every change to them also moves the post's version, and with it the
+ * post's ETag. Posts are in turn embedded in their account, so every write here also
+ * moves the account's version, which is all the account's ETag is built from.
+ */
+public class PostStatementRepositoryImpl implements PostStatementRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateContent(Long postId, String content) {
+        int updatedPosts = RowStatements.create(entityManager, "update post set content = :content, " +
+                        "updated_at = :updatedAt, version = version + 1 where id = :id")
+                .setParameter("content", content)
+                .setParameter("updatedAt", Instant.now())
+                .setParameter("id", postId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Post.class, postId);
+        incrementAccountVersion(postId);
+
+        return updatedPosts;
+    }
+
+    @Override
+    public int addToCommentCount(Long postId, long delta) {
+        int updatedPosts = RowStatements.create(entityManager, "update post set comment_count = comment_count + :delta, " +
+                        "version = version + 1 where id = :id")
+                .setParameter("delta", delta)
+                .setParameter("id", postId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Post.class, postId);
+        incrementAccountVersion(postId);
+
+        return updatedPosts;
+    }
+
+    @Override
+    public int recountComments(Long postId) {
+        int updatedPosts = RowStatements.create(entityManager, "update post set comment_count = " +
+                        "(select count(*) from comment c where c.post_id = :id), version = version + 1 where id = :id")
+                .setParameter("id", postId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Post.class, postId);
+        incrementAccountVersion(postId);
+
+        return updatedPosts;
+    }
+
+    @Override
+    public int incrementVersion(Long postId) {
+        int updatedPosts = RowStatements.create(entityManager, "update post set version = version + 1 where id = :id")
+                .setParameter("id", postId)
+                .executeUpdate();
+
+        RowStatements.evictEntity(entityManager, Post.class, postId);
+        incrementAccountVersion(postId);
+
+        return updatedPosts;
+    }
+
+    private void incrementAccountVersion(Long postId) {
+        List<?> accountIds = RowStatements.create(entityManager, "select account_id from post where id = :id")
+                .setParameter("id", postId)
+                .getResultList();
+
+        for (Object accountId : accountIds) {
+            Long id = ((Number) accountId).longValue();
+
+            RowStatements.create(entityManager, "update account set version = version + 1 where id = :id")
+                    .setParameter("id", id)
+                    .executeUpdate();
+
+            RowStatements.evictEntity(entityManager, Account.class, id);
+        }
+    }
+
+}
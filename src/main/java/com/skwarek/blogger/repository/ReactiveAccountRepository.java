@@ -0,0 +1,35 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.dto.AccountSummary;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of account rows over R2DBC. Writes stay with {@link AccountRepository}.
+ */
+@Repository
+public class ReactiveAccountRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAccountRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Long> findIdById(Long id) {
+        return databaseClient.sql("select id from account where id = :id")
+                .bind("id", id)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Flux<AccountSummary> findSummariesByIdGreaterThanOrderByIdAsc(Long afterId) {
+        return databaseClient.sql("select id, email from account where id > :afterId order by id")
+                .bind("afterId", afterId)
+                .map(row -> new AccountSummary(row.get("id", Long.class), row.get("email", String.class)))
+                .all();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.dto.CommentSummary;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of comment rows over R2DBC. Writes stay with {@link CommentRepository}.
+ */
+@Repository
+public class ReactiveCommentRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCommentRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<CommentSummary> findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(Long postId, Long afterId) {
+        return databaseClient.sql("select id, content from comment where post_id = :postId and id > :afterId order by id")
+                .bind("postId", postId)
+                .bind("afterId", afterId)
+                .map(row -> new CommentSummary(row.get("id", Long.class), row.get("content", String.class)))
+                .all();
+    }
+
+}
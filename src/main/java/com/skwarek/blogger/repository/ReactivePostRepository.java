@@ -0,0 +1,37 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.dto.PostSummary;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of post rows over R2DBC. Writes stay with {@link PostRepository}.
+ */
+@Repository
+public class ReactivePostRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactivePostRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Long> findIdById(Long id) {
+        return databaseClient.sql("select id from post where id = :id")
+                .bind("id", id)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Flux<PostSummary> findSummariesByAccountIdAndIdLessThanOrderByIdDesc(Long accountId, Long beforeId) {
+        return databaseClient.sql("select id, content, comment_count from post where account_id = :accountId and id < :beforeId order by id desc")
+                .bind("accountId", accountId)
+                .bind("beforeId", beforeId)
+                .map(row -> new PostSummary(row.get("id", Long.class), row.get("content", String.class),
+                        row.get("comment_count", Long.class)))
+                .all();
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.skwarek.blogger.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Native statements that write a single row. An HQL update or delete would evict the
+ * whole entity region, and every collection region holding that entity, from the
+ * second-level cache; these statements are synchronized on a query space no entity
+ * uses, and callers evict only what they touched, once right away and once more when
+ * the transaction completes.
+ */
+final class RowStatements {
+
+    private static final String ROW_SPACE = "row_statement";
+
+    private RowStatements() {
+    }
+
+    static NativeQuery<?> create(EntityManager entityManager, String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(ROW_SPACE);
+    }
+
+    static void evictEntity(EntityManager entityManager, Class<?> entityClass, Object id) {
+        Cache cache = cacheOf(entityManager);
+
+        evictNowAndAfterCompletion(() -> cache.evictEntityData(entityClass, id));
+    }
+
+    static void evictCollection(EntityManager entityManager, String role, Object ownerId) {
+        Cache cache = cacheOf(entityManager);
+
+        evictNowAndAfterCompletion(() -> cache.evictCollectionData(role, ownerId));
+    }
+
+    private static Cache cacheOf(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+    }
+
+    private static void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.domain.TimelineEntry;
+import com.skwarek.blogger.domain.TimelineEntryId;
+import com.skwarek.blogger.dto.FeedItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TimelineRepository extends JpaRepository<TimelineEntry, TimelineEntryId>, TimelineStatementRepository {
+
+    @Query("select new com.skwarek.blogger.dto.FeedItem(p.id, p.content, p.commentCount, p.createdAt, a.id, a.email) " +
+            "from TimelineEntry t join Post p on p.id = t.id.postId join p.account a " +
+            "where t.id.accountId = :accountId " +
+            "order by t.createdAt desc, t.id.postId desc")
+    List<FeedItem> findFeedItemsByAccountId(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query("select new com.skwarek.blogger.dto.FeedItem(p.id, p.content, p.commentCount, p.createdAt, a.id, a.email) " +
+            "from TimelineEntry t join Post p on p.id = t.id.postId join p.account a " +
+            "where t.id.accountId = :accountId " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id.postId < :id)) " +
+            "order by t.createdAt desc, t.id.postId desc")
+    List<FeedItem> findFeedItemsByAccountIdBefore(@Param("accountId") Long accountId, @Param("createdAt") Instant createdAt,
+                                                  @Param("id") Long id, Pageable pageable);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.id.accountId = :accountId and t.authorId = :authorId")
+    int deleteInBulkByAccountIdAndAuthorId(@Param("accountId") Long accountId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.id.postId = :postId")
+    int deleteInBulkByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.id.accountId = :accountId or t.authorId = :accountId")
+    int deleteInBulkByAccountId(@Param("accountId") Long accountId);
+
+}
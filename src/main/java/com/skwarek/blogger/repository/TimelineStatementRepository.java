@@ -0,0 +1,11 @@
+package com.skwarek.blogger.repository;
+
+import java.time.Instant;
+
+public interface TimelineStatementRepository {
+
+    int fanOut(Long postId, Long authorId, Instant createdAt);
+
+    int backfill(Long accountId, Long followeeId, int limit);
+
+}
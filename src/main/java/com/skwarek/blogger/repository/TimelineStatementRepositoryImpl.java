@@ -0,0 +1,44 @@
+package com.skwarek.blogger.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.Instant;
+
+/**
+ * Writes timeline entries with set-based native statements, so fanning a post out to
+ * every follower of its author is one insert the database batches itself, with no row
+ * read into the application.
+ */
+public class TimelineStatementRepositoryImpl implements TimelineStatementRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int fanOut(Long postId, Long authorId, Instant createdAt) {
+        return RowStatements.create(entityManager, "insert into timeline_entry (account_id, post_id, author_id, created_at) " +
+                        "select f.account_id, :postId, :authorId, :createdAt from follow f where f.followee_id = :authorId")
+                .setParameter("postId", postId)
+                .setParameter("authorId", authorId)
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+    }
+
+    /**
+     * Copies the newest posts of a followee into the timeline of a new follower, leaving
+     * out those a concurrent fan-out has already written.
+     */
+    @Override
+    public int backfill(Long accountId, Long followeeId, int limit) {
+        return RowStatements.create(entityManager, "insert into timeline_entry (account_id, post_id, author_id, created_at) " +
+                        "select :accountId, p.id, p.account_id, p.created_at from post p where p.account_id = :followeeId " +
+                        "and not exists (select 1 from timeline_entry t where t.account_id = :accountId and t.post_id = p.id) " +
+                        "order by p.created_at desc, p.id desc limit :limit")
+                .setParameter("accountId", accountId)
+                .setParameter("followeeId", followeeId)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+}
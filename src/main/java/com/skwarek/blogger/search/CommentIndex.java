@@ -0,0 +1,174 @@
+package com.skwarek.blogger.search;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text index over comment content, split into {@code blogger.comment-search.shards}
+ * {@link InvertedIndex} shards by post, so all comments of a post live in one shard and
+ * writes to different shards do not contend. A search within a post runs on its shard
+ * alone and visits only the comments of that post; a search within several posts runs
+ * on their shards in parallel on a dedicated fork-join pool and merges the best hits of
+ * each. Document frequencies are summed over all shards first, so scores from different
+ * shards compare.
+ * <p>
+ * Changes made inside a read-write transaction are applied after it commits.
+ */
+@Component
+public class CommentIndex {
+
+    private final InvertedIndex[] shards;
+    private final ForkJoinPool pool;
+
+    public CommentIndex(@Value("${blogger.comment-search.shards:16}") int shardCount) {
+        this.shards = new InvertedIndex[shardCount];
+        Arrays.setAll(shards, shard -> new InvertedIndex());
+        this.pool = new ForkJoinPool(Math.min(shardCount, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public void put(Long commentId, Long postId, String content) {
+        List<String> terms = TextAnalyzer.terms(content);
+
+        InvertedIndex.afterCommit(() -> shardOf(postId).put(commentId, postId, terms));
+    }
+
+    public void remove(Long commentId, Long postId) {
+        InvertedIndex.afterCommit(() -> shardOf(postId).remove(commentId));
+    }
+
+    public void removePost(Long postId) {
+        InvertedIndex.afterCommit(() -> shardOf(postId).removeGroups(List.of(postId)));
+    }
+
+    /**
+     * Removes the comments of all the posts with one write lock per shard they fall in.
+     */
+    public void removePosts(Collection<Long> postIds) {
+        Map<InvertedIndex, List<Long>> postIdsByShard = postIds.stream()
+                .collect(Collectors.groupingBy(this::shardOf));
+
+        InvertedIndex.afterCommit(() -> postIdsByShard.forEach(InvertedIndex::removeGroups));
+    }
+
+    /**
+     * Starts a bulk load: until {@link #finishLoad}, comments changed or removed live,
+     * and the comments of posts removed live, are no longer overwritten by {@link #load}.
+     */
+    public void startLoad() {
+        Arrays.stream(shards).forEach(InvertedIndex::startLoad);
+    }
+
+    public void load(Long commentId, Long postId, String content) {
+        shardOf(postId).load(commentId, postId, TextAnalyzer.terms(content));
+    }
+
+    public void finishLoad() {
+        Arrays.stream(shards).forEach(InvertedIndex::finishLoad);
+    }
+
+    public int size() {
+        return Arrays.stream(shards)
+                .mapToInt(InvertedIndex::size)
+                .sum();
+    }
+
+    /**
+     * Returns the ids of at most {@code limit} comments of the post matching any of the
+     * query terms, best first.
+     */
+    public List<Long> searchPost(Long postId, String query, int limit) {
+        List<String> terms = termsOf(query);
+
+        return ids(shardOf(postId).searchGroup(terms, statistics(terms), postId, limit));
+    }
+
+    /**
+     * Returns the ids of at most {@code limit} comments of any of the posts matching any
+     * of the query terms, best first. Ties go to the newer comment.
+     */
+    public List<Long> searchPosts(Collection<Long> postIds, String query, int limit) {
+        List<String> terms = termsOf(query);
+        InvertedIndex.Statistics statistics = statistics(terms);
+
+        long[] sortedPostIds = postIds.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        LongPredicate inPosts = group -> Arrays.binarySearch(sortedPostIds, group) >= 0;
+
+        List<Callable<List<InvertedIndex.Hit>>> shardSearches = postIds.stream()
+                .map(this::shardOf)
+                .distinct()
+                .<Callable<List<InvertedIndex.Hit>>>map(shard ->
+                        () -> shard.search(terms, statistics, inPosts, limit))
+                .toList();
+
+        List<InvertedIndex.Hit> hits = new ArrayList<>();
+        for (Future<List<InvertedIndex.Hit>> shardHits : pool.invokeAll(shardSearches)) {
+            hits.addAll(join(shardHits));
+        }
+
+        return ids(hits.stream()
+                .sorted(InvertedIndex.Hit.BEST_FIRST)
+                .limit(limit)
+                .toList());
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdown();
+    }
+
+    private InvertedIndex shardOf(long postId) {
+        return shards[Math.floorMod(Long.hashCode(postId), shards.length)];
+    }
+
+    private InvertedIndex.Statistics statistics(List<String> terms) {
+        InvertedIndex.Statistics statistics = new InvertedIndex.Statistics(terms.size());
+
+        for (InvertedIndex shard : shards) {
+            shard.addStatistics(terms, statistics);
+        }
+
+        return statistics;
+    }
+
+    private static List<String> termsOf(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+    }
+
+    private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream()
+                .map(InvertedIndex.Hit::id)
+                .toList();
+    }
+
+    private static List<InvertedIndex.Hit> join(Future<List<InvertedIndex.Hit>> shardHits) {
+        try {
+            return shardHits.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching comments", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Comment search failed", e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,775 @@
+package com.skwarek.blogger.search;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory inverted index ranked with BM25, the core of {@link PostIndex} and of each
+ * shard of {@link CommentIndex}. Every document gets a dense ordinal, and each term keeps
+ * its postings as two growing {@code int[]}: the ordinals in ascending order and the term
+ * frequency in each. Queries walk the posting lists of their terms side by side, document
+ * at a time, and keep only the best hits in a bounded heap, so a query allocates nothing
+ * in proportion to the number of documents.
+ * <p>
+ * Every document also carries a group, the post a comment belongs to, which queries can
+ * filter on and which can be removed as a whole. Each group keeps the ordinals of its
+ * documents, so removing a group or searching within one touches only its documents.
+ * <p>
+ * A bulk load from the database runs alongside live changes. Between
+ * {@link #startLoad} and {@link #finishLoad} the index remembers every document and
+ * group changed live, and {@link #load} skips those: the load read them before or
+ * without that change, so its copy is the older one.
+ * <p>
+ * A removed or changed document only tombstones its old ordinal; a changed document is
+ * added again under a new one. Like Lucene before a merge, tombstoned postings still
+ * count in document frequencies until they outnumber the live ones and the index
+ * compacts itself.
+ */
+final class InvertedIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+    private static final int BLOCK_SIZE = 32;
+
+    record Hit(long id, float score) {
+
+        /**
+         * Best first; ties go to the higher id.
+         */
+        static final Comparator<Hit> BEST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparingLong(Hit::id)
+                .reversed();
+
+    }
+
+    /**
+     * Corpus statistics for a query, summed over every index it runs on, so that hits
+     * from different shards are scored alike and can be merged.
+     */
+    static final class Statistics {
+
+        private final int[] documentFrequencies;
+        private long documentCount;
+        private long liveCount;
+        private long totalLength;
+
+        Statistics(int termCount) {
+            this.documentFrequencies = new int[termCount];
+        }
+
+        float idf(int term) {
+            int documentFrequency = documentFrequencies[term];
+            return (float) Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        float averageLength() {
+            return (float) totalLength / Math.max(1, liveCount);
+        }
+
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final OrdinalMap ordinals = new OrdinalMap();
+    private final Map<Long, GroupOrdinals> ordinalsByGroup = new HashMap<>();
+    private final BitSet tombstones = new BitSet();
+    private long[] ids = new long[1024];
+    private long[] groups = new long[1024];
+    private int[] lengths = new int[1024];
+    private int nextOrdinal;
+    private int tombstoneCount;
+    private long totalLength;
+    private Set<Long> changedWhileLoading;
+    private Set<Long> groupsRemovedWhileLoading;
+
+    void put(long id, long group, List<String> terms) {
+        lock.writeLock().lock();
+        try {
+            changedLocked(id);
+            removeLocked(id);
+            addLocked(id, group, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            changedLocked(id);
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void startLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = new HashSet<>();
+            groupsRemovedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puts a document read by the bulk load, unless it or its group has changed live
+     * since the load started.
+     */
+    void load(long id, long group, List<String> terms) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null
+                    && (changedWhileLoading.contains(id) || groupsRemovedWhileLoading.contains(group))) {
+                return;
+            }
+
+            removeLocked(id);
+            addLocked(id, group, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = null;
+            groupsRemovedWhileLoading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every document of the groups under one write lock, visiting only the
+     * ordinals of those groups.
+     */
+    void removeGroups(Collection<Long> groups) {
+        lock.writeLock().lock();
+        try {
+            for (long group : groups) {
+                if (groupsRemovedWhileLoading != null) {
+                    groupsRemovedWhileLoading.add(group);
+                }
+
+                GroupOrdinals groupOrdinals = ordinalsByGroup.remove(group);
+                if (groupOrdinals == null) {
+                    continue;
+                }
+
+                for (int i = 0; i < groupOrdinals.size; i++) {
+                    int ordinal = groupOrdinals.ordinals[i];
+                    if (!tombstones.get(ordinal)) {
+                        ordinals.remove(ids[ordinal]);
+                        tombstoneLocked(ordinal);
+                    }
+                }
+            }
+
+            compactIfNeededLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return nextOrdinal - tombstoneCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void addStatistics(List<String> terms, Statistics statistics) {
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < terms.size(); i++) {
+                Postings postings = postingsByTerm.get(terms.get(i));
+                if (postings != null) {
+                    statistics.documentFrequencies[i] += postings.size;
+                }
+            }
+
+            statistics.documentCount += nextOrdinal;
+            statistics.liveCount += nextOrdinal - tombstoneCount;
+            statistics.totalLength += totalLength;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} documents of the accepted groups matching any of the
+     * distinct query terms, best first. Ties go to the document indexed last.
+     * <p>
+     * Uses block-max MaxScore pruning. No document can score more from a term than
+     * its highest frequency in its shortest document would. Once the worst of the best
+     * hits so far beats the summed bounds of the lowest-bound terms, a document matching
+     * only those terms cannot make it, so they stop proposing candidates and are only
+     * probed, by galloping, for documents the other terms propose. The same bound kept
+     * per block of {@value #BLOCK_SIZE} postings lets the proposing terms skip whole
+     * blocks that cannot beat the best hits, which is what keeps queries of only common
+     * terms from walking their posting lists end to end.
+     */
+    List<Hit> search(List<String> terms, Statistics statistics, LongPredicate groupFilter, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Integer> matchedTerms = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                if (postingsByTerm.containsKey(terms.get(i))) {
+                    matchedTerms.add(i);
+                }
+            }
+
+            if (matchedTerms.isEmpty()) {
+                return List.of();
+            }
+
+            float averageLength = statistics.averageLength();
+            matchedTerms.sort(Comparator.comparingDouble(
+                    i -> postingsByTerm.get(terms.get(i)).maxScore(statistics.idf(i), averageLength)));
+
+            int termCount = matchedTerms.size();
+            Postings[] postingLists = new Postings[termCount];
+            float[] idfs = new float[termCount];
+            float[] maxScores = new float[termCount];
+            for (int i = 0; i < termCount; i++) {
+                postingLists[i] = postingsByTerm.get(terms.get(matchedTerms.get(i)));
+                idfs[i] = statistics.idf(matchedTerms.get(i));
+                maxScores[i] = (i > 0 ? maxScores[i - 1] : 0) + postingLists[i].maxScore(idfs[i], averageLength);
+            }
+
+            int[] positions = new int[termCount];
+            int firstEssential = 0;
+            int checkedUpTo = -1;
+            float threshold = Float.NEGATIVE_INFINITY;
+            PriorityQueue<OrdinalHit> best = new PriorityQueue<>(limit + 1, OrdinalHit.WORST_FIRST);
+
+            while (true) {
+                int ordinal = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < termCount; i++) {
+                    Postings postings = postingLists[i];
+                    if (positions[i] < postings.size) {
+                        ordinal = Math.min(ordinal, postings.ordinals[positions[i]]);
+                    }
+                }
+
+                if (ordinal == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                if (best.size() == limit && ordinal > checkedUpTo) {
+                    int blockEnd = Integer.MAX_VALUE;
+                    float bound = 0;
+                    for (int i = firstEssential; i < termCount; i++) {
+                        Postings postings = postingLists[i];
+                        if (positions[i] < postings.size) {
+                            blockEnd = Math.min(blockEnd, postings.lastOrdinal(positions[i] / BLOCK_SIZE));
+                        }
+                    }
+                    for (int i = firstEssential; i < termCount; i++) {
+                        Postings postings = postingLists[i];
+                        if (positions[i] < postings.size && postings.ordinals[positions[i]] <= blockEnd) {
+                            bound += postings.blockMaxScore(positions[i] / BLOCK_SIZE, idfs[i], averageLength);
+                        }
+                    }
+                    for (int i = 0; i < firstEssential; i++) {
+                        Postings postings = postingLists[i];
+                        positions[i] = postings.advance(positions[i], ordinal);
+                        bound += postings.maxScore(positions[i], blockEnd, idfs[i], averageLength);
+                    }
+
+                    if (bound < threshold) {
+                        for (int i = firstEssential; i < termCount; i++) {
+                            positions[i] = postingLists[i].advance(positions[i], blockEnd + 1);
+                        }
+                        continue;
+                    }
+                    checkedUpTo = blockEnd;
+                }
+
+                float lengthNorm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                float score = 0;
+                for (int i = firstEssential; i < termCount; i++) {
+                    Postings postings = postingLists[i];
+                    if (positions[i] < postings.size && postings.ordinals[positions[i]] == ordinal) {
+                        int frequency = postings.frequencies[positions[i]++];
+                        score += idfs[i] * frequency * (K1 + 1) / (frequency + lengthNorm);
+                    }
+                }
+
+                if (tombstones.get(ordinal) || !groupFilter.test(groups[ordinal])) {
+                    continue;
+                }
+
+                for (int i = firstEssential - 1; i >= 0 && score + maxScores[i] >= threshold; i--) {
+                    Postings postings = postingLists[i];
+                    positions[i] = postings.advance(positions[i], ordinal);
+                    if (positions[i] < postings.size && postings.ordinals[positions[i]] == ordinal) {
+                        int frequency = postings.frequencies[positions[i]];
+                        score += idfs[i] * frequency * (K1 + 1) / (frequency + lengthNorm);
+                    }
+                }
+
+                if (best.size() < limit || score >= threshold) {
+                    best.offer(new OrdinalHit(ordinal, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                    if (best.size() == limit) {
+                        threshold = best.peek().score();
+                        while (firstEssential < termCount && maxScores[firstEssential] < threshold) {
+                            firstEssential++;
+                        }
+                    }
+                }
+            }
+
+            return hitsOf(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} documents of the group matching any of the distinct
+     * query terms, best first, like {@link #search} but driven by the ordinals of the
+     * group: each is probed, by galloping, in the posting list of every term, so a small
+     * group costs the same however many documents the other groups hold.
+     */
+    List<Hit> searchGroup(List<String> terms, Statistics statistics, long group, int limit) {
+        lock.readLock().lock();
+        try {
+            GroupOrdinals groupOrdinals = ordinalsByGroup.get(group);
+
+            if (groupOrdinals == null) {
+                return List.of();
+            }
+
+            Postings[] postingLists = new Postings[terms.size()];
+            float[] idfs = new float[terms.size()];
+            int termCount = 0;
+            for (int i = 0; i < terms.size(); i++) {
+                Postings postings = postingsByTerm.get(terms.get(i));
+                if (postings != null) {
+                    postingLists[termCount] = postings;
+                    idfs[termCount++] = statistics.idf(i);
+                }
+            }
+
+            int[] positions = new int[termCount];
+            float averageLength = statistics.averageLength();
+            PriorityQueue<OrdinalHit> best = new PriorityQueue<>(limit + 1, OrdinalHit.WORST_FIRST);
+
+            for (int i = 0; i < groupOrdinals.size; i++) {
+                int ordinal = groupOrdinals.ordinals[i];
+                if (tombstones.get(ordinal)) {
+                    continue;
+                }
+
+                float lengthNorm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                float score = 0;
+                boolean matched = false;
+                for (int term = 0; term < termCount; term++) {
+                    Postings postings = postingLists[term];
+                    positions[term] = postings.advance(positions[term], ordinal);
+                    if (positions[term] < postings.size && postings.ordinals[positions[term]] == ordinal) {
+                        int frequency = postings.frequencies[positions[term]];
+                        score += idfs[term] * frequency * (K1 + 1) / (frequency + lengthNorm);
+                        matched = true;
+                    }
+                }
+
+                if (matched) {
+                    best.offer(new OrdinalHit(ordinal, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            return hitsOf(best);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25 weight of a term in a document; the highest frequency and the shortest length
+     * of a set of documents give a bound on the weight in any of them.
+     */
+    private static float weight(float idf, int frequency, int length, float averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    /**
+     * Applies an index change once the current read-write transaction commits, or right
+     * away outside of one, so that a rolled back write never shows up in searches.
+     */
+    static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private List<Hit> hitsOf(PriorityQueue<OrdinalHit> best) {
+        Hit[] hits = new Hit[best.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            OrdinalHit hit = best.poll();
+            hits[i] = new Hit(ids[hit.ordinal()], hit.score());
+        }
+
+        return Arrays.asList(hits);
+    }
+
+    private void addLocked(long id, long group, List<String> terms) {
+        int ordinal = nextOrdinal++;
+
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ordinal + (ordinal >> 1));
+            groups = Arrays.copyOf(groups, ids.length);
+            lengths = Arrays.copyOf(lengths, ids.length);
+        }
+
+        ids[ordinal] = id;
+        groups[ordinal] = group;
+        lengths[ordinal] = terms.size();
+        totalLength += terms.size();
+        ordinals.put(id, ordinal);
+        ordinalsByGroup.computeIfAbsent(group, key -> new GroupOrdinals()).add(ordinal);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        frequencies.forEach((term, frequency) -> postingsByTerm.computeIfAbsent(term, key -> new Postings()).add(ordinal, frequency, terms.size()));
+    }
+
+    private void changedLocked(long id) {
+        if (changedWhileLoading != null) {
+            changedWhileLoading.add(id);
+        }
+    }
+
+    private void removeLocked(long id) {
+        int ordinal = ordinals.remove(id);
+
+        if (ordinal < 0) {
+            return;
+        }
+
+        tombstoneLocked(ordinal);
+        compactIfNeededLocked();
+    }
+
+    private void tombstoneLocked(int ordinal) {
+        tombstones.set(ordinal);
+        tombstoneCount++;
+        totalLength -= lengths[ordinal];
+    }
+
+    private void compactIfNeededLocked() {
+        if (tombstoneCount >= MIN_COMPACTION_TOMBSTONES && tombstoneCount > nextOrdinal - tombstoneCount) {
+            compactLocked();
+        }
+    }
+
+    /**
+     * Renumbers the live documents densely in their current order and drops tombstoned
+     * postings, along with terms left without any.
+     */
+    private void compactLocked() {
+        int[] newOrdinals = new int[nextOrdinal];
+        int liveCount = 0;
+        ordinalsByGroup.clear();
+
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (tombstones.get(ordinal)) {
+                newOrdinals[ordinal] = -1;
+            } else {
+                newOrdinals[ordinal] = liveCount;
+                ids[liveCount] = ids[ordinal];
+                groups[liveCount] = groups[ordinal];
+                lengths[liveCount] = lengths[ordinal];
+                ordinals.put(ids[liveCount], liveCount);
+                ordinalsByGroup.computeIfAbsent(groups[liveCount], key -> new GroupOrdinals()).add(liveCount);
+                liveCount++;
+            }
+        }
+
+        Iterator<Postings> postingsIterator = postingsByTerm.values().iterator();
+        while (postingsIterator.hasNext()) {
+            Postings postings = postingsIterator.next();
+            postings.renumber(newOrdinals, lengths);
+            if (postings.size == 0) {
+                postingsIterator.remove();
+            }
+        }
+
+        nextOrdinal = liveCount;
+        tombstoneCount = 0;
+        tombstones.clear();
+    }
+
+    private record OrdinalHit(int ordinal, float score) {
+
+        static final Comparator<OrdinalHit> WORST_FIRST = Comparator.comparingDouble(OrdinalHit::score)
+                .thenComparingInt(OrdinalHit::ordinal);
+
+    }
+
+    /**
+     * Posting list of one term, with the highest frequency and the shortest document for
+     * the whole list and for every block of {@value #BLOCK_SIZE} postings, the inputs of
+     * the score bounds that search prunes with.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int[] blockMaxFrequencies = new int[1];
+        private int[] blockMinLengths = new int[1];
+        private int maxFrequency;
+        private int minLength = Integer.MAX_VALUE;
+
+        void add(int ordinal, int frequency, int length) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size + (size >> 1));
+                frequencies = Arrays.copyOf(frequencies, ordinals.length);
+            }
+
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            addToBlock(size, frequency, length);
+            size++;
+        }
+
+        int lastOrdinal(int block) {
+            return ordinals[Math.min((block + 1) * BLOCK_SIZE, size) - 1];
+        }
+
+        float maxScore(float idf, float averageLength) {
+            return weight(idf, maxFrequency, minLength, averageLength);
+        }
+
+        float blockMaxScore(int block, float idf, float averageLength) {
+            return weight(idf, blockMaxFrequencies[block], blockMinLengths[block], averageLength);
+        }
+
+        /**
+         * Bounds the weight in the documents from {@code position} up to ordinal
+         * {@code lastOrdinal} by the blocks they fall in.
+         */
+        float maxScore(int position, int lastOrdinal, float idf, float averageLength) {
+            if (position >= size || ordinals[position] > lastOrdinal) {
+                return 0;
+            }
+
+            int blockMaxFrequency = 0;
+            int blockMinLength = Integer.MAX_VALUE;
+            for (int block = position / BLOCK_SIZE; block * BLOCK_SIZE < size && ordinals[block * BLOCK_SIZE] <= lastOrdinal; block++) {
+                blockMaxFrequency = Math.max(blockMaxFrequency, blockMaxFrequencies[block]);
+                blockMinLength = Math.min(blockMinLength, blockMinLengths[block]);
+            }
+
+            return weight(idf, blockMaxFrequency, blockMinLength, averageLength);
+        }
+
+        /**
+         * Returns the first position from {@code position} on whose ordinal is at least
+         * {@code ordinal}, galloping ahead and then searching the last step binarily.
+         */
+        int advance(int position, int ordinal) {
+            if (position >= size || ordinals[position] >= ordinal) {
+                return position;
+            }
+
+            int low = position;
+            int step = 1;
+            while (low + step < size && ordinals[low + step] < ordinal) {
+                low += step;
+                step <<= 1;
+            }
+
+            int found = Arrays.binarySearch(ordinals, low + 1, Math.min(low + step, size), ordinal);
+
+            return found >= 0 ? found : -found - 1;
+        }
+
+        /**
+         * Keeps only the postings of live documents under their new ordinals and works
+         * out the bounds again from {@code lengths}, already indexed by new ordinal.
+         */
+        void renumber(int[] newOrdinals, int[] lengths) {
+            int liveSize = 0;
+            maxFrequency = 0;
+            minLength = Integer.MAX_VALUE;
+
+            for (int i = 0; i < size; i++) {
+                int newOrdinal = newOrdinals[ordinals[i]];
+                if (newOrdinal >= 0) {
+                    ordinals[liveSize] = newOrdinal;
+                    frequencies[liveSize] = frequencies[i];
+                    addToBlock(liveSize, frequencies[i], lengths[newOrdinal]);
+                    liveSize++;
+                }
+            }
+
+            size = liveSize;
+            ordinals = Arrays.copyOf(ordinals, Math.max(4, liveSize));
+            frequencies = Arrays.copyOf(frequencies, ordinals.length);
+            blockMaxFrequencies = Arrays.copyOf(blockMaxFrequencies, Math.max(1, (liveSize + BLOCK_SIZE - 1) / BLOCK_SIZE));
+            blockMinLengths = Arrays.copyOf(blockMinLengths, blockMaxFrequencies.length);
+        }
+
+        private void addToBlock(int position, int frequency, int length) {
+            int block = position / BLOCK_SIZE;
+
+            if (block == blockMaxFrequencies.length) {
+                blockMaxFrequencies = Arrays.copyOf(blockMaxFrequencies, block + (block >> 1) + 1);
+                blockMinLengths = Arrays.copyOf(blockMinLengths, blockMaxFrequencies.length);
+            }
+
+            if (position % BLOCK_SIZE == 0) {
+                blockMaxFrequencies[block] = frequency;
+                blockMinLengths[block] = length;
+            } else {
+                blockMaxFrequencies[block] = Math.max(blockMaxFrequencies[block], frequency);
+                blockMinLengths[block] = Math.min(blockMinLengths[block], length);
+            }
+
+            maxFrequency = Math.max(maxFrequency, frequency);
+            minLength = Math.min(minLength, length);
+        }
+
+    }
+
+    /**
+     * Ordinals of the documents of one group in ascending order, tombstoned ones included
+     * until the next compaction.
+     */
+    private static final class GroupOrdinals {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size + (size >> 1));
+            }
+
+            ordinals[size++] = ordinal;
+        }
+
+    }
+
+    /**
+     * Open-addressing map from document id to ordinal over two primitive arrays. Ids are
+     * positive, so 0 marks a free slot; removal shifts the following entries back instead
+     * of leaving markers behind.
+     */
+    private static final class OrdinalMap {
+
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        void put(long key, int value) {
+            if (2 * (size + 1) > keys.length) {
+                resize();
+            }
+
+            for (int slot = slotOf(key, keys.length - 1); ; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == 0) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    size++;
+                    return;
+                }
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+            }
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int hole = slotOf(key, mask);
+
+            while (keys[hole] != key) {
+                if (keys[hole] == 0) {
+                    return -1;
+                }
+                hole = (hole + 1) & mask;
+            }
+
+            int value = values[hole];
+
+            for (int slot = (hole + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                int home = slotOf(keys[slot], mask);
+                boolean canMove = slot > hole ? (home <= hole || home > slot) : (home <= hole && home > slot);
+
+                if (canMove) {
+                    keys[hole] = keys[slot];
+                    values[hole] = values[slot];
+                    hole = slot;
+                }
+            }
+
+            keys[hole] = 0;
+            size--;
+
+            return value;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+
+            keys = new long[oldKeys.length * 2];
+            values = new int[keys.length];
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int slotOf(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+    }
+
+}
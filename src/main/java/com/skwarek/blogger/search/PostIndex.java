@@ -0,0 +1,65 @@
+package com.skwarek.blogger.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Full-text index over post content, one {@link InvertedIndex} ranked with BM25.
+ * Changes made inside a read-write transaction are applied after it commits.
+ */
+@Component
+public class PostIndex {
+
+    private static final long NO_GROUP = 0;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    public void put(Long postId, String content) {
+        List<String> terms = TextAnalyzer.terms(content);
+
+        InvertedIndex.afterCommit(() -> index.put(postId, NO_GROUP, terms));
+    }
+
+    public void remove(Long postId) {
+        InvertedIndex.afterCommit(() -> index.remove(postId));
+    }
+
+    /**
+     * Starts a bulk load: until {@link #finishLoad}, posts changed or removed through
+     * {@link #put} and {@link #remove} are no longer overwritten by {@link #load}.
+     */
+    public void startLoad() {
+        index.startLoad();
+    }
+
+    public void load(Long postId, String content) {
+        index.load(postId, NO_GROUP, TextAnalyzer.terms(content));
+    }
+
+    public void finishLoad() {
+        index.finishLoad();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the ids of at most {@code limit} posts matching any of the query terms,
+     * best first. Ties go to the post indexed last.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.terms(query)));
+
+        InvertedIndex.Statistics statistics = new InvertedIndex.Statistics(terms.size());
+        index.addStatistics(terms, statistics);
+
+        return index.search(terms, statistics, group -> true, limit).stream()
+                .map(InvertedIndex.Hit::id)
+                .toList();
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.skwarek.blogger.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns text into index terms: splits on anything that is not a letter or a digit,
+ * lower-cases, drops English stop words and over-long tokens, and stems what is left
+ * with step 1 of the Porter stemmer (plurals, -ed and -ing). Posts and queries go
+ * through the same analysis, so "Hopping" in a query finds "hops" in a post.
+ */
+final class TextAnalyzer {
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "will", "with");
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+
+        if (text == null) {
+            return terms;
+        }
+
+        int tokenStart = -1;
+
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inToken = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+
+            if (inToken && tokenStart < 0) {
+                tokenStart = i;
+            } else if (!inToken && tokenStart >= 0) {
+                String token = text.substring(tokenStart, i).toLowerCase(Locale.ROOT);
+
+                if (token.length() <= MAX_TERM_LENGTH && !STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+
+                tokenStart = -1;
+            }
+        }
+
+        return terms;
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 2 || !word.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+            return word;
+        }
+
+        StringBuilder stem = new StringBuilder(word);
+        removePlural(stem);
+        removePastOrProgressive(stem);
+        replaceTerminalY(stem);
+
+        return stem.toString();
+    }
+
+    /**
+     * Step 1a: sses -> ss, ies -> i, ss -> ss, s -> "".
+     */
+    private static void removePlural(StringBuilder word) {
+        if (endsWith(word, "sses") || endsWith(word, "ies")) {
+            word.setLength(word.length() - 2);
+        } else if (!endsWith(word, "ss") && endsWith(word, "s")) {
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    /**
+     * Step 1b: eed -> ee when the stem has a measure above zero; ed and ing are removed
+     * when the stem has a vowel, and the stem is then tidied up (hopp -> hop, fil -> file).
+     */
+    private static void removePastOrProgressive(StringBuilder word) {
+        if (endsWith(word, "eed")) {
+            if (measure(word, word.length() - 3) > 0) {
+                word.setLength(word.length() - 1);
+            }
+            return;
+        }
+
+        int stemLength;
+
+        if (endsWith(word, "ed")) {
+            stemLength = word.length() - 2;
+        } else if (endsWith(word, "ing")) {
+            stemLength = word.length() - 3;
+        } else {
+            return;
+        }
+
+        if (!hasVowel(word, stemLength)) {
+            return;
+        }
+
+        word.setLength(stemLength);
+
+        if (endsWith(word, "at") || endsWith(word, "bl") || endsWith(word, "iz")) {
+            word.append('e');
+        } else if (endsWithDoubleConsonant(word) && "lsz".indexOf(word.charAt(word.length() - 1)) < 0) {
+            word.setLength(word.length() - 1);
+        } else if (measure(word, word.length()) == 1 && endsWithConsonantVowelConsonant(word)) {
+            word.append('e');
+        }
+    }
+
+    /**
+     * Step 1c: y -> i when the stem has a vowel.
+     */
+    private static void replaceTerminalY(StringBuilder word) {
+        if (endsWith(word, "y") && hasVowel(word, word.length() - 1)) {
+            word.setCharAt(word.length() - 1, 'i');
+        }
+    }
+
+    private static boolean endsWith(CharSequence word, String suffix) {
+        int offset = word.length() - suffix.length();
+
+        if (offset < 0) {
+            return false;
+        }
+
+        for (int i = 0; i < suffix.length(); i++) {
+            if (word.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isConsonant(CharSequence word, int i) {
+        return switch (word.charAt(i)) {
+            case 'a', 'e', 'i', 'o', 'u' -> false;
+            case 'y' -> i == 0 || !isConsonant(word, i - 1);
+            default -> true;
+        };
+    }
+
+    /**
+     * The m in [C](VC)^m[V] over the first {@code length} letters.
+     */
+    private static int measure(CharSequence word, int length) {
+        int measure = 0;
+        int i = 0;
+
+        while (i < length && isConsonant(word, i)) {
+            i++;
+        }
+
+        while (i < length) {
+            while (i < length && !isConsonant(word, i)) {
+                i++;
+            }
+
+            if (i == length) {
+                break;
+            }
+
+            while (i < length && isConsonant(word, i)) {
+                i++;
+            }
+
+            measure++;
+        }
+
+        return measure;
+    }
+
+    private static boolean hasVowel(CharSequence word, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!isConsonant(word, i)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean endsWithDoubleConsonant(CharSequence word) {
+        int last = word.length() - 1;
+
+        return last > 0 && word.charAt(last) == word.charAt(last - 1) && isConsonant(word, last);
+    }
+
+    private static boolean endsWithConsonantVowelConsonant(CharSequence word) {
+        int last = word.length() - 1;
+
+        return last >= 2
+                && isConsonant(word, last - 2) && !isConsonant(word, last - 1) && isConsonant(word, last)
+                && "wxy".indexOf(word.charAt(last)) < 0;
+    }
+
+}
@@ -2,15 +2,21 @@ package com.skwarek.blogger.service;
 
 import com.skwarek.blogger.domain.Account;
 import com.skwarek.blogger.dto.AccountRequest;
-
-import java.util.List;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.CursorPage;
 
 public interface AccountService {
 
-    List<Account> findAll();
+    CursorPage<Account> findAll(String after, Integer limit);
+
+    CursorPage<AccountSummary> findAllSummaries(String after, Integer limit);
 
     Account findById(Long accountId);
 
+    String findETagById(Long accountId);
+
+    Account findWithPostsById(Long accountId);
+
     Account create(AccountRequest accountRequest);
 
     Account update(Long accountId, AccountRequest accountRequest);
@@ -0,0 +1,11 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.CacheRegionStats;
+
+import java.util.List;
+
+public interface CacheService {
+
+    List<CacheRegionStats> findRegionStats();
+
+}
@@ -0,0 +1,7 @@
+package com.skwarek.blogger.service;
+
+public interface CommentCountService {
+
+    int repairCommentCounts();
+
+}
@@ -0,0 +1,12 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.QueuedComment;
+
+public interface CommentQueueService {
+
+    QueuedComment enqueue2Post(Long postId, CommentRequest commentRequest);
+
+    int flush();
+
+}
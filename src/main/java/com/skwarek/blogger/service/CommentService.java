@@ -2,17 +2,30 @@ package com.skwarek.blogger.service;
 
 import com.skwarek.blogger.domain.Comment;
 import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.CursorPage;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 
 public interface CommentService {
 
-    List<Comment> findAllByPostId(Long postId);
+    CursorPage<Comment> findAllByPostId(Long postId, String after, Integer limit, Sort.Direction order, boolean withTotal);
+
+    CursorPage<CommentSummary> findAllSummariesByPostId(Long postId, String after, Integer limit, Sort.Direction order, boolean withTotal);
+
+    List<CommentSummary> searchByPostId(Long postId, String query, Integer limit);
+
+    List<CommentSummary> searchByAccountId(Long accountId, String query, Integer limit);
 
     Comment findById(Long commentId);
 
+    String findETagById(Long commentId);
+
     Comment create2Post(Long postId, CommentRequest commentRequest);
 
+    List<Long> createAll2Post(Long postId, List<CommentRequest> commentRequests);
+
     Comment update(Long commentId, CommentRequest commentRequest);
 
     void deleteById(Long commentId);
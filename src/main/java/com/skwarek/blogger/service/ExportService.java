@@ -0,0 +1,10 @@
+package com.skwarek.blogger.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    void exportAll(OutputStream out) throws IOException;
+
+}
@@ -0,0 +1,11 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.ImportReport;
+
+import java.io.InputStream;
+
+public interface ImportService {
+
+    ImportReport importAccounts(InputStream ndjson);
+
+}
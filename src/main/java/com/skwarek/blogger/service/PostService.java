@@ -1,16 +1,29 @@
 package com.skwarek.blogger.service;
 
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
 import com.skwarek.blogger.dto.PostRequest;
+import com.skwarek.blogger.dto.PostSummary;
 
 import java.util.List;
 
 public interface PostService {
 
-    List<Post> findAllByAccountId(Long accountId);
+    CursorPage<Post> findAllByAccountId(Long accountId, String after, Integer limit);
+
+    CursorPage<PostSummary> findAllSummariesByAccountId(Long accountId, String after, Integer limit);
+
+    CursorPage<FeedItem> findFeed(String after, Integer limit);
+
+    List<PostSummary> search(String query, Integer limit);
 
     Post findById(Long postId);
 
+    String findETagById(Long postId);
+
+    Post findWithCommentsById(Long postId);
+
     Post create2Account(Long accountId, PostRequest postRequest);
 
     Post update(Long postId, PostRequest postRequest);
@@ -0,0 +1,16 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.PostSummary;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveReadService {
+
+    Flux<AccountSummary> streamAccounts(Long afterId);
+
+    Flux<PostSummary> streamPostsByAccountId(Long accountId, Long beforeId);
+
+    Flux<CommentSummary> streamCommentsByPostId(Long postId, Long afterId);
+
+}
@@ -0,0 +1,14 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
+
+public interface TimelineService {
+
+    CursorPage<FeedItem> findTimeline(Long accountId, String after, Integer limit);
+
+    void follow(Long accountId, Long followeeId);
+
+    void unfollow(Long accountId, Long followeeId);
+
+}
@@ -1,79 +1,214 @@
 package com.skwarek.blogger.service.impl;
 
+import com.skwarek.blogger.cache.EmailFilter;
+import com.skwarek.blogger.cache.ListCache;
 import com.skwarek.blogger.domain.Account;
-import com.skwarek.blogger.domain.Post;
 import com.skwarek.blogger.dto.AccountRequest;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.ETag;
 import com.skwarek.blogger.exception.DuplicateAccountException;
 import com.skwarek.blogger.exception.NotFoundAccountException;
 import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.repository.FollowRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.repository.TimelineRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.search.PostIndex;
 import com.skwarek.blogger.service.AccountService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
-
-    public AccountServiceImpl(AccountRepository accountRepository) {
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final FollowRepository followRepository;
+    private final TimelineRepository timelineRepository;
+    private final ListCache listCache;
+    private final EmailFilter emailFilter;
+    private final PostIndex postIndex;
+    private final CommentIndex commentIndex;
+
+    public AccountServiceImpl(AccountRepository accountRepository, PostRepository postRepository,
+                              CommentRepository commentRepository, FollowRepository followRepository,
+                              TimelineRepository timelineRepository, ListCache listCache, EmailFilter emailFilter,
+                              PostIndex postIndex, CommentIndex commentIndex) {
         this.accountRepository = accountRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.followRepository = followRepository;
+        this.timelineRepository = timelineRepository;
+        this.listCache = listCache;
+        this.emailFilter = emailFilter;
+        this.postIndex = postIndex;
+        this.commentIndex = commentIndex;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Account> findAll(String after, Integer limit) {
+        long afterId = Cursor.decodeId(after, 0L);
+        int size = CursorPage.sizeOf(limit);
+
+        List<Account> accounts = accountRepository.findByIdGreaterThanOrderByIdAsc(afterId, Pageable.ofSize(size + 1));
+
+        return CursorPage.of(accounts, size, Account::getId);
     }
 
     @Override
-    public List<Account> findAll() {
-        return accountRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<AccountSummary> findAllSummaries(String after, Integer limit) {
+        long afterId = Cursor.decodeId(after, 0L);
+        int size = CursorPage.sizeOf(limit);
+
+        List<AccountSummary> accounts = accountRepository.findSummariesByIdGreaterThanOrderByIdAsc(afterId, Pageable.ofSize(size + 1));
+
+        return CursorPage.of(accounts, size, AccountSummary::id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Account findById(Long accountId) {
         return accountRepository.findById(accountId)
                 .orElseThrow(() -> new NotFoundAccountException("Not found account with id: " + accountId));
     }
 
+    /**
+     * Reads only the account's version column, which moves whenever one of its posts, or
+     * a comment of one of them, is created, changed or deleted.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String findETagById(Long accountId) {
+        return accountRepository.findVersionById(accountId)
+                .map(ETag::of)
+                .orElseThrow(() -> new NotFoundAccountException("Not found account with id: " + accountId));
+    }
+
+    /**
+     * Loads the whole account tree in two queries: the account joined with its posts,
+     * then the same posts joined with their comments, which fills the collections of
+     * the posts already in the persistence context.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Account findWithPostsById(Long accountId) {
+        Account account = accountRepository.findWithPostsById(accountId)
+                .orElseThrow(() -> new NotFoundAccountException("Not found account with id: " + accountId));
+
+        postRepository.findWithCommentsByAccountId(account.getId());
+
+        return account;
+    }
+
+    /**
+     * Inserts right away when the email filter says the email is new and leaves the
+     * final word to the unique constraint, which also settles concurrent signups with
+     * the same email. Only a possibly taken email costs a query first.
+     */
     @Override
     public Account create(AccountRequest accountRequest) {
-        boolean isAccountExist = accountRepository.existsByEmail(accountRequest.getEmail());
+        String email = accountRequest.getEmail();
+
+        if (emailFilter.mightContain(email) && accountRepository.existsByEmail(email)) {
+            throw new DuplicateAccountException("Duplicate account with email: " + email);
+        }
+
+        Account newAccount = Account.builder()
+                .email(email)
+                .password(accountRequest.getPassword())
+                .build();
 
-        if (!isAccountExist) {
-            Account newAccount = Account.builder()
-                    .email(accountRequest.getEmail())
-                    .password(accountRequest.getPassword())
-                    .build();
+        Account createdAccount;
 
-            return accountRepository.save(newAccount);
-        } else {
-            throw new DuplicateAccountException("Duplicate account with email: " + accountRequest.getEmail());
+        try {
+            createdAccount = accountRepository.saveAndFlush(newAccount);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOrRethrow(e, email);
         }
+
+        emailFilter.put(email);
+
+        return createdAccount;
     }
 
+    /**
+     * Updates the row in place, leaving a taken email to the unique constraint, and
+     * reads it back once for the response.
+     */
     @Override
+    @Transactional
     public Account update(Long accountId, AccountRequest accountRequest) {
-        Account oldAccount = accountRepository.findById(accountId)
-                .orElseThrow(() -> new NotFoundAccountException("Not found account with id: " + accountId));
+        int updatedAccounts;
 
-        boolean isAccountExist = accountRepository.existsByEmail(accountRequest.getEmail());
-
-        if (oldAccount.getEmail().equals(accountRequest.getEmail()) || !isAccountExist) {
-            oldAccount.setEmail(accountRequest.getEmail());
-            oldAccount.setPassword(accountRequest.getPassword());
+        try {
+            updatedAccounts = accountRepository.updateCredentials(accountId, accountRequest.getEmail(), accountRequest.getPassword());
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOrRethrow(e, accountRequest.getEmail());
+        }
 
-            return accountRepository.save(oldAccount);
-        } else {
-            throw new DuplicateAccountException("Duplicate account with email: " + accountRequest.getEmail());
+        if (updatedAccounts == 0) {
+            throw new NotFoundAccountException("Not found account with id: " + accountId);
         }
+
+        emailFilter.put(accountRequest.getEmail());
+
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new NotFoundAccountException("Not found account with id: " + accountId));
     }
 
+    /**
+     * Deletes the account with set-based statements (the accounts it follows lose a
+     * follower, then its follows, its timeline and its posts in other timelines, its
+     * comments, its posts, the account itself) instead of loading and orphan-removing
+     * every row. Only the post ids are read first, to take the posts and their comments
+     * out of the search indexes, and the ids of the accounts it follows.
+     */
     @Override
+    @Transactional
     public void deleteById(Long accountId) {
-        Account accountDb = accountRepository.findById(accountId)
-                .orElseThrow(() -> new NotFoundAccountException("Not found account with id: " + accountId));
+        List<Long> postIds = postRepository.findIdsByAccountId(accountId);
+
+        accountRepository.decrementFollowerCounts(followRepository.findFolloweeIdsByAccountId(accountId));
+        followRepository.deleteInBulkByAccountId(accountId);
+        timelineRepository.deleteInBulkByAccountId(accountId);
+        commentRepository.deleteInBulkByAccountId(accountId);
+        postRepository.deleteInBulkByAccountId(accountId);
 
-        List<Post> posts = new ArrayList<>(accountDb.getPosts());
-        posts.forEach(accountDb::removePost);
+        int deletedAccounts = accountRepository.deleteInBulkById(accountId);
+
+        if (deletedAccounts == 0) {
+            throw new NotFoundAccountException("Not found account with id: " + accountId);
+        }
+
+        listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, accountId);
+        postIds.forEach(postIndex::remove);
+        commentIndex.removePosts(postIds);
+    }
+
+    /**
+     * Only a violation of the email unique key means a taken email; anything else, like
+     * another constraint or a value too long for its column, is rethrown.
+     */
+    private static RuntimeException duplicateOrRethrow(DataIntegrityViolationException e, String email) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Account.EMAIL_UNIQUE_KEY)) {
+            return new DuplicateAccountException("Duplicate account with email: " + email);
+        }
 
-        accountRepository.deleteById(accountDb.getId());
+        return e;
     }
 
 }
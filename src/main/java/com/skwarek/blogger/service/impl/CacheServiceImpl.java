@@ -0,0 +1,43 @@
+package com.skwarek.blogger.service.impl;
+
+import com.skwarek.blogger.dto.CacheRegionStats;
+import com.skwarek.blogger.service.CacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the hit and miss counters Hibernate keeps per second-level cache region since
+ * startup (requires {@code hibernate.generate_statistics}).
+ */
+@Service
+public class CacheServiceImpl implements CacheService {
+
+    private final Statistics statistics;
+
+    public CacheServiceImpl(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public List<CacheRegionStats> findRegionStats() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> toRegionStats(region, statistics.getDomainDataRegionStatistics(region)))
+                .toList();
+    }
+
+    private static CacheRegionStats toRegionStats(String region, CacheRegionStatistics regionStatistics) {
+        long hits = regionStatistics.getHitCount();
+        long misses = regionStatistics.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+
+        return new CacheRegionStats(region, hits, misses, regionStatistics.getPutCount(), hitRatio);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.skwarek.blogger.service.impl;
+
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.service.CommentCountService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Recomputes {@code post.comment_count} where it drifted from the real number of
+ * comments. Posts are checked in id ranges of {@code blogger.comment-count.repair-chunk-size},
+ * one short transaction per range, and only the drifted posts are rewritten.
+ */
+@Service
+public class CommentCountServiceImpl implements CommentCountService {
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long chunkSize;
+
+    public CommentCountServiceImpl(PostRepository postRepository, TransactionTemplate transactionTemplate,
+                                   @Value("${blogger.comment-count.repair-chunk-size:1000}") long chunkSize) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Scheduled(cron = "${blogger.comment-count.repair-cron:0 30 3 * * *}")
+    public int repairCommentCounts() {
+        long maxId = postRepository.findMaxId().orElse(0L);
+        int repairedPosts = 0;
+
+        for (long afterId = 0; afterId < maxId; afterId += chunkSize) {
+            long fromId = afterId;
+            long toId = afterId + chunkSize;
+
+            repairedPosts += transactionTemplate.execute(status -> {
+                List<Long> driftedPostIds = postRepository.findIdsWithDriftedCommentCount(fromId, toId);
+                driftedPostIds.forEach(postRepository::recountComments);
+
+                return driftedPostIds.size();
+            });
+        }
+
+        return repairedPosts;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.skwarek.blogger.service.impl;
+
+import com.skwarek.blogger.config.ReadYourWrites;
+import com.skwarek.blogger.dto.IndexedComment;
+import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.service.CommentIndexService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Service
+public class CommentIndexServiceImpl implements CommentIndexService {
+
+    private final CommentRepository commentRepository;
+    private final CommentIndex commentIndex;
+
+    public CommentIndexServiceImpl(CommentRepository commentRepository, CommentIndex commentIndex) {
+        this.commentRepository = commentRepository;
+        this.commentIndex = commentIndex;
+    }
+
+    /**
+     * Streams every comment, with the id of its post, into the index once the
+     * application is up, the same way the post index is loaded: from the primary, and
+     * without overwriting comments changed, or bringing back comments and posts deleted,
+     * while the stream runs.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public long loadCommentIndex() {
+        long loadedComments = 0;
+
+        commentIndex.startLoad();
+        ReadYourWrites.pin();
+        try (Stream<IndexedComment> comments = commentRepository.streamIndexedByOrderByIdAsc()) {
+            for (IndexedComment comment : (Iterable<IndexedComment>) comments::iterator) {
+                commentIndex.load(comment.id(), comment.postId(), comment.content());
+                loadedComments++;
+            }
+        } finally {
+            ReadYourWrites.unpin();
+            commentIndex.finishLoad();
+        }
+
+        return loadedComments;
+    }
+
+}
@@ -0,0 +1,294 @@
+package com.skwarek.blogger.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.QueuedComment;
+import com.skwarek.blogger.exception.FullCommentQueueException;
+import com.skwarek.blogger.exception.InvalidCommentException;
+import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.queue.CommentDeadLetters;
+import com.skwarek.blogger.queue.CommentJournal;
+import com.skwarek.blogger.service.CommentQueueService;
+import com.skwarek.blogger.service.CommentService;
+import com.skwarek.blogger.service.PostService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in write-behind mode for comment bursts, switched on with
+ * {@code blogger.comment-queue.enabled=true}. An accepted comment costs a post lookup,
+ * which the second-level cache usually answers, and an append to the journal that is
+ * forced to disk together with those of concurrent requests, outside the queue lock.
+ * Content too long for its column is rejected up front. Up to
+ * {@code blogger.comment-queue.capacity} comments wait in memory; beyond that new ones
+ * are rejected until the writer catches up. Every
+ * {@code blogger.comment-queue.flush-interval-ms} the writer takes up to
+ * {@code blogger.comment-queue.flush-size} comments and writes them with one batch per
+ * post through {@link CommentService#createAll2Post}. A batch that fails on a transient database error, like a lost
+ * connection or a lock timeout, goes back to the head of the queue and is retried on the
+ * next flush. A batch that fails for any other reason is retried one comment at a time,
+ * and a comment that still fails goes to {@code blogger.comment-queue.dead-letters}
+ * instead of blocking the queue. Comments of a post deleted in the meantime go there
+ * too, all at once. The queue is guarded by {@link ReentrantLock}s rather than monitors,
+ * so virtual threads waiting for it do not pin their carriers.
+ */
+@Service
+@ConditionalOnProperty(name = "blogger.comment-queue.enabled", havingValue = "true")
+public class CommentQueueServiceImpl implements CommentQueueService {
+
+    private final CommentService commentService;
+    private final PostService postService;
+    private final CommentJournal journal;
+    private final CommentDeadLetters deadLetters;
+    private final int capacity;
+    private final int flushSize;
+    private final ArrayDeque<CommentJournal.Entry> queue = new ArrayDeque<>();
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public CommentQueueServiceImpl(CommentService commentService, PostService postService, ObjectMapper objectMapper,
+                                   @Value("${blogger.comment-queue.journal:comment-queue.journal}") String journalPath,
+                                   @Value("${blogger.comment-queue.journal-compact-after:10000}") int journalCompactAfter,
+                                   @Value("${blogger.comment-queue.dead-letters:comment-queue.dead-letters}") String deadLettersPath,
+                                   @Value("${blogger.comment-queue.capacity:10000}") int capacity,
+                                   @Value("${blogger.comment-queue.flush-size:500}") int flushSize) {
+        this.commentService = commentService;
+        this.postService = postService;
+        this.journal = new CommentJournal(Path.of(journalPath), objectMapper, journalCompactAfter);
+        this.deadLetters = new CommentDeadLetters(Path.of(deadLettersPath), objectMapper);
+        this.capacity = capacity;
+        this.flushSize = Math.min(flushSize, CommentServiceImpl.MAX_BATCH_SIZE);
+        this.queue.addAll(journal.pending());
+    }
+
+    @Override
+    public QueuedComment enqueue2Post(Long postId, CommentRequest commentRequest) {
+        String content = commentRequest.getContent();
+
+        if (content != null && content.length() > Comment.MAX_CONTENT_LENGTH) {
+            throw new InvalidCommentException("Comment content is longer than " + Comment.MAX_CONTENT_LENGTH + " characters");
+        }
+
+        Post post = postService.findById(postId);
+        CommentJournal.Entry entry;
+
+        queueLock.lock();
+        try {
+            if (queue.size() >= capacity) {
+                throw new FullCommentQueueException("Comment queue is full: " + capacity);
+            }
+
+            entry = journal.append(post.getId(), content);
+            queue.addLast(entry);
+        } finally {
+            queueLock.unlock();
+        }
+
+        journal.force(entry.seq());
+
+        return new QueuedComment(entry.seq(), entry.postId());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blogger.comment-queue.flush-interval-ms:100}",
+            initialDelayString = "${blogger.comment-queue.flush-interval-ms:100}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<CommentJournal.Entry> batch = take();
+
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, List<CommentJournal.Entry>> batchByPost = new LinkedHashMap<>();
+            batch.forEach(entry -> batchByPost.computeIfAbsent(entry.postId(), postId -> new ArrayList<>()).add(entry));
+
+            int writtenComments = 0;
+            Deque<List<CommentJournal.Entry>> postBatches = new ArrayDeque<>(batchByPost.values());
+
+            try {
+                while (!postBatches.isEmpty()) {
+                    writtenComments += writeFirst(postBatches);
+                }
+            } catch (RuntimeException e) {
+                List<CommentJournal.Entry> unwritten = new ArrayList<>();
+                postBatches.forEach(unwritten::addAll);
+                putBack(unwritten);
+
+                throw e;
+            }
+
+            resetJournalIfIdle();
+
+            return writtenComments;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes what is still queued before the application context, and with it the
+     * database, goes away; whatever cannot be written stays in the journal.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        try {
+            while (!isEmpty()) {
+                flush();
+            }
+        } finally {
+            try {
+                journal.close();
+            } finally {
+                deadLetters.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the first post batch and takes it off the deque. A batch the database
+     * rejects for good is split into single comments at the front of the deque, so only
+     * the comment at fault ends up dead-lettered; a transient failure is rethrown and
+     * leaves the batch where it is. A batch whose post is gone is dead-lettered whole.
+     */
+    private int writeFirst(Deque<List<CommentJournal.Entry>> postBatches) {
+        List<CommentJournal.Entry> postBatch = postBatches.getFirst();
+        int writtenComments;
+
+        try {
+            writtenComments = insert(postBatch);
+        } catch (NotFoundPostException e) {
+            postBatches.removeFirst();
+            deadLetter(postBatch, e);
+
+            return 0;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+
+            postBatches.removeFirst();
+
+            if (postBatch.size() > 1) {
+                for (int i = postBatch.size() - 1; i >= 0; i--) {
+                    postBatches.addFirst(List.of(postBatch.get(i)));
+                }
+            } else {
+                deadLetter(postBatch, e);
+            }
+
+            return 0;
+        }
+
+        postBatches.removeFirst();
+        journal.markDone(postBatch.stream()
+                .map(CommentJournal.Entry::seq)
+                .toList());
+
+        return writtenComments;
+    }
+
+    private int insert(List<CommentJournal.Entry> postBatch) {
+        long postId = postBatch.get(0).postId();
+        List<CommentRequest> commentRequests = postBatch.stream()
+                .map(entry -> new CommentRequest(entry.content()))
+                .toList();
+
+        return commentService.createAll2Post(postId, commentRequests).size();
+    }
+
+    /**
+     * Records the comments as dead letters before they are marked done, so none leaves
+     * the journal without a trace.
+     */
+    private void deadLetter(List<CommentJournal.Entry> postBatch, RuntimeException e) {
+        deadLetters.addAll(postBatch, e);
+        journal.markDone(postBatch.stream()
+                .map(CommentJournal.Entry::seq)
+                .toList());
+    }
+
+    /**
+     * Failures worth retrying as they are: the database was unreachable or busy, not
+     * unwilling to take these comments.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private List<CommentJournal.Entry> take() {
+        queueLock.lock();
+        try {
+            List<CommentJournal.Entry> batch = new ArrayList<>(Math.min(queue.size(), flushSize));
+
+            while (batch.size() < flushSize && !queue.isEmpty()) {
+                batch.add(queue.pollFirst());
+            }
+
+            return batch;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Puts unwritten comments back at the head of the queue in their original order.
+     * This may take the queue over its capacity for a while, which only delays new ones.
+     */
+    private void putBack(List<CommentJournal.Entry> unwritten) {
+        unwritten.sort((left, right) -> Long.compare(left.seq(), right.seq()));
+
+        queueLock.lock();
+        try {
+            for (int i = unwritten.size() - 1; i >= 0; i--) {
+                queue.addFirst(unwritten.get(i));
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void resetJournalIfIdle() {
+        queueLock.lock();
+        try {
+            if (queue.isEmpty()) {
+                journal.reset();
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private boolean isEmpty() {
+        queueLock.lock();
+        try {
+            return queue.isEmpty();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+}
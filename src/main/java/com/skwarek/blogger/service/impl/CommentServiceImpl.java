@@ -1,41 +1,157 @@
 package com.skwarek.blogger.service.impl;
 
+import com.skwarek.blogger.cache.ListCache;
+import com.skwarek.blogger.domain.Account;
 import com.skwarek.blogger.domain.Comment;
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.CommentParent;
 import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.ETag;
+import com.skwarek.blogger.exception.InvalidSearchQueryException;
 import com.skwarek.blogger.exception.NotFoundCommentException;
+import com.skwarek.blogger.exception.TooLargeBatchException;
 import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.service.AccountService;
 import com.skwarek.blogger.service.CommentService;
 import com.skwarek.blogger.service.PostService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentServiceImpl implements CommentService {
 
+    static final int MAX_BATCH_SIZE = 1000;
+
     private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
     private final PostService postService;
+    private final AccountService accountService;
+    private final ListCache listCache;
+    private final CommentIndex commentIndex;
 
-    public CommentServiceImpl(CommentRepository commentRepository, PostService postService) {
+    public CommentServiceImpl(CommentRepository commentRepository, PostRepository postRepository,
+                              PostService postService, AccountService accountService,
+                              ListCache listCache, CommentIndex commentIndex) {
         this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
         this.postService = postService;
+        this.accountService = accountService;
+        this.listCache = listCache;
+        this.commentIndex = commentIndex;
     }
 
+    /**
+     * The optional total is the post's comment count column, which every comment write
+     * keeps up to date and the nightly repair corrects, so it costs no count over the
+     * comments of the post, at the price of being approximate between repairs. The page
+     * is cached under the generation taken before the post is read.
+     */
     @Override
-    public List<Comment> findAllByPostId(Long postId) {
+    @Transactional(readOnly = true)
+    public CursorPage<Comment> findAllByPostId(Long postId, String after, Integer limit, Sort.Direction order, boolean withTotal) {
+        long generation = listCache.generation(ListCache.Scope.POST_COMMENTS, postId);
         Post post = postService.findById(postId);
 
-        return commentRepository.findByPostId(post.getId());
+        return listCache.get(ListCache.Scope.POST_COMMENTS, post.getId(), generation, Arrays.asList("full", after, limit, order, withTotal), () -> {
+            int size = CursorPage.sizeOf(limit);
+            Pageable pageable = Pageable.ofSize(size + 1);
+
+            List<Comment> comments = order.isAscending()
+                    ? commentRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(post.getId(), Cursor.decodeId(after, 0L), pageable)
+                    : commentRepository.findByPostIdAndIdLessThanOrderByIdDesc(post.getId(), Cursor.decodeId(after, Long.MAX_VALUE), pageable);
+
+            CursorPage<Comment> page = CursorPage.of(comments, size, Comment::getId);
+
+            return withTotal ? page.withTotal(post.getCommentCount()) : page;
+        });
     }
 
+    /**
+     * Takes the optional total from the post's comment count column, like
+     * {@link #findAllByPostId}.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentSummary> findAllSummariesByPostId(Long postId, String after, Integer limit, Sort.Direction order, boolean withTotal) {
+        long generation = listCache.generation(ListCache.Scope.POST_COMMENTS, postId);
+        Post post = postService.findById(postId);
+
+        return listCache.get(ListCache.Scope.POST_COMMENTS, post.getId(), generation, Arrays.asList("summary", after, limit, order, withTotal), () -> {
+            int size = CursorPage.sizeOf(limit);
+            Pageable pageable = Pageable.ofSize(size + 1);
+
+            List<CommentSummary> comments = order.isAscending()
+                    ? commentRepository.findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(post.getId(), Cursor.decodeId(after, 0L), pageable)
+                    : commentRepository.findSummariesByPostIdAndIdLessThanOrderByIdDesc(post.getId(), Cursor.decodeId(after, Long.MAX_VALUE), pageable);
+
+            CursorPage<CommentSummary> page = CursorPage.of(comments, size, CommentSummary::id);
+
+            return withTotal ? page.withTotal(post.getCommentCount()) : page;
+        });
+    }
+
+    /**
+     * Ranks the matching comments in the shard of the post and reads only those rows
+     * back, keeping the index order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentSummary> searchByPostId(Long postId, String query, Integer limit) {
+        checkQuery(query);
+        Post post = postService.findById(postId);
+
+        return readInOrder(commentIndex.searchPost(post.getId(), query, CursorPage.sizeOf(limit)));
+    }
+
+    /**
+     * Reads the ids of the posts of the account, then ranks the matching comments of
+     * those posts in their shards in parallel.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentSummary> searchByAccountId(Long accountId, String query, Integer limit) {
+        checkQuery(query);
+        Account account = accountService.findById(accountId);
+        List<Long> postIds = postRepository.findIdsByAccountId(account.getId());
+
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        return readInOrder(commentIndex.searchPosts(postIds, query, CursorPage.sizeOf(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Comment findById(Long commentId) {
         return commentRepository.findById(commentId)
                 .orElseThrow(() -> new NotFoundCommentException("Not found comment with id: " + commentId));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public String findETagById(Long commentId) {
+        return commentRepository.findVersionById(commentId)
+                .map(ETag::of)
+                .orElseThrow(() -> new NotFoundCommentException("Not found comment with id: " + commentId));
+    }
+
+    @Override
+    @Transactional
     public Comment create2Post(Long postId, CommentRequest commentRequest) {
         Post post = postService.findById(postId);
 
@@ -45,25 +161,119 @@ public class CommentServiceImpl implements CommentService {
 
         post.addComment(newComment);
 
-        return commentRepository.save(newComment);
+        Comment createdComment = commentRepository.save(newComment);
+        postRepository.addToCommentCount(post.getId(), 1);
+        invalidateLists(post);
+        commentIndex.put(createdComment.getId(), post.getId(), createdComment.getContent());
+
+        return createdComment;
+    }
+
+    /**
+     * Checks the post once and persists the whole batch in one transaction; with
+     * sequence ids the inserts are flushed as JDBC batches at commit.
+     */
+    @Override
+    @Transactional
+    public List<Long> createAll2Post(Long postId, List<CommentRequest> commentRequests) {
+        if (commentRequests.size() > MAX_BATCH_SIZE) {
+            throw new TooLargeBatchException("Too many comments in batch: " + commentRequests.size());
+        }
+
+        Post post = postService.findById(postId);
+
+        List<Comment> newComments = commentRequests.stream()
+                .map(commentRequest -> Comment.builder()
+                        .content(commentRequest.getContent())
+                        .post(post)
+                        .build())
+                .toList();
+
+        List<Comment> createdComments = commentRepository.saveAll(newComments);
+        List<Long> createdCommentIds = createdComments.stream()
+                .map(Comment::getId)
+                .toList();
+        postRepository.addToCommentCount(post.getId(), createdCommentIds.size());
+        invalidateLists(post);
+        createdComments.forEach(comment -> commentIndex.put(comment.getId(), post.getId(), comment.getContent()));
+
+        return createdCommentIds;
     }
 
+    /**
+     * Updates the row in place and reads it back, with its post, once for the response.
+     */
     @Override
+    @Transactional
     public Comment update(Long commentId, CommentRequest commentRequest) {
-        Comment oldComment = commentRepository.findById(commentId)
+        int updatedComments = commentRepository.updateContent(commentId, commentRequest.getContent());
+
+        if (updatedComments == 0) {
+            throw new NotFoundCommentException("Not found comment with id: " + commentId);
+        }
+
+        Comment updatedComment = commentRepository.findWithPostById(commentId)
                 .orElseThrow(() -> new NotFoundCommentException("Not found comment with id: " + commentId));
 
-        oldComment.setContent(commentRequest.getContent());
+        postRepository.incrementVersion(updatedComment.getPost().getId());
+        invalidateLists(updatedComment.getPost().getId(), updatedComment.getPost().getAccount().getId());
+        commentIndex.put(commentId, updatedComment.getPost().getId(), commentRequest.getContent());
 
-        return commentRepository.save(oldComment);
+        return updatedComment;
     }
 
+    /**
+     * Reads only the ids of the post and account the comment belongs to, which the
+     * counter and the list caches need, then deletes the row with a single statement.
+     */
     @Override
+    @Transactional
     public void deleteById(Long commentId) {
-        Comment commentDb = commentRepository.findById(commentId)
+        CommentParent parent = commentRepository.findParentById(commentId)
                 .orElseThrow(() -> new NotFoundCommentException("Not found comment with id: " + commentId));
 
-        commentRepository.deleteById(commentDb.getId());
+        int deletedComments = commentRepository.deleteFromPost(parent.postId(), commentId);
+
+        if (deletedComments == 0) {
+            throw new NotFoundCommentException("Not found comment with id: " + commentId);
+        }
+
+        postRepository.addToCommentCount(parent.postId(), -1);
+        invalidateLists(parent.postId(), parent.accountId());
+        commentIndex.remove(commentId, parent.postId());
+    }
+
+    private static void checkQuery(String query) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidSearchQueryException("Blank search query");
+        }
+    }
+
+    private List<CommentSummary> readInOrder(List<Long> commentIds) {
+        if (commentIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, CommentSummary> comments = commentRepository.findSummariesByIdIn(commentIds).stream()
+                .collect(Collectors.toMap(CommentSummary::id, Function.identity()));
+
+        return commentIds.stream()
+                .map(comments::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void invalidateLists(Post post) {
+        invalidateLists(post.getId(), post.getAccount().getId());
+    }
+
+    /**
+     * Comments are listed on their own and embedded in the full view of their post, so
+     * both lists are invalidated.
+     */
+    private void invalidateLists(Long postId, Long accountId) {
+        listCache.invalidate(ListCache.Scope.POST_COMMENTS, postId);
+        listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, accountId);
     }
 
 }
@@ -0,0 +1,53 @@
+package com.skwarek.blogger.service.impl;
+
+import com.skwarek.blogger.cache.EmailFilter;
+import com.skwarek.blogger.config.ReadYourWrites;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.service.EmailFilterService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Service
+public class EmailFilterServiceImpl implements EmailFilterService {
+
+    private final AccountRepository accountRepository;
+    private final EmailFilter emailFilter;
+
+    public EmailFilterServiceImpl(AccountRepository accountRepository, EmailFilter emailFilter) {
+        this.accountRepository = accountRepository;
+        this.emailFilter = emailFilter;
+    }
+
+    /**
+     * Streams every email into the filter once the application is up. Signups that
+     * happen meanwhile put their own emails, and until the stream is done the filter
+     * answers that every email might be taken. The stream reads from the primary: a
+     * lagging replica could miss an email taken just before the load, which the filter
+     * would then call new.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public long loadEmailFilter() {
+        long loadedEmails = 0;
+
+        ReadYourWrites.pin();
+        try (Stream<String> emails = accountRepository.streamAllEmails()) {
+            for (String email : (Iterable<String>) emails::iterator) {
+                emailFilter.put(email);
+                loadedEmails++;
+            }
+        } finally {
+            ReadYourWrites.unpin();
+        }
+
+        emailFilter.markLoaded();
+
+        return loadedEmails;
+    }
+
+}
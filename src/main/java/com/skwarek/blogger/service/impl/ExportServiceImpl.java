@@ -0,0 +1,113 @@
+package com.skwarek.blogger.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.AccountImportRequest;
+import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.PostImportRequest;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.service.ExportService;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one NDJSON line per account with its posts and their comments nested in it,
+ * the format {@link ImportServiceImpl} reads, e.g.
+ * {@code {"email":"...","password":"...","posts":[{"content":"...","comments":[...]}]}}.
+ * Accounts are read in chunks of {@code blogger.export.chunk-size} by id, each chunk
+ * with two more queries for the posts and the comments of its accounts, and the
+ * persistence context is cleared after every chunk, so memory does not grow with the
+ * number of accounts exported. The queries bypass the second-level cache.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private final AccountRepository accountRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final EntityManager entityManager;
+    private final JsonFactory jsonFactory;
+    private final ObjectWriter accountWriter;
+    private final int chunkSize;
+
+    public ExportServiceImpl(AccountRepository accountRepository, PostRepository postRepository,
+                             CommentRepository commentRepository, EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             @Value("${blogger.export.chunk-size:100}") int chunkSize) {
+        this.accountRepository = accountRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.entityManager = entityManager;
+        this.jsonFactory = objectMapper.getFactory();
+        this.accountWriter = objectMapper.writerFor(AccountImportRequest.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.setRootValueSeparator(null);
+
+            List<Account> accounts = accountRepository.findForExportByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(chunkSize));
+
+            while (!accounts.isEmpty()) {
+                Long lastId = accounts.get(accounts.size() - 1).getId();
+
+                exportChunk(accounts, generator);
+                generator.flush();
+                entityManager.clear();
+
+                accounts = accountRepository.findForExportByIdGreaterThanOrderByIdAsc(lastId, Pageable.ofSize(chunkSize));
+            }
+        }
+    }
+
+    private void exportChunk(List<Account> accounts, JsonGenerator generator) throws IOException {
+        List<Long> accountIds = accounts.stream()
+                .map(Account::getId)
+                .toList();
+
+        Map<Long, List<CommentRequest>> commentsByPostId = commentRepository.findForExportByAccountIdIn(accountIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getPost().getId(),
+                        Collectors.mapping(ExportServiceImpl::toRequest, Collectors.toList())));
+
+        Map<Long, List<PostImportRequest>> postsByAccountId = postRepository.findForExportByAccountIdInOrderByAccountIdAscIdAsc(accountIds).stream()
+                .collect(Collectors.groupingBy(post -> post.getAccount().getId(),
+                        Collectors.mapping(post -> toRequest(post, commentsByPostId), Collectors.toList())));
+
+        for (Account account : accounts) {
+            accountWriter.writeValue(generator, new AccountImportRequest(account.getEmail(), account.getPassword(),
+                    postsByAccountId.getOrDefault(account.getId(), List.of())));
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static PostImportRequest toRequest(Post post, Map<Long, List<CommentRequest>> commentsByPostId) {
+        return new PostImportRequest(post.getContent(), commentsByPostId.getOrDefault(post.getId(), List.of()));
+    }
+
+    private static CommentRequest toRequest(Comment comment) {
+        return new CommentRequest(comment.getContent());
+    }
+
+}
@@ -0,0 +1,336 @@
+package com.skwarek.blogger.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.skwarek.blogger.cache.EmailFilter;
+import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.AccountImportRequest;
+import com.skwarek.blogger.dto.ImportError;
+import com.skwarek.blogger.dto.ImportReport;
+import com.skwarek.blogger.exception.DuplicateAccountException;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.search.PostIndex;
+import com.skwarek.blogger.service.ImportService;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Imports an NDJSON stream with one account (and its posts and comments) per line.
+ * Lines are read as bytes into one reused buffer and parsed from it by Jackson's UTF-8
+ * parser, without decoding them into strings first. A line longer than
+ * {@code blogger.import.max-line-size} is skipped without being buffered and reported.
+ * Keeping the lines apart, rather than reading values off the whole stream, lets the
+ * import go on with the next line after a malformed one. Lines are written in chunks of
+ * {@code blogger.import.chunk-size} lines, one transaction per chunk, clearing the
+ * persistence context after each one so memory stays bounded by the chunk size. A line
+ * that cannot be parsed or imported is reported and skipped; a chunk whose transaction
+ * fails is replayed line by line to find the offending lines. Imported rows are not
+ * put into the second-level cache, which is kept for the rows that are actually read.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private final AccountRepository accountRepository;
+    private final EmailFilter emailFilter;
+    private final PostIndex postIndex;
+    private final CommentIndex commentIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader accountReader;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public ImportServiceImpl(AccountRepository accountRepository, EmailFilter emailFilter, PostIndex postIndex,
+                             CommentIndex commentIndex, EntityManager entityManager,
+                             TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                             @Value("${blogger.import.chunk-size:500}") int chunkSize,
+                             @Value("${blogger.import.max-line-size:16MB}") DataSize maxLineSize) {
+        this.accountRepository = accountRepository;
+        this.emailFilter = emailFilter;
+        this.postIndex = postIndex;
+        this.commentIndex = commentIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.accountReader = objectMapper.readerFor(AccountImportRequest.class);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = (int) Math.min(maxLineSize.toBytes(), Integer.MAX_VALUE - 8);
+    }
+
+    @Override
+    public ImportReport importAccounts(InputStream ndjson) {
+        ImportProgress progress = new ImportProgress();
+        List<ImportLine> chunk = new ArrayList<>(chunkSize);
+
+        try (ndjson) {
+            LineReader reader = new LineReader(ndjson, maxLineLength);
+            long lineNumber = 0;
+
+            while (reader.next()) {
+                lineNumber++;
+
+                if (reader.isTooLong()) {
+                    progress.fail(lineNumber, "Line longer than " + maxLineLength + " bytes");
+                    continue;
+                }
+
+                if (reader.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    chunk.add(new ImportLine(lineNumber, accountReader.readValue(reader.line(), 0, reader.length())));
+                } catch (JsonProcessingException e) {
+                    progress.fail(lineNumber, "Malformed line: " + e.getOriginalMessage());
+                }
+
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        return progress.toReport();
+    }
+
+    private void importChunk(List<ImportLine> chunk, ImportProgress progress) {
+        try {
+            progress.add(importInTransaction(chunk));
+        } catch (DataAccessException | PersistenceException chunkFailure) {
+            for (ImportLine line : chunk) {
+                try {
+                    progress.add(importInTransaction(List.of(line)));
+                } catch (DataAccessException | PersistenceException lineFailure) {
+                    progress.fail(line.number(), "Rejected by database: " + rootMessageOf(lineFailure));
+                }
+            }
+        }
+    }
+
+    private ImportProgress importInTransaction(List<ImportLine> lines) {
+        return transactionTemplate.execute(status -> {
+            entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+            ImportProgress progress = new ImportProgress();
+
+            for (ImportLine line : lines) {
+                try {
+                    progress.imported(importAccount(line.request()));
+                } catch (DuplicateAccountException e) {
+                    progress.fail(line.number(), e.getMessage());
+                }
+            }
+
+            entityManager.flush();
+            entityManager.clear();
+
+            return progress;
+        });
+    }
+
+    private Account importAccount(AccountImportRequest accountRequest) {
+        if (emailFilter.mightContain(accountRequest.getEmail()) && accountRepository.existsByEmail(accountRequest.getEmail())) {
+            throw new DuplicateAccountException("Duplicate account with email: " + accountRequest.getEmail());
+        }
+
+        Account newAccount = Account.builder()
+                .email(accountRequest.getEmail())
+                .password(accountRequest.getPassword())
+                .build();
+
+        accountRequest.getPosts().forEach(postRequest -> {
+            Post newPost = Post.builder()
+                    .content(postRequest.getContent())
+                    .commentCount((long) postRequest.getComments().size())
+                    .build();
+
+            postRequest.getComments().forEach(commentRequest -> newPost.addComment(Comment.builder()
+                    .content(commentRequest.getContent())
+                    .build()));
+
+            newAccount.addPost(newPost);
+        });
+
+        Account importedAccount = accountRepository.save(newAccount);
+        emailFilter.put(accountRequest.getEmail());
+        importedAccount.getPosts().forEach(post -> {
+            postIndex.put(post.getId(), post.getContent());
+            post.getComments().forEach(comment -> commentIndex.put(comment.getId(), post.getId(), comment.getContent()));
+        });
+
+        return importedAccount;
+    }
+
+    private static String rootMessageOf(Throwable throwable) {
+        Throwable root = throwable;
+
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+
+        return String.valueOf(root.getMessage()).lines()
+                .findFirst()
+                .orElse("");
+    }
+
+    private record ImportLine(long number, AccountImportRequest request) {
+    }
+
+    /**
+     * Splits a stream into lines of bytes. Each line is copied into the same buffer,
+     * which grows up to the longest line allowed; the rest of a longer line is skipped.
+     */
+    private static class LineReader {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final InputStream in;
+        private final int maxLength;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[1024];
+        private int length;
+        private boolean tooLong;
+
+        LineReader(InputStream in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Reads the next line, without its line feed; false at the end of the stream.
+         */
+        boolean next() throws IOException {
+            length = 0;
+            tooLong = false;
+            boolean read = false;
+
+            while (true) {
+                if (position == limit) {
+                    position = 0;
+                    limit = Math.max(in.read(buffer), 0);
+
+                    if (limit == 0) {
+                        return read;
+                    }
+                }
+
+                read = true;
+                int start = position;
+
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+
+                append(start, position);
+
+                if (position < limit) {
+                    position++;
+                    return true;
+                }
+            }
+        }
+
+        byte[] line() {
+            return line;
+        }
+
+        int length() {
+            return length;
+        }
+
+        boolean isTooLong() {
+            return tooLong;
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                if (line[i] != ' ' && line[i] != '\t' && line[i] != '\r') {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void append(int start, int end) {
+            int count = end - start;
+
+            if (tooLong || count > maxLength - length) {
+                tooLong = true;
+                return;
+            }
+
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.min(Math.max(line.length * 2, length + count), maxLength));
+            }
+
+            System.arraycopy(buffer, start, line, length, count);
+            length += count;
+        }
+
+    }
+
+    private static class ImportProgress {
+
+        private long accounts;
+        private long posts;
+        private long comments;
+        private long failed;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        void imported(Account account) {
+            accounts++;
+            posts += account.getPosts().size();
+            comments += account.getPosts().stream()
+                    .mapToLong(post -> post.getComments().size())
+                    .sum();
+        }
+
+        void fail(long line, String message) {
+            failed++;
+
+            if (errors.size() < ImportReport.MAX_ERRORS) {
+                errors.add(new ImportError(line, message));
+            }
+        }
+
+        void add(ImportProgress other) {
+            accounts += other.accounts;
+            posts += other.posts;
+            comments += other.comments;
+            other.errors.forEach(error -> fail(error.line(), error.message()));
+            failed += other.failed - other.errors.size();
+        }
+
+        ImportReport toReport() {
+            return new ImportReport(accounts, posts, comments, failed, List.copyOf(errors));
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.skwarek.blogger.service.impl;
+
+import com.skwarek.blogger.config.ReadYourWrites;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.search.PostIndex;
+import com.skwarek.blogger.service.PostIndexService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Service
+public class PostIndexServiceImpl implements PostIndexService {
+
+    private final PostRepository postRepository;
+    private final PostIndex postIndex;
+
+    public PostIndexServiceImpl(PostRepository postRepository, PostIndex postIndex) {
+        this.postRepository = postRepository;
+        this.postIndex = postIndex;
+    }
+
+    /**
+     * Streams the content of every post into the index once the application is up,
+     * reading projections so nothing piles up in the persistence context. The stream
+     * runs while requests are served, so posts written meanwhile index themselves and
+     * the index keeps the stream from overwriting them with the older content it read,
+     * or from putting back a post deleted meanwhile. The stream reads from the primary:
+     * a lagging replica could miss a change indexed before the load started. Until the
+     * stream is done, searches see the posts indexed so far.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public long loadPostIndex() {
+        long loadedPosts = 0;
+
+        postIndex.startLoad();
+        ReadYourWrites.pin();
+        try (Stream<PostSummary> posts = postRepository.streamSummariesByOrderByIdAsc()) {
+            for (PostSummary post : (Iterable<PostSummary>) posts::iterator) {
+                postIndex.load(post.id(), post.content());
+                loadedPosts++;
+            }
+        } finally {
+            ReadYourWrites.unpin();
+            postIndex.finishLoad();
+        }
+
+        return loadedPosts;
+    }
+
+}
@@ -1,43 +1,182 @@
 package com.skwarek.blogger.service.impl;
 
+import com.skwarek.blogger.cache.ListCache;
 import com.skwarek.blogger.domain.Account;
-import com.skwarek.blogger.domain.Comment;
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.ETag;
+import com.skwarek.blogger.dto.FeedItem;
 import com.skwarek.blogger.dto.PostRequest;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.exception.InvalidSearchQueryException;
 import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.CommentRepository;
 import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.repository.TimelineRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.search.PostIndex;
 import com.skwarek.blogger.service.PostService;
 import com.skwarek.blogger.service.AccountService;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PostServiceImpl implements PostService {
 
     private final PostRepository postRepository;
+    private final AccountRepository accountRepository;
+    private final CommentRepository commentRepository;
+    private final TimelineRepository timelineRepository;
     private final AccountService accountService;
-
-    public PostServiceImpl(PostRepository postRepository, AccountService accountService) {
+    private final ListCache listCache;
+    private final PostIndex postIndex;
+    private final CommentIndex commentIndex;
+
+    public PostServiceImpl(PostRepository postRepository, AccountRepository accountRepository,
+                           CommentRepository commentRepository, TimelineRepository timelineRepository,
+                           AccountService accountService, ListCache listCache, PostIndex postIndex,
+                           CommentIndex commentIndex) {
         this.postRepository = postRepository;
+        this.accountRepository = accountRepository;
+        this.commentRepository = commentRepository;
+        this.timelineRepository = timelineRepository;
         this.accountService = accountService;
+        this.listCache = listCache;
+        this.postIndex = postIndex;
+        this.commentIndex = commentIndex;
     }
 
+    /**
+     * Pages are cached per account, under the generation taken before the first read of
+     * the transaction. The comments of every post are loaded before the page is cached,
+     * because the cached posts are serialized later outside of this session.
+     */
     @Override
-    public List<Post> findAllByAccountId(Long accountId) {
+    @Transactional(readOnly = true)
+    public CursorPage<Post> findAllByAccountId(Long accountId, String after, Integer limit) {
+        long generation = listCache.generation(ListCache.Scope.ACCOUNT_POSTS, accountId);
         Account account = accountService.findById(accountId);
 
-        return postRepository.findByAccountId(account.getId());
+        return listCache.get(ListCache.Scope.ACCOUNT_POSTS, account.getId(), generation, Arrays.asList("full", after, limit), () -> {
+            long beforeId = Cursor.decodeId(after, Long.MAX_VALUE);
+            int size = CursorPage.sizeOf(limit);
+
+            List<Post> posts = postRepository.findByAccountIdAndIdLessThanOrderByIdDesc(account.getId(), beforeId, Pageable.ofSize(size + 1));
+            posts.forEach(post -> Hibernate.initialize(post.getComments()));
+
+            return CursorPage.of(posts, size, Post::getId);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummary> findAllSummariesByAccountId(Long accountId, String after, Integer limit) {
+        long generation = listCache.generation(ListCache.Scope.ACCOUNT_POSTS, accountId);
+        Account account = accountService.findById(accountId);
+
+        return listCache.get(ListCache.Scope.ACCOUNT_POSTS, account.getId(), generation, Arrays.asList("summary", after, limit), () -> {
+            long beforeId = Cursor.decodeId(after, Long.MAX_VALUE);
+            int size = CursorPage.sizeOf(limit);
+
+            List<PostSummary> posts = postRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(account.getId(), beforeId, Pageable.ofSize(size + 1));
+
+            return CursorPage.of(posts, size, PostSummary::id);
+        });
+    }
+
+    /**
+     * Pages through the posts of every account, newest first, by their creation time and
+     * id, which the {@code (created_at, id)} index serves in order. The cursor holds both
+     * keys of the last post, the time in microseconds, which is what the column keeps.
+     * Each post comes with a summary of its author from a join, so no account or its
+     * posts are loaded.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<FeedItem> findFeed(String after, Integer limit) {
+        int size = CursorPage.sizeOf(limit);
+        Pageable pageable = Pageable.ofSize(size + 1);
+        List<FeedItem> posts;
+
+        if (after == null || after.isBlank()) {
+            posts = postRepository.findFeedItems(pageable);
+        } else {
+            long[] keys = Cursor.decode(after, 2);
+            posts = postRepository.findFeedItemsBefore(Instant.EPOCH.plus(keys[0], ChronoUnit.MICROS), keys[1], pageable);
+        }
+
+        return CursorPage.of(posts, size, post -> ChronoUnit.MICROS.between(Instant.EPOCH, post.createdAt()), FeedItem::id);
+    }
+
+    /**
+     * Ranks the matching posts in the in-memory index and reads only those rows back,
+     * keeping the index order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<PostSummary> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidSearchQueryException("Blank search query");
+        }
+
+        List<Long> postIds = postIndex.search(query, CursorPage.sizeOf(limit));
+
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, PostSummary> posts = postRepository.findSummariesByIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostSummary::id, Function.identity()));
+
+        return postIds.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Post findById(Long postId) {
         return postRepository.findById(postId)
                 .orElseThrow(() -> new NotFoundPostException("Not found post with id: " + postId));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public String findETagById(Long postId) {
+        return postRepository.findVersionById(postId)
+                .map(ETag::of)
+                .orElseThrow(() -> new NotFoundPostException("Not found post with id: " + postId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Post findWithCommentsById(Long postId) {
+        return postRepository.findWithCommentsById(postId)
+                .orElseThrow(() -> new NotFoundPostException("Not found post with id: " + postId));
+    }
+
+    /**
+     * Writes the new post to the timeline of every follower of the account in one
+     * insert, unless the account has too many followers for that and they read its
+     * posts from it instead. The account's version is moved as well, since its ETag
+     * covers its posts.
+     */
+    @Override
+    @Transactional
     public Post create2Account(Long accountId, PostRequest postRequest) {
         Account account = accountService.findById(accountId);
 
@@ -47,28 +186,61 @@ public class PostServiceImpl implements PostService {
 
         account.addPost(newPost);
 
-        return postRepository.save(newPost);
+        Post createdPost = postRepository.saveAndFlush(newPost);
+        accountRepository.incrementVersion(account.getId());
+
+        if (!account.getFanOutOnRead()) {
+            timelineRepository.fanOut(createdPost.getId(), account.getId(), createdPost.getCreatedAt());
+        }
+
+        listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, account.getId());
+        postIndex.put(createdPost.getId(), createdPost.getContent());
+
+        return createdPost;
     }
 
+    /**
+     * Updates the row in place and reads it back once for the response.
+     */
     @Override
+    @Transactional
     public Post update(Long postId, PostRequest postRequest) {
-        Post oldPost = postRepository.findById(postId)
+        int updatedPosts = postRepository.updateContent(postId, postRequest.getContent());
+
+        if (updatedPosts == 0) {
+            throw new NotFoundPostException("Not found post with id: " + postId);
+        }
+
+        Post updatedPost = postRepository.findById(postId)
                 .orElseThrow(() -> new NotFoundPostException("Not found post with id: " + postId));
 
-        oldPost.setContent(postRequest.getContent());
+        listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, updatedPost.getAccount().getId());
+        postIndex.put(postId, postRequest.getContent());
 
-        return postRepository.save(oldPost);
+        return updatedPost;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long postId) {
-        Post postDb = postRepository.findById(postId)
+        Long accountId = postRepository.findAccountIdById(postId)
                 .orElseThrow(() -> new NotFoundPostException("Not found post with id: " + postId));
 
-        List<Comment> comments = new ArrayList<>(postDb.getComments());
-        comments.forEach(postDb::removeComment);
+        commentRepository.deleteInBulkByPostId(postId);
+        timelineRepository.deleteInBulkByPostId(postId);
+
+        int deletedPosts = postRepository.deleteInBulkById(postId);
+
+        if (deletedPosts == 0) {
+            throw new NotFoundPostException("Not found post with id: " + postId);
+        }
+
+        accountRepository.incrementVersion(accountId);
 
-        postRepository.deleteById(postDb.getId());
+        listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, accountId);
+        listCache.invalidate(ListCache.Scope.POST_COMMENTS, postId);
+        postIndex.remove(postId);
+        commentIndex.removePost(postId);
     }
 
 }
@@ -0,0 +1,55 @@
+package com.skwarek.blogger.service.impl;
+
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.exception.NotFoundAccountException;
+import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.repository.ReactiveAccountRepository;
+import com.skwarek.blogger.repository.ReactiveCommentRepository;
+import com.skwarek.blogger.repository.ReactivePostRepository;
+import com.skwarek.blogger.service.ReactiveReadService;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams rows straight from R2DBC in keyset order. Nothing is buffered here: rows are
+ * pulled from the driver only as fast as the client reads them. A stream can be resumed
+ * from the id of the last row received.
+ */
+@Service
+public class ReactiveReadServiceImpl implements ReactiveReadService {
+
+    private final ReactiveAccountRepository reactiveAccountRepository;
+    private final ReactivePostRepository reactivePostRepository;
+    private final ReactiveCommentRepository reactiveCommentRepository;
+
+    public ReactiveReadServiceImpl(ReactiveAccountRepository reactiveAccountRepository,
+                                   ReactivePostRepository reactivePostRepository,
+                                   ReactiveCommentRepository reactiveCommentRepository) {
+        this.reactiveAccountRepository = reactiveAccountRepository;
+        this.reactivePostRepository = reactivePostRepository;
+        this.reactiveCommentRepository = reactiveCommentRepository;
+    }
+
+    @Override
+    public Flux<AccountSummary> streamAccounts(Long afterId) {
+        return reactiveAccountRepository.findSummariesByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L);
+    }
+
+    @Override
+    public Flux<PostSummary> streamPostsByAccountId(Long accountId, Long beforeId) {
+        return reactiveAccountRepository.findIdById(accountId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundAccountException("Not found account with id: " + accountId)))
+                .flatMapMany(id -> reactivePostRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(id, beforeId != null ? beforeId : Long.MAX_VALUE));
+    }
+
+    @Override
+    public Flux<CommentSummary> streamCommentsByPostId(Long postId, Long afterId) {
+        return reactivePostRepository.findIdById(postId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundPostException("Not found post with id: " + postId)))
+                .flatMapMany(id -> reactiveCommentRepository.findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(id, afterId != null ? afterId : 0L));
+    }
+
+}
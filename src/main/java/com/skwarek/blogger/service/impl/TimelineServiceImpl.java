@@ -0,0 +1,138 @@
+package com.skwarek.blogger.service.impl;
+
+import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.domain.Follow;
+import com.skwarek.blogger.domain.FollowId;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
+import com.skwarek.blogger.exception.InvalidFollowException;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.FollowRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.repository.TimelineRepository;
+import com.skwarek.blogger.service.AccountService;
+import com.skwarek.blogger.service.TimelineService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class TimelineServiceImpl implements TimelineService {
+
+    private final TimelineRepository timelineRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final AccountRepository accountRepository;
+    private final AccountService accountService;
+    private final long fanOutMaxFollowers;
+    private final int followBackfill;
+
+    public TimelineServiceImpl(TimelineRepository timelineRepository, FollowRepository followRepository,
+                               PostRepository postRepository, AccountRepository accountRepository,
+                               AccountService accountService,
+                               @Value("${blogger.timeline.fan-out-max-followers:10000}") long fanOutMaxFollowers,
+                               @Value("${blogger.timeline.follow-backfill:100}") int followBackfill) {
+        this.timelineRepository = timelineRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.accountRepository = accountRepository;
+        this.accountService = accountService;
+        this.fanOutMaxFollowers = fanOutMaxFollowers;
+        this.followBackfill = followBackfill;
+    }
+
+    /**
+     * Reads the posts written to the account's timeline with one range scan, newest
+     * first like the global feed and with the same cursor. The posts of followed
+     * accounts with too many followers to fan out to are never written there; they are
+     * read from the posts of just those accounts and merged in. A post can come from
+     * both when its author went over the limit after it was written, and is kept once.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<FeedItem> findTimeline(Long accountId, String after, Integer limit) {
+        Account account = accountService.findById(accountId);
+
+        int size = CursorPage.sizeOf(limit);
+        Pageable pageable = Pageable.ofSize(size + 1);
+        List<Long> fanOutOnReadIds = followRepository.findFanOutOnReadFolloweeIdsByAccountId(account.getId());
+        List<FeedItem> writtenPosts;
+        List<FeedItem> readPosts = List.of();
+
+        if (after == null || after.isBlank()) {
+            writtenPosts = timelineRepository.findFeedItemsByAccountId(account.getId(), pageable);
+
+            if (!fanOutOnReadIds.isEmpty()) {
+                readPosts = postRepository.findFeedItemsByAccountIdIn(fanOutOnReadIds, pageable);
+            }
+        } else {
+            long[] keys = Cursor.decode(after, 2);
+            Instant createdAt = Instant.EPOCH.plus(keys[0], ChronoUnit.MICROS);
+            writtenPosts = timelineRepository.findFeedItemsByAccountIdBefore(account.getId(), createdAt, keys[1], pageable);
+
+            if (!fanOutOnReadIds.isEmpty()) {
+                readPosts = postRepository.findFeedItemsByAccountIdInBefore(fanOutOnReadIds, createdAt, keys[1], pageable);
+            }
+        }
+
+        List<FeedItem> posts = Stream.concat(writtenPosts.stream(), readPosts.stream())
+                .sorted(FeedItem.NEWEST_FIRST)
+                .distinct()
+                .limit(size + 1)
+                .toList();
+
+        return CursorPage.of(posts, size, post -> ChronoUnit.MICROS.between(Instant.EPOCH, post.createdAt()), FeedItem::id);
+    }
+
+    /**
+     * Following twice changes nothing. The newest posts of the followee are copied into
+     * the follower's timeline, unless they are read from the followee anyway.
+     */
+    @Override
+    @Transactional
+    public void follow(Long accountId, Long followeeId) {
+        Account account = accountService.findById(accountId);
+        Account followee = accountService.findById(followeeId);
+
+        if (account.getId().equals(followee.getId())) {
+            throw new InvalidFollowException("Account can't follow itself: " + accountId);
+        }
+
+        FollowId followId = new FollowId(account.getId(), followee.getId());
+
+        if (followRepository.existsById(followId)) {
+            return;
+        }
+
+        followRepository.saveAndFlush(Follow.builder()
+                .id(followId)
+                .build());
+        accountRepository.addToFollowerCount(followee.getId(), 1, fanOutMaxFollowers);
+
+        if (!followee.getFanOutOnRead()) {
+            timelineRepository.backfill(account.getId(), followee.getId(), followBackfill);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void unfollow(Long accountId, Long followeeId) {
+        Account account = accountService.findById(accountId);
+        Account followee = accountService.findById(followeeId);
+
+        int deletedFollows = followRepository.deleteInBulkById(account.getId(), followee.getId());
+
+        if (deletedFollows > 0) {
+            accountRepository.addToFollowerCount(followee.getId(), -1, fanOutMaxFollowers);
+            timelineRepository.deleteInBulkByAccountIdAndAuthorId(account.getId(), followee.getId());
+        }
+    }
+
+}
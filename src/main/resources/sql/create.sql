@@ -1,17 +1,29 @@
 -- add few accounts
-INSERT INTO account (id, email, password) VALUES (1, 'a1@gmail.com', '111');
-INSERT INTO account (id, email, password) VALUES (2, 'b2@gmail.com', '222');
-INSERT INTO account (id, email, password) VALUES (3, 'c3@gmail.com', '333');
+INSERT INTO account (id, email, password, follower_count, fan_out_on_read, version) VALUES (1, 'a1@gmail.com', '111', 1, false, 0);
+INSERT INTO account (id, email, password, follower_count, fan_out_on_read, version) VALUES (2, 'b2@gmail.com', '222', 1, true, 0);
+INSERT INTO account (id, email, password, follower_count, fan_out_on_read, version) VALUES (3, 'c3@gmail.com', '333', 0, false, 0);
 
 -- add few posts
-INSERT INTO post (id, content, account_id) VALUES (1, 'post no 1 to account1', 1);
-INSERT INTO post (id, content, account_id) VALUES (2, 'post no 2 to account1', 1);
-INSERT INTO post (id, content, account_id) VALUES (3, 'post no 3 to account1', 1);
-INSERT INTO post (id, content, account_id) VALUES (4, 'post no 1 to account2', 2);
+INSERT INTO post (id, content, comment_count, version, account_id, created_at, updated_at) VALUES (1, 'post no 1 to account1', 3, 0, 1, '2023-06-01 10:00:00', '2023-06-01 10:00:00');
+INSERT INTO post (id, content, comment_count, version, account_id, created_at, updated_at) VALUES (2, 'post no 2 to account1', 2, 0, 1, '2023-06-01 11:00:00', '2023-06-01 11:00:00');
+INSERT INTO post (id, content, comment_count, version, account_id, created_at, updated_at) VALUES (3, 'post no 3 to account1', 0, 0, 1, '2023-06-01 12:00:00', '2023-06-01 12:00:00');
+INSERT INTO post (id, content, comment_count, version, account_id, created_at, updated_at) VALUES (4, 'post no 1 to account2', 0, 0, 2, '2023-06-01 12:00:00', '2023-06-01 12:00:00');
 
 -- add few comments
-INSERT INTO comment (id, content, post_id) VALUES (1, 'comment no 1 to post1', 1);
-INSERT INTO comment (id, content, post_id) VALUES (2, 'comment no 2 to post1', 1);
-INSERT INTO comment (id, content, post_id) VALUES (3, 'comment no 3 to post1', 1);
-INSERT INTO comment (id, content, post_id) VALUES (4, 'comment no 1 to post2', 2);
-INSERT INTO comment (id, content, post_id) VALUES (5, 'comment no 2 to post2', 2);
+INSERT INTO comment (id, content, version, post_id, created_at, updated_at) VALUES (1, 'comment no 1 to post1', 0, 1, '2023-06-01 10:05:00', '2023-06-01 10:05:00');
+INSERT INTO comment (id, content, version, post_id, created_at, updated_at) VALUES (2, 'comment no 2 to post1', 0, 1, '2023-06-01 10:10:00', '2023-06-01 10:10:00');
+INSERT INTO comment (id, content, version, post_id, created_at, updated_at) VALUES (3, 'comment no 3 to post1', 0, 1, '2023-06-01 10:15:00', '2023-06-01 10:15:00');
+INSERT INTO comment (id, content, version, post_id, created_at, updated_at) VALUES (4, 'comment no 1 to post2', 0, 2, '2023-06-01 11:05:00', '2023-06-01 11:05:00');
+INSERT INTO comment (id, content, version, post_id, created_at, updated_at) VALUES (5, 'comment no 2 to post2', 0, 2, '2023-06-01 11:10:00', '2023-06-01 11:10:00');
+
+-- account3 follows account1, whose posts are written to its timeline, and account2, whose posts are read from it
+INSERT INTO follow (account_id, followee_id, created_at) VALUES (3, 1, '2023-06-01 09:00:00');
+INSERT INTO follow (account_id, followee_id, created_at) VALUES (3, 2, '2023-06-01 09:00:00');
+INSERT INTO timeline_entry (account_id, post_id, author_id, created_at) VALUES (3, 1, 1, '2023-06-01 10:00:00');
+INSERT INTO timeline_entry (account_id, post_id, author_id, created_at) VALUES (3, 2, 1, '2023-06-01 11:00:00');
+INSERT INTO timeline_entry (account_id, post_id, author_id, created_at) VALUES (3, 3, 1, '2023-06-01 12:00:00');
+
+-- move id generators past the rows above
+UPDATE account_seq SET next_val = 4;
+UPDATE post_seq SET next_val = 5;
+UPDATE comment_seq SET next_val = 6;
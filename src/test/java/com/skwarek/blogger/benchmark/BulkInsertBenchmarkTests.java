@@ -0,0 +1,80 @@
+package com.skwarek.blogger.benchmark;
+
+import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.domain.Post;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bulk inserts of posts with comments with JDBC batching switched off
+ * (batch size 1, which is what IDENTITY ids forced) and on.
+ * Run with {@code mvn test -Dtest=BulkInsertBenchmarkTests -Dbenchmark=true}.
+ */
+@DataJpaTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class BulkInsertBenchmarkTests {
+
+    private static final int POSTS = 2_000;
+    private static final int COMMENTS_PER_POST = 5;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldInsertPostsAndCommentsWithAndWithoutJdbcBatching() {
+        measure(50);
+
+        long unbatched = measure(1);
+        long batched = measure(50);
+
+        int rows = POSTS * (COMMENTS_PER_POST + 1);
+        System.out.printf("bulk insert of %d rows: unbatched %d rows/s, batched %d rows/s (x%.1f)%n",
+                rows, rowsPerSecond(rows, unbatched), rowsPerSecond(rows, batched), (double) unbatched / batched);
+
+        assertThat(entityManager.createQuery("select count(p) from Post p", Long.class).getSingleResult())
+                .isGreaterThanOrEqualTo((long) POSTS * ROUNDS * 3);
+    }
+
+    private long measure(int batchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            Account account = entityManager.getReference(Account.class, 1L);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < POSTS; i++) {
+                Post post = Post.builder()
+                        .content("benchmark post " + i)
+                        .account(account)
+                        .build();
+                for (int j = 0; j < COMMENTS_PER_POST; j++) {
+                    post.addComment(Comment.builder()
+                            .content("benchmark comment " + j)
+                            .build());
+                }
+                entityManager.persist(post);
+            }
+            entityManager.flush();
+            best = Math.min(best, System.nanoTime() - start);
+
+            entityManager.clear();
+        }
+
+        return best;
+    }
+
+    private static long rowsPerSecond(int rows, long nanos) {
+        return rows * 1_000_000_000L / nanos;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.skwarek.blogger.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load shared by the benchmarks: sends GET requests with at most
+ * {@code concurrency} in flight, counts anything but 200 as a failure and reports
+ * throughput and p99 latency.
+ */
+final class HttpLoad {
+
+    private HttpLoad() {
+    }
+
+    static Result run(HttpClient httpClient, int concurrency, int requests, IntFunction<URI> uriOfRequest) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[requests];
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            HttpRequest httpRequest = HttpRequest.newBuilder(uriOfRequest.apply(i))
+                    .GET()
+                    .build();
+
+            inFlight.acquireUninterruptibly();
+            long sent = System.nanoTime();
+            responses[i] = httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        latencies[request] = System.nanoTime() - sent;
+                        if (failure != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).exceptionally(failure -> null).join();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+
+        return new Result(requests * 1_000_000_000L / elapsed, latencies[(int) (requests * 0.99)] / 1_000_000, failures.get());
+    }
+
+    record Result(long requestsPerSecond, long p99Millis, int failures) {
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.skwarek.blogger.benchmark;
+
+import com.skwarek.blogger.search.PostIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures query latency of the post index over a million synthetic posts of 40 words
+ * drawn from a Zipf-like vocabulary, so common words have long posting lists.
+ * Run with {@code mvn test -Dtest=PostSearchBenchmarkTests -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PostSearchBenchmarkTests {
+
+    private static final int POSTS = 1_000_000;
+    private static final int WORDS_PER_POST = 40;
+    private static final int VOCABULARY = 50_000;
+    private static final int QUERIES = 2_000;
+    private static final int LIMIT = 20;
+
+    @Test
+    void shouldSearchMillionPostsWithinTenMilliseconds() {
+        SplittableRandom random = new SplittableRandom(42);
+        PostIndex postIndex = new PostIndex();
+
+        long indexingStart = System.nanoTime();
+        StringBuilder content = new StringBuilder();
+        for (long postId = 1; postId <= POSTS; postId++) {
+            content.setLength(0);
+            for (int i = 0; i < WORDS_PER_POST; i++) {
+                content.append(word(random)).append(' ');
+            }
+            postIndex.put(postId, content.toString());
+        }
+        long indexingMillis = (System.nanoTime() - indexingStart) / 1_000_000;
+
+        for (int i = 0; i < QUERIES; i++) {
+            postIndex.search(query(random), LIMIT);
+        }
+
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = query(random);
+            long start = System.nanoTime();
+            List<Long> hits = postIndex.search(query, LIMIT);
+            latencies[i] = System.nanoTime() - start;
+            assertThat(hits).hasSizeLessThanOrEqualTo(LIMIT);
+        }
+        Arrays.sort(latencies);
+
+        double p50 = latencies[QUERIES / 2] / 1e6;
+        double p99 = latencies[QUERIES * 99 / 100] / 1e6;
+        System.out.printf("post search over %d posts (indexed in %d ms): p50 %.2f ms, p99 %.2f ms (target 10 ms)%n",
+                postIndex.size(), indexingMillis, p50, p99);
+
+        assertThat(postIndex.size()).isEqualTo(POSTS);
+    }
+
+    private static String query(SplittableRandom random) {
+        return word(random) + " " + word(random);
+    }
+
+    /**
+     * Picks word {@code n} with a probability roughly proportional to 1/n.
+     */
+    private static String word(SplittableRandom random) {
+        int rank = (int) Math.pow(VOCABULARY, random.nextDouble());
+        return "w" + Integer.toString(rank, 36);
+    }
+
+}
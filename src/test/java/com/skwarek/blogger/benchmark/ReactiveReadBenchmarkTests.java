@@ -0,0 +1,108 @@
+package com.skwarek.blogger.benchmark;
+
+import com.skwarek.blogger.BloggerApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the blocking account summaries page with the reactive account stream at
+ * 10k concurrent connections. Tomcat accepts all of them, but a blocking request holds
+ * one of its worker threads until the JDBC query returns, while a streaming request
+ * hands the thread back as soon as the R2DBC query is started. Throughput, p99, peak
+ * thread count and peak heap are printed per endpoint; client and server share the JVM,
+ * so the last two include the client's share. Run with
+ * {@code mvn test -Dtest=ReactiveReadBenchmarkTests -Dbenchmark=true}, and lower the
+ * connection count with {@code -Dbenchmark.concurrency=...} on a small machine.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReactiveReadBenchmarkTests {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 10_000);
+    private static final int REQUESTS = 3 * CONCURRENCY;
+
+    private static ConfigurableApplicationContext context;
+    private static HttpClient httpClient;
+    private static int port;
+
+    @BeforeAll
+    static void setUp() {
+        context = new SpringApplicationBuilder(BloggerApplication.class)
+                .run("--server.port=0",
+                        "--server.tomcat.max-connections=" + CONCURRENCY,
+                        "--server.tomcat.accept-count=" + CONCURRENCY,
+                        "--spring.datasource.url=jdbc:h2:mem:reactive-benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///reactive-benchmark?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.sql.init.schema-locations=classpath:sql/schema.sql",
+                        "--spring.sql.init.data-locations=classpath:sql/create_data.sql");
+        port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void shouldServeAccountSummariesBlockingAndReactive() {
+        run("/api/accounts?view=summary");
+        run("/api/stream/accounts");
+
+        Result blocking = run("/api/accounts?view=summary");
+        Result reactive = run("/api/stream/accounts");
+
+        System.out.printf("%d requests at concurrency %d%n", REQUESTS, CONCURRENCY);
+        System.out.printf("blocking page: %s%n", blocking);
+        System.out.printf("reactive stream: %s%n", reactive);
+
+        assertThat(blocking.failures()).isZero();
+        assertThat(reactive.failures()).isZero();
+    }
+
+    private static Result run(String path) {
+        System.gc();
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        URI uri = URI.create("http://localhost:" + port + path);
+        HttpLoad.Result load = HttpLoad.run(httpClient, CONCURRENCY, REQUESTS, request -> uri);
+
+        long peakHeapBytes = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+
+        return new Result(load.requestsPerSecond(), load.p99Millis(),
+                ManagementFactory.getThreadMXBean().getPeakThreadCount(), peakHeapBytes / (1024 * 1024), load.failures());
+    }
+
+    private record Result(long requestsPerSecond, long p99Millis, int peakThreads, long peakHeapMegabytes, int failures) {
+
+        @Override
+        public String toString() {
+            return String.format("%d req/s, p99 %d ms, peak %d threads, peak heap %d MB, %d failures",
+                    requestsPerSecond, p99Millis, peakThreads, peakHeapMegabytes, failures);
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.skwarek.blogger.benchmark;
+
+import com.skwarek.blogger.BloggerApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares request throughput with Tomcat's platform-thread pool and with virtual
+ * threads at a concurrency well above the pool size. Every request hits the database
+ * (GET /api/accounts/{id} runs three queries), but in-memory H2 barely blocks, so
+ * point it at MySQL with {@code -Dspring.datasource.url=...} to see the I/O-bound case.
+ * Run with {@code mvn test -Dtest=RequestThreadsBenchmarkTests -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RequestThreadsBenchmarkTests {
+
+    private static final int CONCURRENCY = 1_000;
+    private static final int REQUESTS = 10_000;
+    private static final int ROUNDS = 2;
+
+    @Test
+    void shouldServeRequestsWithPlatformAndVirtualThreads() {
+        HttpLoad.Result platform = measure(false);
+        HttpLoad.Result virtual = measure(true);
+
+        System.out.printf("%d requests at concurrency %d: platform threads %d req/s (p99 %d ms), virtual threads %d req/s (p99 %d ms)%n",
+                REQUESTS, CONCURRENCY, platform.requestsPerSecond(), platform.p99Millis(),
+                virtual.requestsPerSecond(), virtual.p99Millis());
+
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+    }
+
+    private HttpLoad.Result measure(boolean virtualThreads) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BloggerApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + (virtualThreads ? "virtual" : "platform") + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///" + (virtualThreads ? "virtual" : "platform") + "?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.datasource.hikari.maximum-pool-size=50",
+                        "--spring.sql.init.schema-locations=classpath:sql/schema.sql",
+                        "--spring.sql.init.data-locations=classpath:sql/create_data.sql",
+                        "--blogger.threads.virtual=" + virtualThreads)) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .build();
+
+            run(httpClient, port);
+
+            HttpLoad.Result best = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                HttpLoad.Result result = run(httpClient, port);
+                best = best == null || result.requestsPerSecond() > best.requestsPerSecond() ? result : best;
+            }
+
+            return best;
+        }
+    }
+
+    private static HttpLoad.Result run(HttpClient httpClient, int port) {
+        return HttpLoad.run(httpClient, CONCURRENCY, REQUESTS,
+                request -> URI.create("http://localhost:" + port + "/api/accounts/" + (request % 3 + 1)));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.skwarek.blogger.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailFilterTests {
+
+    private EmailFilter emailFilter;
+
+    @BeforeEach
+    void setUp() {
+        emailFilter = new EmailFilter(1000, 0.01);
+    }
+
+    @Test
+    void shouldTreatEveryEmailAsPossiblyTakenUntilLoaded() {
+        assertThat(emailFilter.mightContain("new@gmail.com")).isTrue();
+
+        emailFilter.markLoaded();
+
+        assertThat(emailFilter.mightContain("new@gmail.com")).isFalse();
+    }
+
+    @Test
+    void shouldContainEveryPutEmail() {
+        IntStream.range(0, 1000).forEach(i -> emailFilter.put("user" + i + "@gmail.com"));
+        emailFilter.markLoaded();
+
+        assertThat(IntStream.range(0, 1000)).allMatch(i -> emailFilter.mightContain("user" + i + "@gmail.com"));
+    }
+
+    @Test
+    void shouldIgnoreCaseOfEmail() {
+        emailFilter.put("A1@gmail.com");
+        emailFilter.markLoaded();
+
+        assertThat(emailFilter.mightContain("a1@GMAIL.com")).isTrue();
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearConfiguredRate() {
+        IntStream.range(0, 1000).forEach(i -> emailFilter.put("user" + i + "@gmail.com"));
+        emailFilter.markLoaded();
+
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> emailFilter.mightContain("other" + i + "@gmail.com"))
+                .count();
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.skwarek.blogger.cache;
+
+import com.skwarek.blogger.dto.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ListCacheTests {
+
+    private ListCache listCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        listCache = new ListCache(1000, 1000, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldLoadPageOnceAndServeItFromCache() {
+        CursorPage<String> first = getPostsPage(1L, List.of("full", 20));
+        CursorPage<String> second = getPostsPage(1L, List.of("full", 20));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldCacheEveryQueryOfOwnerSeparately() {
+        getPostsPage(1L, List.of("full", 20));
+        getPostsPage(1L, List.of("summary", 20));
+        getPostsPage(1L, List.of("full", 10));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void shouldReloadPagesOfOwnerAfterInvalidation() {
+        getPostsPage(1L, List.of("full", 20));
+        getPostsPage(2L, List.of("full", 20));
+
+        listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        getPostsPage(1L, List.of("full", 20));
+        getPostsPage(2L, List.of("full", 20));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void shouldNotInvalidatePagesOfOtherScope() {
+        getPostsPage(1L, List.of("full", 20));
+
+        listCache.invalidate(ListCache.Scope.POST_COMMENTS, 1L);
+        getPostsPage(1L, List.of("full", 20));
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldInvalidateAfterTransactionCompletion() {
+        getPostsPage(1L, List.of("full", 20));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+            getPostsPage(1L, List.of("full", 20));
+            assertThat(loads).hasValue(1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        getPostsPage(1L, List.of("full", 20));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldNotServePageLoadedAfterWriteToLaterReads() {
+        long generation = listCache.generation(ListCache.Scope.ACCOUNT_POSTS, 1L);
+
+        listCache.invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        getPostsPage(1L, generation, List.of("full", 20));
+        getPostsPage(1L, List.of("full", 20));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private CursorPage<String> getPostsPage(Long accountId, List<?> query) {
+        return getPostsPage(accountId, listCache.generation(ListCache.Scope.ACCOUNT_POSTS, accountId), query);
+    }
+
+    private CursorPage<String> getPostsPage(Long accountId, long generation, List<?> query) {
+        return listCache.get(ListCache.Scope.ACCOUNT_POSTS, accountId, generation, query, () -> {
+            loads.incrementAndGet();
+            return new CursorPage<>(List.of("post"), null);
+        });
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.skwarek.blogger.config;
+
+import com.skwarek.blogger.dto.AccountRequest;
+import com.skwarek.blogger.dto.PostRequest;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.service.AccountService;
+import com.skwarek.blogger.service.PostService;
+import org.h2.Driver;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a replica that never replicates: it starts with the same data as the
+ * primary, and whatever a test writes is only on the primary.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:lagging-primary;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.r2dbc.url=r2dbc:h2:mem:///lagging-primary?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "blogger.read-replicas.enabled=true",
+        "blogger.read-replicas.urls=" + ReadReplicaCachingTests.REPLICA_URL})
+public class ReadReplicaCachingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:lagging-replica;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private PostService postService;
+
+    @BeforeAll
+    static void setUpReplica() {
+        new ResourceDatabasePopulator(new ClassPathResource("sql/schema.sql"), new ClassPathResource("sql/create_data.sql"))
+                .execute(new SimpleDriverDataSource(new Driver(), REPLICA_URL, "sa", ""));
+    }
+
+    @Test
+    void shouldNotCacheAccountReadFromReplica() {
+        accountService.update(1L, AccountRequest.builder().email("new-a1@gmail.com").password("111").build());
+
+        assertThat(accountService.findById(1L).getEmail()).isEqualTo("a1@gmail.com");
+        assertThat(onPrimary(() -> accountService.findById(1L)).getEmail()).isEqualTo("new-a1@gmail.com");
+    }
+
+    @Test
+    void shouldNotCachePostPageReadFromReplica() {
+        Long postId = postService.create2Account(2L, PostRequest.builder().content("post written after the replica stopped").build()).getId();
+
+        assertThat(postService.findAllSummariesByAccountId(2L, null, null).getItems())
+                .extracting(PostSummary::id)
+                .doesNotContain(postId);
+        assertThat(onPrimary(() -> postService.findAllSummariesByAccountId(2L, null, null)).getItems())
+                .extracting(PostSummary::id)
+                .contains(postId);
+    }
+
+    private static <T> T onPrimary(Supplier<T> read) {
+        ReadYourWrites.pin();
+        try {
+            return read.get();
+        } finally {
+            ReadYourWrites.unpin();
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.skwarek.blogger.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadReplicaConfigTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(DataSourceConfig.class, ReadReplicaConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "blogger.read-replicas.urls=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+
+    @Test
+    void shouldKeepSinglePoolByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(DataSource.class);
+            assertThat(context).doesNotHaveBean(ReadYourWritesFilter.class);
+        });
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        contextRunner.withPropertyValues("blogger.read-replicas.enabled=true")
+                .run(context -> {
+                    label(context.getBean(HikariDataSource.class), "primary");
+                    label(replicaOf(context.getBean(ReplicaRoutingDataSource.class)), "replica");
+
+                    DataSource dataSource = context.getBean(DataSource.class);
+                    assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+
+                    assertThat(readLabel(dataSource, true)).isEqualTo("replica");
+                    assertThat(readLabel(dataSource, false)).isEqualTo("primary");
+                    assertThat(new JdbcTemplate(dataSource).queryForObject("select name from label", String.class)).isEqualTo("primary");
+                });
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToPrimaryWhenPinned() {
+        contextRunner.withPropertyValues("blogger.read-replicas.enabled=true")
+                .run(context -> {
+                    label(context.getBean(HikariDataSource.class), "primary");
+                    label(replicaOf(context.getBean(ReplicaRoutingDataSource.class)), "replica");
+
+                    ReadYourWrites.pin();
+                    try {
+                        assertThat(readLabel(context.getBean(DataSource.class), true)).isEqualTo("primary");
+                    } finally {
+                        ReadYourWrites.unpin();
+                    }
+                });
+    }
+
+    private static DataSource replicaOf(ReplicaRoutingDataSource routingDataSource) {
+        return routingDataSource.getResolvedDataSources().get(0);
+    }
+
+    private static void label(DataSource dataSource, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists label (name varchar(16))");
+        jdbcTemplate.update("delete from label");
+        jdbcTemplate.update("insert into label (name) values (?)", name);
+    }
+
+    private static String readLabel(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+
+        return transactionTemplate.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from label", String.class));
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.skwarek.blogger.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTests {
+
+    private static final Instant NOW = Instant.parse("2023-06-01T12:00:00Z");
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void shouldPinWriteToPrimaryAndOpenWindow() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/accounts/1/posts/create");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(pinnedWhileFiltering(request, response)).isTrue();
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).isEqualTo(Long.toString(NOW.plusSeconds(5).toEpochMilli()));
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+        assertThat(ReadYourWrites.isPinned()).isFalse();
+    }
+
+    @Test
+    void shouldLeaveReadWithoutCookieToReplicas() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(pinnedWhileFiltering(request, response)).isFalse();
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNull();
+    }
+
+    @Test
+    void shouldPinReadInsideWindowToPrimary() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.plusSeconds(1).toEpochMilli())));
+
+        assertThat(pinnedWhileFiltering(request, new MockHttpServletResponse())).isTrue();
+    }
+
+    @Test
+    void shouldLeaveReadAfterWindowToReplicas() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(NOW.toEpochMilli())));
+
+        assertThat(pinnedWhileFiltering(request, new MockHttpServletResponse())).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreMalformedCookie() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "soon"));
+
+        assertThat(pinnedWhileFiltering(request, new MockHttpServletResponse())).isFalse();
+    }
+
+    private boolean pinnedWhileFiltering(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        FilterChain filterChain = (req, res) -> pinned.set(ReadYourWrites.isPinned());
+
+        filter.doFilter(request, response, filterChain);
+
+        return pinned.get();
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.skwarek.blogger.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadsConfigTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    @Test
+    void shouldKeepPlatformThreadsByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(ExecutorService.class));
+    }
+
+    @Test
+    void shouldRunAsyncWorkOnVirtualThreads() {
+        contextRunner.withPropertyValues("blogger.threads.virtual=true")
+                .run(context -> {
+                    AsyncTaskExecutor taskExecutor = context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                            AsyncTaskExecutor.class);
+
+                    String threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().toString(), taskExecutor).join();
+
+                    assertThat(threadName).startsWith("VirtualThread").contains("virtual-");
+                });
+    }
+
+}
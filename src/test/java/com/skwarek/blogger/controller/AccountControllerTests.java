@@ -4,7 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.skwarek.blogger.EmbeddedDatabase;
 import com.skwarek.blogger.domain.Account;
 import com.skwarek.blogger.dto.AccountRequest;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
 import com.skwarek.blogger.exception.DuplicateAccountException;
+import com.skwarek.blogger.exception.InvalidPageRequestException;
 import com.skwarek.blogger.exception.NotFoundAccountException;
 import com.skwarek.blogger.service.AccountService;
 import org.junit.jupiter.api.Test;
@@ -46,45 +50,114 @@ public class AccountControllerTests {
         Account firstAccount = accounts.get(0);
         Account lastAccount = accounts.get(accounts.size() - 1);
 
-        when(accountService.findAll()).thenReturn(accounts);
+        when(accountService.findAll(null, null)).thenReturn(new CursorPage<>(accounts, null));
 
         mockMvc.perform(get("/api/accounts"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[0].*", hasSize(4)))
-                .andExpect(jsonPath("$[0].id").value(firstAccount.getId()))
-                .andExpect(jsonPath("$[0].email").value(firstAccount.getEmail()))
-                .andExpect(jsonPath("$[0].password").value(firstAccount.getPassword()))
-                .andExpect(jsonPath("$[0].posts").isNotEmpty())
-                .andExpect(jsonPath("$[2].*", hasSize(4)))
-                .andExpect(jsonPath("$[2].id").value(lastAccount.getId()))
-                .andExpect(jsonPath("$[2].email").value(lastAccount.getEmail()))
-                .andExpect(jsonPath("$[2].password").value(lastAccount.getPassword()))
-                .andExpect(jsonPath("$[2].posts").isEmpty());
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.items[0].*", hasSize(5)))
+                .andExpect(jsonPath("$.items[0].id").value(firstAccount.getId()))
+                .andExpect(jsonPath("$.items[0].email").value(firstAccount.getEmail()))
+                .andExpect(jsonPath("$.items[0].password").value(firstAccount.getPassword()))
+                .andExpect(jsonPath("$.items[0].followerCount").value(firstAccount.getFollowerCount()))
+                .andExpect(jsonPath("$.items[0].fanOutOnRead").doesNotExist())
+                .andExpect(jsonPath("$.items[0].posts").isNotEmpty())
+                .andExpect(jsonPath("$.items[2].*", hasSize(5)))
+                .andExpect(jsonPath("$.items[2].id").value(lastAccount.getId()))
+                .andExpect(jsonPath("$.items[2].email").value(lastAccount.getEmail()))
+                .andExpect(jsonPath("$.items[2].password").value(lastAccount.getPassword()))
+                .andExpect(jsonPath("$.items[2].posts").isEmpty());
+    }
+
+    @Test
+    void shouldGetNextPageOfAccounts() throws Exception {
+        String after = Cursor.encode(1L);
+        List<Account> accounts = List.of(
+                EmbeddedDatabase.createAccountNo(2)
+        );
+
+        when(accountService.findAll(after, 1)).thenReturn(new CursorPage<>(accounts, Cursor.encode(2L)));
+
+        mockMvc.perform(get("/api/accounts")
+                        .param("after", after)
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(2L))
+                .andExpect(jsonPath("$.nextCursor").value(Cursor.encode(2L)));
+    }
+
+    @Test
+    void shouldGetAllAccountSummaries() throws Exception {
+        List<AccountSummary> accounts = List.of(
+                new AccountSummary(1L, "a1@gmail.com"),
+                new AccountSummary(2L, "b2@gmail.com")
+        );
+
+        when(accountService.findAllSummaries(null, null)).thenReturn(new CursorPage<>(accounts, null));
+
+        mockMvc.perform(get("/api/accounts")
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].*", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].email").value("a1@gmail.com"))
+                .andExpect(jsonPath("$.items[1].id").value(2L))
+                .andExpect(jsonPath("$.items[1].email").value("b2@gmail.com"));
+    }
+
+    @Test
+    void shouldNotGetAccountsWhenViewIsInvalid() throws Exception {
+        String expectedMessage = "This page request is invalid.";
+
+        mockMvc.perform(get("/api/accounts")
+                        .param("view", "everything"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(expectedMessage));
     }
 
     @Test
     void shouldGetNoAccounts() throws Exception {
         List<Account> accounts = Collections.emptyList();
 
-        when(accountService.findAll()).thenReturn(accounts);
+        when(accountService.findAll(null, null)).thenReturn(new CursorPage<>(accounts, null));
 
         mockMvc.perform(get("/api/accounts"))
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void shouldNotGetAccountsWhenCursorIsInvalid() throws Exception {
+        String after = "xxx";
+        String expectedMessage = "This page request is invalid.";
+
+        when(accountService.findAll(after, null)).thenThrow(InvalidPageRequestException.class);
+
+        mockMvc.perform(get("/api/accounts")
+                        .param("after", after))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(expectedMessage));
+    }
+
     @Test
     void shouldGetAccountById() throws Exception {
         Long accountId = 1L;
+        String eTag = "\"0-1a2b3c4d5e6f7a8b\"";
         Account account = EmbeddedDatabase.createAccountNo(1);
 
-        when(accountService.findById(accountId)).thenReturn(account);
+        when(accountService.findETagById(accountId)).thenReturn(eTag);
+        when(accountService.findWithPostsById(accountId)).thenReturn(account);
 
         mockMvc.perform(get("/api/accounts/{accountId}", accountId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.*", hasSize(4)))
+                .andExpect(jsonPath("$.*", hasSize(5)))
                 .andExpect(jsonPath("$.id").value(account.getId()))
                 .andExpect(jsonPath("$.email").value(account.getEmail()))
                 .andExpect(jsonPath("$.password").value(account.getPassword()))
@@ -92,12 +165,28 @@ public class AccountControllerTests {
 
     }
 
+    @Test
+    void shouldNotGetAccountByIdWhenAccountIsNotModified() throws Exception {
+        Long accountId = 1L;
+        String eTag = "\"0-1a2b3c4d5e6f7a8b\"";
+
+        when(accountService.findETagById(accountId)).thenReturn(eTag);
+
+        mockMvc.perform(get("/api/accounts/{accountId}", accountId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(accountService, never()).findWithPostsById(accountId);
+    }
+
     @Test
     void shouldNotGetAccountByIdWhenAccountDoesNotExist() throws Exception {
         Long accountId = 0L;
         String expectedMessage = "This account doesn't exist.";
 
-        when(accountService.findById(accountId)).thenThrow(NotFoundAccountException.class);
+        when(accountService.findETagById(accountId)).thenThrow(NotFoundAccountException.class);
 
         mockMvc.perform(get("/api/accounts/{accountId}", accountId))
                 .andExpect(status().isNotFound())
@@ -125,7 +214,7 @@ public class AccountControllerTests {
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(header().string(HttpHeaders.LOCATION, MAIN_LOCATION_PATH + "/api/accounts/1"))
-                .andExpect(jsonPath("$.*", hasSize(4)))
+                .andExpect(jsonPath("$.*", hasSize(5)))
                 .andExpect(jsonPath("$.id").value(createdAccount.getId()))
                 .andExpect(jsonPath("$.email").value(createdAccount.getEmail()))
                 .andExpect(jsonPath("$.password").value(createdAccount.getPassword()))
@@ -170,7 +259,7 @@ public class AccountControllerTests {
                         .content(objectMapper.writeValueAsString(accountRequest)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.*", hasSize(4)))
+                .andExpect(jsonPath("$.*", hasSize(5)))
                 .andExpect(jsonPath("$.id").value(updatedAccount.getId()))
                 .andExpect(jsonPath("$.email").value(updatedAccount.getEmail()))
                 .andExpect(jsonPath("$.password").value(updatedAccount.getPassword()))
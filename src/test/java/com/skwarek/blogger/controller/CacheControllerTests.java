@@ -0,0 +1,49 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.CacheRegionStats;
+import com.skwarek.blogger.service.CacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+public class CacheControllerTests {
+
+    @MockBean
+    private CacheService cacheService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldGetCacheStats() throws Exception {
+        List<CacheRegionStats> stats = List.of(
+                new CacheRegionStats("account", 3, 1, 1, 0.75),
+                new CacheRegionStats("post", 0, 0, 0, 0.0)
+        );
+
+        when(cacheService.findRegionStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].region").value("account"))
+                .andExpect(jsonPath("$[0].hitCount").value(3))
+                .andExpect(jsonPath("$[0].missCount").value(1))
+                .andExpect(jsonPath("$[0].putCount").value(1))
+                .andExpect(jsonPath("$[0].hitRatio").value(0.75))
+                .andExpect(jsonPath("$[1].region").value("post"));
+    }
+
+}
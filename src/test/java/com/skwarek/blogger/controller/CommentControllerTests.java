@@ -4,13 +4,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.skwarek.blogger.EmbeddedDatabase;
 import com.skwarek.blogger.domain.Comment;
 import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.exception.InvalidSearchQueryException;
+import com.skwarek.blogger.exception.NotFoundAccountException;
 import com.skwarek.blogger.exception.NotFoundCommentException;
 import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.exception.TooLargeBatchException;
 import com.skwarek.blogger.service.CommentService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -47,18 +54,75 @@ public class CommentControllerTests {
         Comment firstComment = comments.get(0);
         Comment lastComment = comments.get(comments.size() - 1);
 
-        when(commentService.findAllByPostId(postId)).thenReturn(comments);
+        when(commentService.findAllByPostId(postId, null, null, Sort.Direction.ASC, false)).thenReturn(new CursorPage<>(comments, null));
 
         mockMvc.perform(get("/api/posts/{postId}/comments", postId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[0].*", hasSize(2)))
-                .andExpect(jsonPath("$[0].id").value(firstComment.getId()))
-                .andExpect(jsonPath("$[0].content").value(firstComment.getContent()))
-                .andExpect(jsonPath("$[2].*", hasSize(2)))
-                .andExpect(jsonPath("$[2].id").value(lastComment.getId()))
-                .andExpect(jsonPath("$[2].content").value(lastComment.getContent()));
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.total").doesNotExist())
+                .andExpect(jsonPath("$.items[0].*", hasSize(4)))
+                .andExpect(jsonPath("$.items[0].id").value(firstComment.getId()))
+                .andExpect(jsonPath("$.items[0].content").value(firstComment.getContent()))
+                .andExpect(jsonPath("$.items[2].*", hasSize(4)))
+                .andExpect(jsonPath("$.items[2].id").value(lastComment.getId()))
+                .andExpect(jsonPath("$.items[2].content").value(lastComment.getContent()));
+    }
+
+    @Test
+    void shouldGetNewestCommentsByPostIdWithTotal() throws Exception {
+        Long postId = 1L;
+        List<Comment> comments = List.of(
+                EmbeddedDatabase.createCommentNo(3),
+                EmbeddedDatabase.createCommentNo(2)
+        );
+
+        when(commentService.findAllByPostId(postId, null, 2, Sort.Direction.DESC, true))
+                .thenReturn(new CursorPage<>(comments, Cursor.encode(2L), 3L));
+
+        mockMvc.perform(get("/api/posts/{postId}/comments", postId)
+                        .param("limit", "2")
+                        .param("order", "desc")
+                        .param("total", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(3L))
+                .andExpect(jsonPath("$.items[1].id").value(2L))
+                .andExpect(jsonPath("$.nextCursor").value(Cursor.encode(2L)))
+                .andExpect(jsonPath("$.total").value(3L));
+    }
+
+    @Test
+    void shouldNotGetCommentsByPostIdWhenOrderIsInvalid() throws Exception {
+        Long postId = 1L;
+        String expectedMessage = "This page request is invalid.";
+
+        mockMvc.perform(get("/api/posts/{postId}/comments", postId)
+                        .param("order", "sideways"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldGetAllCommentSummariesByPostId() throws Exception {
+        Long postId = 1L;
+        List<CommentSummary> comments = List.of(
+                new CommentSummary(1L, "comment no 1 to post1"),
+                new CommentSummary(2L, "comment no 2 to post1")
+        );
+
+        when(commentService.findAllSummariesByPostId(postId, null, null, Sort.Direction.ASC, false)).thenReturn(new CursorPage<>(comments, null));
+
+        mockMvc.perform(get("/api/posts/{postId}/comments", postId)
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].*", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].content").value("comment no 1 to post1"));
     }
 
     @Test
@@ -66,7 +130,7 @@ public class CommentControllerTests {
         Long postId = 3L;
         List<Comment> comments = Collections.emptyList();
 
-        when(commentService.findAllByPostId(postId)).thenReturn(comments);
+        when(commentService.findAllByPostId(postId, null, null, Sort.Direction.ASC, false)).thenReturn(new CursorPage<>(comments, null));
 
         mockMvc.perform(get("/api/posts/{postId}/comments", postId))
                 .andExpect(status().isNoContent());
@@ -77,26 +141,127 @@ public class CommentControllerTests {
         Long postId = 0L;
         String expectedMessage = "This post doesn't exist.";
 
-        when(commentService.findAllByPostId(postId)).thenThrow(NotFoundPostException.class);
+        when(commentService.findAllByPostId(postId, null, null, Sort.Direction.ASC, false)).thenThrow(NotFoundPostException.class);
         mockMvc.perform(get("/api/posts/{postId}/comments", postId))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string(expectedMessage));
     }
 
+    @Test
+    void shouldSearchCommentsByPostId() throws Exception {
+        Long postId = 1L;
+        List<CommentSummary> comments = List.of(
+                new CommentSummary(3L, "comment no 3 to post1"),
+                new CommentSummary(1L, "comment no 1 to post1")
+        );
+
+        when(commentService.searchByPostId(postId, "comment", 5)).thenReturn(comments);
+
+        mockMvc.perform(get("/api/posts/{postId}/comments/search", postId)
+                        .param("q", "comment")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(3L))
+                .andExpect(jsonPath("$[0].content").value("comment no 3 to post1"))
+                .andExpect(jsonPath("$[1].id").value(1L));
+    }
+
+    @Test
+    void shouldSearchNoCommentsByPostId() throws Exception {
+        Long postId = 1L;
+
+        when(commentService.searchByPostId(postId, "nothing", null)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/posts/{postId}/comments/search", postId)
+                        .param("q", "nothing"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldNotSearchCommentsByPostIdWhenPostDoesNotExist() throws Exception {
+        Long postId = 0L;
+        String expectedMessage = "This post doesn't exist.";
+
+        when(commentService.searchByPostId(postId, "comment", null)).thenThrow(NotFoundPostException.class);
+        mockMvc.perform(get("/api/posts/{postId}/comments/search", postId)
+                        .param("q", "comment"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldSearchCommentsByAccountId() throws Exception {
+        Long accountId = 1L;
+        List<CommentSummary> comments = List.of(new CommentSummary(4L, "comment no 1 to post2"));
+
+        when(commentService.searchByAccountId(accountId, "comment", null)).thenReturn(comments);
+
+        mockMvc.perform(get("/api/accounts/{accountId}/comments/search", accountId)
+                        .param("q", "comment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(4L));
+    }
+
+    @Test
+    void shouldNotSearchCommentsByAccountIdWhenAccountDoesNotExist() throws Exception {
+        Long accountId = 0L;
+        String expectedMessage = "This account doesn't exist.";
+
+        when(commentService.searchByAccountId(accountId, "comment", null)).thenThrow(NotFoundAccountException.class);
+        mockMvc.perform(get("/api/accounts/{accountId}/comments/search", accountId)
+                        .param("q", "comment"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldNotSearchCommentsWithBlankQuery() throws Exception {
+        String expectedMessage = "This search query is invalid.";
+
+        when(commentService.searchByAccountId(1L, " ", null)).thenThrow(InvalidSearchQueryException.class);
+        mockMvc.perform(get("/api/accounts/{accountId}/comments/search", 1L)
+                        .param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(expectedMessage));
+    }
+
     @Test
     void shouldGetCommentById() throws Exception {
         Long commentId = 1L;
+        String eTag = "\"0\"";
         Comment comment = EmbeddedDatabase.createCommentNo(1);
 
+        when(commentService.findETagById(commentId)).thenReturn(eTag);
         when(commentService.findById(commentId)).thenReturn(comment);
 
         mockMvc.perform(get("/api/comments/{commentId}", commentId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.*", hasSize(2)))
+                .andExpect(jsonPath("$.*", hasSize(4)))
                 .andExpect(jsonPath("$.id").value(comment.getId()))
-                .andExpect(jsonPath("$.content").value(comment.getContent()));
+                .andExpect(jsonPath("$.content").value(comment.getContent()))
+                .andExpect(jsonPath("$.createdAt").value("2023-06-01T10:05:00Z"));
+
+    }
+
+    @Test
+    void shouldNotGetCommentByIdWhenCommentIsNotModified() throws Exception {
+        Long commentId = 1L;
+        String eTag = "\"0\"";
+
+        when(commentService.findETagById(commentId)).thenReturn(eTag);
+
+        mockMvc.perform(get("/api/comments/{commentId}", commentId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
 
+        verify(commentService, never()).findById(commentId);
     }
 
     @Test
@@ -104,7 +269,7 @@ public class CommentControllerTests {
         Long commentId = 0L;
         String expectedMessage = "This comment doesn't exist.";
 
-        when(commentService.findById(commentId)).thenThrow(NotFoundCommentException.class);
+        when(commentService.findETagById(commentId)).thenThrow(NotFoundCommentException.class);
 
         mockMvc.perform(get("/api/comments/{commentId}", commentId))
                 .andExpect(status().isNotFound())
@@ -131,7 +296,7 @@ public class CommentControllerTests {
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(header().string(HttpHeaders.LOCATION, MAIN_LOCATION_PATH + "/api/comments/1"))
-                .andExpect(jsonPath("$.*", hasSize(2)))
+                .andExpect(jsonPath("$.*", hasSize(4)))
                 .andExpect(jsonPath("$.id").value(createdComment.getId()))
                 .andExpect(jsonPath("$.content").value(createdComment.getContent()));
     }
@@ -153,6 +318,56 @@ public class CommentControllerTests {
                 .andExpect(content().string(expectedMessage));
     }
 
+    @Test
+    void shouldCreateAllComments2Post() throws Exception {
+        Long postId = 1L;
+        List<CommentRequest> commentRequests = List.of(
+                CommentRequest.builder().content("first comment").build(),
+                CommentRequest.builder().content("second comment").build()
+        );
+
+        when(commentService.createAll2Post(postId, commentRequests)).thenReturn(List.of(7L, 8L));
+
+        mockMvc.perform(post("/api/posts/{postId}/comments/batch", postId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(commentRequests)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]").value(7))
+                .andExpect(jsonPath("$[1]").value(8));
+    }
+
+    @Test
+    void shouldNotCreateAllComments2PostWhenPostDoesNotExist() throws Exception {
+        Long postId = 0L;
+        List<CommentRequest> commentRequests = List.of(CommentRequest.builder().content("new comment").build());
+        String expectedMessage = "This post doesn't exist.";
+
+        when(commentService.createAll2Post(postId, commentRequests)).thenThrow(NotFoundPostException.class);
+
+        mockMvc.perform(post("/api/posts/{postId}/comments/batch", postId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(commentRequests)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldNotCreateAllComments2PostWhenBatchIsTooLarge() throws Exception {
+        Long postId = 1L;
+        List<CommentRequest> commentRequests = List.of(CommentRequest.builder().content("new comment").build());
+        String expectedMessage = "This batch is too large.";
+
+        when(commentService.createAll2Post(postId, commentRequests)).thenThrow(TooLargeBatchException.class);
+
+        mockMvc.perform(post("/api/posts/{postId}/comments/batch", postId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(commentRequests)))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().string(expectedMessage));
+    }
+
     @Test
     void shouldUpdateComment() throws Exception {
         Long commentId = 1L;
@@ -172,7 +387,7 @@ public class CommentControllerTests {
                         .content(objectMapper.writeValueAsString(commentRequest)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.*", hasSize(2)))
+                .andExpect(jsonPath("$.*", hasSize(4)))
                 .andExpect(jsonPath("$.id").value(updatedComment.getId()))
                 .andExpect(jsonPath("$.content").value(updatedComment.getContent()));
     }
@@ -0,0 +1,82 @@
+package com.skwarek.blogger.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.QueuedComment;
+import com.skwarek.blogger.exception.FullCommentQueueException;
+import com.skwarek.blogger.exception.InvalidCommentException;
+import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.service.CommentQueueService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = CommentQueueController.class, properties = "blogger.comment-queue.enabled=true")
+public class CommentQueueControllerTests {
+
+    @MockBean
+    private CommentQueueService commentQueueService;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldAcceptQueuedComment() throws Exception {
+        CommentRequest commentRequest = new CommentRequest("new comment");
+        when(commentQueueService.enqueue2Post(1L, commentRequest)).thenReturn(new QueuedComment(42L, 1L));
+
+        mockMvc.perform(post("/api/posts/{postId}/comments/queue", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(commentRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.provisionalId").value(42))
+                .andExpect(jsonPath("$.postId").value(1));
+    }
+
+    @Test
+    void shouldNotAcceptQueuedCommentWhenPostNotExists() throws Exception {
+        CommentRequest commentRequest = new CommentRequest("new comment");
+        when(commentQueueService.enqueue2Post(99L, commentRequest)).thenThrow(new NotFoundPostException("Not found post with id: 99"));
+
+        mockMvc.perform(post("/api/posts/{postId}/comments/queue", 99L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(commentRequest)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRejectQueuedCommentWhenQueueIsFull() throws Exception {
+        CommentRequest commentRequest = new CommentRequest("new comment");
+        when(commentQueueService.enqueue2Post(1L, commentRequest)).thenThrow(new FullCommentQueueException("Comment queue is full: 10000"));
+
+        mockMvc.perform(post("/api/posts/{postId}/comments/queue", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(commentRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(content().string("The comment queue is full, try again later."));
+    }
+
+    @Test
+    void shouldNotAcceptQueuedCommentWhenItIsInvalid() throws Exception {
+        CommentRequest commentRequest = new CommentRequest("new comment");
+        when(commentQueueService.enqueue2Post(1L, commentRequest)).thenThrow(new InvalidCommentException("Comment content is longer than 255 characters"));
+
+        mockMvc.perform(post("/api/posts/{postId}/comments/queue", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(commentRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("This comment is invalid."));
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.service.ExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExportController.class)
+public class ExportControllerTests {
+
+    private final static String EXPORTED_LINE = "{\"email\":\"a1@gmail.com\",\"password\":\"111\",\"posts\":[]}\n";
+
+    @MockBean
+    private ExportService exportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldExportAccounts() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(EXPORTED_LINE.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportAll(any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/accounts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(EXPORTED_LINE));
+    }
+
+    @Test
+    void shouldExportAccountsGzippedWhenClientAcceptsGzip() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(EXPORTED_LINE.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportAll(any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/accounts/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gunzipped = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gunzipped.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(EXPORTED_LINE);
+        }
+    }
+
+    @Test
+    void shouldExportAccountsUncompressedWhenClientRefusesGzip() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(EXPORTED_LINE.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportAll(any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/accounts/export")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(EXPORTED_LINE));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.ImportError;
+import com.skwarek.blogger.dto.ImportReport;
+import com.skwarek.blogger.service.ImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+public class ImportControllerTests {
+
+    @MockBean
+    private ImportService importService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldImportAccounts() throws Exception {
+        ImportReport report = new ImportReport(1, 2, 3, 1,
+                List.of(new ImportError(2, "Duplicate account with email: a1@gmail.com")));
+
+        when(importService.importAccounts(any(InputStream.class))).thenReturn(report);
+
+        mockMvc.perform(post("/api/accounts/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"email":"x1@gmail.com","password":"1"}
+                                {"email":"a1@gmail.com","password":"111"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.importedAccounts").value(1))
+                .andExpect(jsonPath("$.importedPosts").value(2))
+                .andExpect(jsonPath("$.importedComments").value(3))
+                .andExpect(jsonPath("$.failedLines").value(1))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Duplicate account with email: a1@gmail.com"));
+    }
+
+    @Test
+    void shouldNotImportAccountsWithoutNdjsonContentType() throws Exception {
+        mockMvc.perform(post("/api/accounts/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+}
@@ -3,7 +3,14 @@ package com.skwarek.blogger.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.skwarek.blogger.EmbeddedDatabase;
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
 import com.skwarek.blogger.dto.PostRequest;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.exception.InvalidPageRequestException;
+import com.skwarek.blogger.exception.InvalidSearchQueryException;
 import com.skwarek.blogger.exception.NotFoundAccountException;
 import com.skwarek.blogger.exception.NotFoundPostException;
 import com.skwarek.blogger.service.PostService;
@@ -40,27 +47,71 @@ public class PostControllerTests {
     void shouldGetAllPostsByAccountId() throws Exception {
         Long accountId = 1L;
         List<Post> posts = List.of(
-                EmbeddedDatabase.createPostNo(1),
+                EmbeddedDatabase.createPostNo(3),
                 EmbeddedDatabase.createPostNo(2),
-                EmbeddedDatabase.createPostNo(3)
+                EmbeddedDatabase.createPostNo(1)
         );
         Post firstPost = posts.get(0);
         Post lastPost = posts.get(posts.size() - 1);
 
-        when(postService.findAllByAccountId(accountId)).thenReturn(posts);
+        when(postService.findAllByAccountId(accountId, null, null)).thenReturn(new CursorPage<>(posts, null));
 
         mockMvc.perform(get("/api/accounts/{accountId}/posts", accountId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$", hasSize(3)))
-                .andExpect(jsonPath("$[0].*", hasSize(3)))
-                .andExpect(jsonPath("$[0].id").value(firstPost.getId()))
-                .andExpect(jsonPath("$[0].content").value(firstPost.getContent()))
-                .andExpect(jsonPath("$[0].comments").isNotEmpty())
-                .andExpect(jsonPath("$[2].*", hasSize(3)))
-                .andExpect(jsonPath("$[2].id").value(lastPost.getId()))
-                .andExpect(jsonPath("$[2].content").value(lastPost.getContent()))
-                .andExpect(jsonPath("$[2].comments").isEmpty());
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.items[0].*", hasSize(6)))
+                .andExpect(jsonPath("$.items[0].id").value(firstPost.getId()))
+                .andExpect(jsonPath("$.items[0].content").value(firstPost.getContent()))
+                .andExpect(jsonPath("$.items[0].commentCount").value(firstPost.getCommentCount()))
+                .andExpect(jsonPath("$.items[0].comments").isEmpty())
+                .andExpect(jsonPath("$.items[2].*", hasSize(6)))
+                .andExpect(jsonPath("$.items[2].id").value(lastPost.getId()))
+                .andExpect(jsonPath("$.items[2].content").value(lastPost.getContent()))
+                .andExpect(jsonPath("$.items[2].comments").isNotEmpty());
+    }
+
+    @Test
+    void shouldGetNextPageOfPostsByAccountId() throws Exception {
+        Long accountId = 1L;
+        String after = Cursor.encode(3L);
+        List<Post> posts = List.of(
+                EmbeddedDatabase.createPostNo(2)
+        );
+
+        when(postService.findAllByAccountId(accountId, after, 1)).thenReturn(new CursorPage<>(posts, Cursor.encode(2L)));
+
+        mockMvc.perform(get("/api/accounts/{accountId}/posts", accountId)
+                        .param("after", after)
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(2L))
+                .andExpect(jsonPath("$.nextCursor").value(Cursor.encode(2L)));
+    }
+
+    @Test
+    void shouldGetAllPostSummariesByAccountId() throws Exception {
+        Long accountId = 1L;
+        List<PostSummary> posts = List.of(
+                new PostSummary(3L, "post no 3 to account1", 0L),
+                new PostSummary(2L, "post no 2 to account1", 2L)
+        );
+
+        when(postService.findAllSummariesByAccountId(accountId, null, null)).thenReturn(new CursorPage<>(posts, null));
+
+        mockMvc.perform(get("/api/accounts/{accountId}/posts", accountId)
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].*", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].id").value(3L))
+                .andExpect(jsonPath("$.items[0].content").value("post no 3 to account1"))
+                .andExpect(jsonPath("$.items[0].commentCount").value(0L))
+                .andExpect(jsonPath("$.items[0].comments").doesNotExist());
     }
 
     @Test
@@ -68,7 +119,7 @@ public class PostControllerTests {
         Long accountId = 3L;
         List<Post> posts = Collections.emptyList();
 
-        when(postService.findAllByAccountId(accountId)).thenReturn(posts);
+        when(postService.findAllByAccountId(accountId, null, null)).thenReturn(new CursorPage<>(posts, null));
 
         mockMvc.perform(get("/api/accounts/{accountId}/posts", accountId))
                 .andExpect(status().isNoContent());
@@ -79,35 +130,151 @@ public class PostControllerTests {
         Long accountId = 0L;
         String expectedMessage = "This account doesn't exist.";
 
-        when(postService.findAllByAccountId(accountId)).thenThrow(NotFoundAccountException.class);
+        when(postService.findAllByAccountId(accountId, null, null)).thenThrow(NotFoundAccountException.class);
         mockMvc.perform(get("/api/accounts/{accountId}/posts", accountId))
                 .andExpect(status().isNotFound())
                 .andExpect(content().string(expectedMessage));
     }
 
+    @Test
+    void shouldGetFeed() throws Exception {
+        List<FeedItem> posts = List.of(
+                new FeedItem(4L, "post no 1 to account2", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(2L, "b2@gmail.com")),
+                new FeedItem(3L, "post no 3 to account1", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(1L, "a1@gmail.com"))
+        );
+        String nextCursor = Cursor.encode(1685620800000000L, 3L);
+
+        when(postService.findFeed(null, 2)).thenReturn(new CursorPage<>(posts, nextCursor));
+
+        mockMvc.perform(get("/api/feed")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor))
+                .andExpect(jsonPath("$.items[0].id").value(4L))
+                .andExpect(jsonPath("$.items[0].createdAt").value("2023-06-01T12:00:00Z"))
+                .andExpect(jsonPath("$.items[0].author.*", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].author.id").value(2L))
+                .andExpect(jsonPath("$.items[0].author.email").value("b2@gmail.com"))
+                .andExpect(jsonPath("$.items[0].author.posts").doesNotExist())
+                .andExpect(jsonPath("$.items[1].author.id").value(1L));
+    }
+
+    @Test
+    void shouldGetEmptyFeed() throws Exception {
+        when(postService.findFeed(null, null)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/feed"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldNotGetFeedWhenCursorIsInvalid() throws Exception {
+        String after = "xxx";
+        String expectedMessage = "This page request is invalid.";
+
+        when(postService.findFeed(after, null)).thenThrow(InvalidPageRequestException.class);
+
+        mockMvc.perform(get("/api/feed")
+                        .param("after", after))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldSearchPosts() throws Exception {
+        List<PostSummary> posts = List.of(
+                new PostSummary(2L, "post no 2 to account1", 2L),
+                new PostSummary(1L, "post no 1 to account1", 3L)
+        );
+
+        when(postService.search("post", 5)).thenReturn(posts);
+
+        mockMvc.perform(get("/api/posts/search")
+                        .param("q", "post")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(2L))
+                .andExpect(jsonPath("$[0].content").value("post no 2 to account1"))
+                .andExpect(jsonPath("$[1].id").value(1L));
+    }
+
+    @Test
+    void shouldSearchNoPosts() throws Exception {
+        when(postService.search("hibernate", null)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/posts/search")
+                        .param("q", "hibernate"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldNotSearchPostsWithBlankQuery() throws Exception {
+        String expectedMessage = "This search query is invalid.";
+
+        when(postService.search(" ", null)).thenThrow(InvalidSearchQueryException.class);
+        mockMvc.perform(get("/api/posts/search")
+                        .param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldNotSearchPostsWithoutQuery() throws Exception {
+        mockMvc.perform(get("/api/posts/search"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(postService);
+    }
+
     @Test
     void shouldGetPostById() throws Exception {
         Long postId = 1L;
+        String eTag = "\"0\"";
         Post post = EmbeddedDatabase.createPostNo(1);
 
-        when(postService.findById(postId)).thenReturn(post);
+        when(postService.findETagById(postId)).thenReturn(eTag);
+        when(postService.findWithCommentsById(postId)).thenReturn(post);
 
         mockMvc.perform(get("/api/posts/{postId}", postId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.*", hasSize(3)))
+                .andExpect(jsonPath("$.*", hasSize(6)))
                 .andExpect(jsonPath("$.id").value(post.getId()))
                 .andExpect(jsonPath("$.content").value(post.getContent()))
+                .andExpect(jsonPath("$.commentCount").value(post.getCommentCount()))
+                .andExpect(jsonPath("$.createdAt").value("2023-06-01T10:00:00Z"))
+                .andExpect(jsonPath("$.updatedAt").value("2023-06-01T10:00:00Z"))
                 .andExpect(jsonPath("$.comments").isNotEmpty());
 
     }
 
+    @Test
+    void shouldNotGetPostByIdWhenPostIsNotModified() throws Exception {
+        Long postId = 1L;
+        String eTag = "\"0\"";
+
+        when(postService.findETagById(postId)).thenReturn(eTag);
+
+        mockMvc.perform(get("/api/posts/{postId}", postId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        verify(postService, never()).findWithCommentsById(postId);
+    }
+
     @Test
     void shouldNotGetPostByIdWhenPostDoesNotExist() throws Exception {
         Long postId = 0L;
         String expectedMessage = "This post doesn't exist.";
 
-        when(postService.findById(postId)).thenThrow(NotFoundPostException.class);
+        when(postService.findETagById(postId)).thenThrow(NotFoundPostException.class);
 
         mockMvc.perform(get("/api/posts/{postId}", postId))
                 .andExpect(status().isNotFound())
@@ -135,7 +302,7 @@ public class PostControllerTests {
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(header().string(HttpHeaders.LOCATION, MAIN_LOCATION_PATH + "/api/posts/1"))
-                .andExpect(jsonPath("$.*", hasSize(3)))
+                .andExpect(jsonPath("$.*", hasSize(6)))
                 .andExpect(jsonPath("$.id").value(createdPost.getId()))
                 .andExpect(jsonPath("$.content").value(createdPost.getContent()))
                 .andExpect(jsonPath("$.comments").isEmpty());
@@ -178,7 +345,7 @@ public class PostControllerTests {
                         .content(objectMapper.writeValueAsString(postRequest)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.*", hasSize(3)))
+                .andExpect(jsonPath("$.*", hasSize(6)))
                 .andExpect(jsonPath("$.id").value(updatedPost.getId()))
                 .andExpect(jsonPath("$.content").value(updatedPost.getContent()))
                 .andExpect(jsonPath("$.comments").isNotEmpty());
@@ -0,0 +1,95 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.exception.NotFoundAccountException;
+import com.skwarek.blogger.service.ReactiveReadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveReadController.class)
+public class ReactiveReadControllerTests {
+
+    @MockBean
+    private ReactiveReadService reactiveReadService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldStreamAccounts() throws Exception {
+        when(reactiveReadService.streamAccounts(null)).thenReturn(Flux.just(
+                new AccountSummary(1L, "a1@gmail.com"),
+                new AccountSummary(2L, "b2@gmail.com")));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/stream/accounts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1,\"email\":\"a1@gmail.com\"}\n{\"id\":2,\"email\":\"b2@gmail.com\"}\n"));
+    }
+
+    @Test
+    void shouldStreamPostsByAccountIdBeforeId() throws Exception {
+        when(reactiveReadService.streamPostsByAccountId(1L, 3L)).thenReturn(Flux.just(
+                new PostSummary(2L, "post no 2 to account1", 2L)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/stream/accounts/{accountId}/posts", 1L).param("after", "3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":2,\"content\":\"post no 2 to account1\",\"commentCount\":2}\n"));
+    }
+
+    @Test
+    void shouldNotStreamPostsByAccountIdWhenAccountNotExists() throws Exception {
+        when(reactiveReadService.streamPostsByAccountId(99L, null)).thenReturn(Flux.error(
+                new NotFoundAccountException("Not found account with id: 99")));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/stream/accounts/{accountId}/posts", 99L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("This account doesn't exist."));
+    }
+
+    @Test
+    void shouldStreamCommentsByPostId() throws Exception {
+        when(reactiveReadService.streamCommentsByPostId(1L, null)).thenReturn(Flux.just(
+                new CommentSummary(1L, "comment no 1 to post1")));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/stream/posts/{postId}/comments", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1,\"content\":\"comment no 1 to post1\"}\n"));
+    }
+
+    @Test
+    void shouldRejectInvalidStreamPosition() throws Exception {
+        mockMvc.perform(get("/api/stream/accounts").param("after", "x"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.skwarek.blogger.controller;
+
+import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
+import com.skwarek.blogger.exception.InvalidFollowException;
+import com.skwarek.blogger.exception.NotFoundAccountException;
+import com.skwarek.blogger.service.TimelineService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TimelineController.class)
+public class TimelineControllerTests {
+
+    @MockBean
+    private TimelineService timelineService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldGetTimeline() throws Exception {
+        Long accountId = 3L;
+        List<FeedItem> posts = List.of(
+                new FeedItem(4L, "post no 1 to account2", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(2L, "b2@gmail.com")),
+                new FeedItem(3L, "post no 3 to account1", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(1L, "a1@gmail.com"))
+        );
+        String nextCursor = Cursor.encode(1685620800000000L, 3L);
+
+        when(timelineService.findTimeline(accountId, null, 2)).thenReturn(new CursorPage<>(posts, nextCursor));
+
+        mockMvc.perform(get("/api/accounts/{accountId}/timeline", accountId)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor))
+                .andExpect(jsonPath("$.items[0].id").value(4L))
+                .andExpect(jsonPath("$.items[0].createdAt").value("2023-06-01T12:00:00Z"))
+                .andExpect(jsonPath("$.items[0].author.email").value("b2@gmail.com"))
+                .andExpect(jsonPath("$.items[1].author.id").value(1L));
+    }
+
+    @Test
+    void shouldGetEmptyTimeline() throws Exception {
+        Long accountId = 1L;
+
+        when(timelineService.findTimeline(accountId, null, null)).thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/accounts/{accountId}/timeline", accountId))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldNotGetTimelineWhenAccountDoesNotExist() throws Exception {
+        Long accountId = 0L;
+        String expectedMessage = "This account doesn't exist.";
+
+        when(timelineService.findTimeline(accountId, null, null)).thenThrow(NotFoundAccountException.class);
+
+        mockMvc.perform(get("/api/accounts/{accountId}/timeline", accountId))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldFollowAccount() throws Exception {
+        mockMvc.perform(put("/api/accounts/{accountId}/following/{followeeId}", 1L, 2L))
+                .andExpect(status().isNoContent());
+
+        verify(timelineService).follow(1L, 2L);
+    }
+
+    @Test
+    void shouldNotFollowAccountWhenAccountDoesNotExist() throws Exception {
+        String expectedMessage = "This account doesn't exist.";
+
+        doThrow(NotFoundAccountException.class).when(timelineService).follow(1L, 0L);
+
+        mockMvc.perform(put("/api/accounts/{accountId}/following/{followeeId}", 1L, 0L))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldNotFollowAccountItself() throws Exception {
+        String expectedMessage = "This follow is invalid.";
+
+        doThrow(InvalidFollowException.class).when(timelineService).follow(1L, 1L);
+
+        mockMvc.perform(put("/api/accounts/{accountId}/following/{followeeId}", 1L, 1L))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(expectedMessage));
+    }
+
+    @Test
+    void shouldUnfollowAccount() throws Exception {
+        mockMvc.perform(delete("/api/accounts/{accountId}/following/{followeeId}", 3L, 1L))
+                .andExpect(status().isNoContent());
+
+        verify(timelineService).unfollow(3L, 1L);
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.skwarek.blogger.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommentJournalTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldReplayCommentsNotMarkedDone() throws IOException {
+        Path path = directory.resolve("comments.journal");
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            journal.append(1L, "comment no 1");
+            journal.append(1L, "comment no 2");
+            journal.append(2L, "comment no 3");
+            journal.markDone(List.of(1L, 3L));
+        }
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            assertThat(journal.pending()).containsExactly(new CommentJournal.Entry(2L, 1L, "comment no 2"));
+        }
+    }
+
+    @Test
+    void shouldKeepSequenceGrowingAfterReset() throws IOException {
+        Path path = directory.resolve("comments.journal");
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            journal.append(1L, "comment no 1");
+            journal.append(1L, "comment no 2");
+            journal.markDone(List.of(1L, 2L));
+            journal.reset();
+        }
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            assertThat(journal.pending()).isEmpty();
+            assertThat(journal.append(1L, "comment no 3").seq()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    void shouldCompactJournalOnceEnoughCommentsAreDone() throws IOException {
+        Path path = directory.resolve("comments.journal");
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 2)) {
+            journal.append(1L, "comment no 1");
+            journal.append(1L, "comment no 2");
+            journal.append(2L, "comment no 3");
+            journal.markDone(List.of(1L));
+            journal.markDone(List.of(3L));
+
+            assertThat(Files.readAllLines(path)).hasSize(2);
+            journal.append(1L, "comment no 4");
+            journal.force(4L);
+        }
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 2)) {
+            assertThat(journal.pending()).containsExactly(
+                    new CommentJournal.Entry(2L, 1L, "comment no 2"),
+                    new CommentJournal.Entry(4L, 1L, "comment no 4"));
+            assertThat(journal.append(1L, "comment no 5").seq()).isEqualTo(5L);
+        }
+    }
+
+    @Test
+    void shouldForceCommentsAppendedConcurrently() throws Exception {
+        Path path = directory.resolve("comments.journal");
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> appends = IntStream.rangeClosed(1, 50)
+                    .mapToObj(i -> executor.submit(() -> journal.force(journal.append(1L, "comment no " + i).seq())))
+                    .collect(Collectors.toList());
+
+            for (Future<?> append : appends) {
+                append.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            assertThat(journal.pending()).hasSize(50);
+        }
+    }
+
+    @Test
+    void shouldCutOffTornLastLine() throws IOException {
+        Path path = directory.resolve("comments.journal");
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            journal.append(1L, "comment no 1");
+        }
+        Files.writeString(path, "{\"seq\":2,\"postId\":1,\"cont", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            assertThat(journal.pending()).containsExactly(new CommentJournal.Entry(1L, 1L, "comment no 1"));
+            journal.append(1L, "comment no 2");
+        }
+
+        try (CommentJournal journal = new CommentJournal(path, objectMapper, 100)) {
+            assertThat(journal.pending()).containsExactly(
+                    new CommentJournal.Entry(1L, 1L, "comment no 1"),
+                    new CommentJournal.Entry(2L, 1L, "comment no 2"));
+        }
+    }
+
+}
@@ -2,15 +2,23 @@ package com.skwarek.blogger.repository;
 
 import com.skwarek.blogger.EmbeddedDatabase;
 import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.dto.AccountSummary;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 public class AccountRepositoryTests {
@@ -19,6 +27,8 @@ public class AccountRepositoryTests {
     private AccountRepository accountRepository;
     @Autowired
     private PostRepository postRepository;
+    @Autowired
+    private CommentRepository commentRepository;
 
     @Test
     void shouldFindAllAccounts() {
@@ -40,6 +50,54 @@ public class AccountRepositoryTests {
         assertThat(accountsDb).isEmpty();
     }
 
+    @Test
+    void shouldFindFirstPageOfAccounts() {
+        List<Account> accountsDb = accountRepository.findByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(2));
+
+        assertThat(accountsDb).hasSize(2)
+                .containsExactly(
+                        EmbeddedDatabase.createAccountNo(1),
+                        EmbeddedDatabase.createAccountNo(2)
+                );
+    }
+
+    @Test
+    void shouldFindAccountsAfterId() {
+        List<Account> accountsDb = accountRepository.findByIdGreaterThanOrderByIdAsc(2L, Pageable.ofSize(2));
+
+        assertThat(accountsDb).hasSize(1)
+                .containsExactly(
+                        EmbeddedDatabase.createAccountNo(3)
+                );
+    }
+
+    @Test
+    void shouldFindAccountsForExportAfterId() {
+        List<Account> accountsDb = accountRepository.findForExportByIdGreaterThanOrderByIdAsc(1L, Pageable.ofSize(5));
+
+        assertThat(accountsDb).containsExactly(
+                EmbeddedDatabase.createAccountNo(2),
+                EmbeddedDatabase.createAccountNo(3)
+        );
+    }
+
+    @Test
+    void shouldStreamAllEmails() {
+        try (Stream<String> emails = accountRepository.streamAllEmails()) {
+            assertThat(emails).containsExactlyInAnyOrder("a1@gmail.com", "b2@gmail.com", "c3@gmail.com");
+        }
+    }
+
+    @Test
+    void shouldFindAccountSummariesAfterId() {
+        List<AccountSummary> accountsDb = accountRepository.findSummariesByIdGreaterThanOrderByIdAsc(1L, Pageable.ofSize(5));
+
+        assertThat(accountsDb).containsExactly(
+                new AccountSummary(2L, "b2@gmail.com"),
+                new AccountSummary(3L, "c3@gmail.com")
+        );
+    }
+
     @Test
     void shouldFindAccountById() {
         Long accountId = 1L;
@@ -49,6 +107,19 @@ public class AccountRepositoryTests {
                 .hasValue(EmbeddedDatabase.createAccountNo(1));
     }
 
+    @Test
+    void shouldFindAccountWithPostsAndCommentsById() {
+        Long accountId = 1L;
+        Optional<Account> accountDb = accountRepository.findWithPostsById(accountId);
+        postRepository.findWithCommentsByAccountId(accountId);
+
+        assertThat(accountDb).isNotEmpty()
+                .hasValue(EmbeddedDatabase.createAccountNo(1));
+        assertThat(Hibernate.isInitialized(accountDb.get().getPosts())).isTrue();
+        assertThat(accountDb.get().getPosts()).allMatch(post -> Hibernate.isInitialized(post.getComments()))
+                .hasSize(3);
+    }
+
     @Test
     void shouldNotFindAccountByIdWhenAccountDoesNotExist() {
         Long accountId = 0L;
@@ -57,6 +128,16 @@ public class AccountRepositoryTests {
         assertThat(accountDb).isEmpty();
     }
 
+    @Test
+    void shouldFindAccountVersionById() {
+        assertThat(accountRepository.findVersionById(1L)).contains(0L);
+    }
+
+    @Test
+    void shouldNotFindAccountVersionByIdWhenAccountDoesNotExist() {
+        assertThat(accountRepository.findVersionById(0L)).isEmpty();
+    }
+
     @Test
     void shouldCreateAccount() {
         Account newAccount = Account.builder()
@@ -90,6 +171,91 @@ public class AccountRepositoryTests {
         assertThat(savedAccount.getPosts()).containsExactlyElementsOf(oldAccount.getPosts());
     }
 
+    @Test
+    void shouldUpdateAccountCredentials() {
+        int updatedAccounts = accountRepository.updateCredentials(1L, "updateda1@gmail.com", "updated111");
+        Account accountDb = accountRepository.findById(1L).orElseThrow();
+
+        assertThat(updatedAccounts).isEqualTo(1);
+        assertThat(accountDb).hasFieldOrPropertyWithValue("email", "updateda1@gmail.com");
+        assertThat(accountDb).hasFieldOrPropertyWithValue("password", "updated111");
+        assertThat(accountDb).hasFieldOrPropertyWithValue("version", 1L);
+    }
+
+    @Test
+    void shouldUpdateAccountCredentialsWithSameEmail() {
+        int updatedAccounts = accountRepository.updateCredentials(1L, "a1@gmail.com", "updated111");
+
+        assertThat(updatedAccounts).isEqualTo(1);
+    }
+
+    @Test
+    void shouldUpdateNoAccountCredentialsWhenAccountDoesNotExist() {
+        int updatedAccounts = accountRepository.updateCredentials(0L, "updateda1@gmail.com", "updated111");
+
+        assertThat(updatedAccounts).isZero();
+    }
+
+    @Test
+    void shouldNotUpdateAccountCredentialsWhenEmailIsTaken() {
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> accountRepository.updateCredentials(1L, "b2@gmail.com", "updated111"));
+
+        assertThat(exception.getCause()).isInstanceOf(ConstraintViolationException.class);
+        assertThat(((ConstraintViolationException) exception.getCause()).getConstraintName())
+                .containsIgnoringCase(Account.EMAIL_UNIQUE_KEY);
+    }
+
+    @Test
+    void shouldAddToAccountFollowerCount() {
+        int updatedAccounts = accountRepository.addToFollowerCount(1L, 1, 10);
+        Account accountDb = accountRepository.findById(1L).orElseThrow();
+
+        assertThat(updatedAccounts).isEqualTo(1);
+        assertThat(accountDb).hasFieldOrPropertyWithValue("followerCount", 2L);
+        assertThat(accountDb).hasFieldOrPropertyWithValue("fanOutOnRead", false);
+        assertThat(accountDb).hasFieldOrPropertyWithValue("version", 1L);
+    }
+
+    @Test
+    void shouldKeepAccountFanOutOnReadOnceOverMaxFollowers() {
+        accountRepository.addToFollowerCount(1L, 1, 1);
+        accountRepository.addToFollowerCount(1L, -1, 1);
+        Account accountDb = accountRepository.findById(1L).orElseThrow();
+
+        assertThat(accountDb).hasFieldOrPropertyWithValue("followerCount", 1L);
+        assertThat(accountDb).hasFieldOrPropertyWithValue("fanOutOnRead", true);
+    }
+
+    @Test
+    void shouldDecrementAccountFollowerCounts() {
+        int updatedAccounts = accountRepository.decrementFollowerCounts(List.of(1L, 2L));
+
+        assertThat(updatedAccounts).isEqualTo(2);
+        assertThat(accountRepository.findById(1L).orElseThrow()).hasFieldOrPropertyWithValue("followerCount", 0L);
+        assertThat(accountRepository.findById(2L).orElseThrow()).hasFieldOrPropertyWithValue("followerCount", 0L);
+    }
+
+    @Test
+    void shouldDecrementNoAccountFollowerCountsWhenNoAccountsGiven() {
+        int updatedAccounts = accountRepository.decrementFollowerCounts(List.of());
+
+        assertThat(updatedAccounts).isZero();
+    }
+
+    @Test
+    void shouldIncrementAccountVersion() {
+        int updatedAccounts = accountRepository.incrementVersion(1L);
+
+        assertThat(updatedAccounts).isEqualTo(1);
+        assertThat(accountRepository.findVersionById(1L)).contains(1L);
+    }
+
+    @Test
+    void shouldIncrementNoAccountVersionWhenAccountDoesNotExist() {
+        assertThat(accountRepository.incrementVersion(0L)).isZero();
+    }
+
     @Test
     void shouldDeleteAccountByIdWithPosts() {
         Long accountId = 1L;
@@ -126,6 +292,34 @@ public class AccountRepositoryTests {
                 );
     }
 
+    @Test
+    void shouldDeleteAccountWithPostsAndCommentsInBulk() {
+        Long accountId = 1L;
+        int deletedComments = commentRepository.deleteInBulkByAccountId(accountId);
+        int deletedPosts = postRepository.deleteInBulkByAccountId(accountId);
+        int deletedAccounts = accountRepository.deleteInBulkById(accountId);
+
+        assertThat(deletedComments).isEqualTo(5);
+        assertThat(deletedPosts).isEqualTo(3);
+        assertThat(deletedAccounts).isEqualTo(1);
+        assertThat(commentRepository.findAll()).isEmpty();
+        assertThat(postRepository.findAll()).hasSize(1);
+        assertThat(accountRepository.findAll()).hasSize(2)
+                .containsOnly(
+                        EmbeddedDatabase.createAccountNo(2),
+                        EmbeddedDatabase.createAccountNo(3)
+                );
+    }
+
+    @Test
+    void shouldDeleteNoAccountInBulkWhenAccountDoesNotExist() {
+        Long accountId = 0L;
+        int deletedAccounts = accountRepository.deleteInBulkById(accountId);
+
+        assertThat(deletedAccounts).isZero();
+        assertThat(accountRepository.findAll()).hasSize(3);
+    }
+
     @Test
     void shouldReturnTrueWhenAccountByEmailExists() {
         String email = "a1@gmail.com";
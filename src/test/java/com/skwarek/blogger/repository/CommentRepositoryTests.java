@@ -3,11 +3,18 @@ package com.skwarek.blogger.repository;
 import com.skwarek.blogger.EmbeddedDatabase;
 import com.skwarek.blogger.domain.Comment;
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.CommentParent;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.IndexedComment;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -40,6 +47,86 @@ public class CommentRepositoryTests {
         assertThat(commentsDb).isEmpty();
     }
 
+    @Test
+    void shouldFindOldestCommentsByPostIdAfterId() {
+        Long postId = 1L;
+        List<Comment> commentsDb = commentRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(postId, 1L, Pageable.ofSize(5));
+
+        assertThat(commentsDb).hasSize(2)
+                .containsExactly(
+                        EmbeddedDatabase.createCommentNo(2),
+                        EmbeddedDatabase.createCommentNo(3)
+                );
+    }
+
+    @Test
+    void shouldFindNewestCommentsByPostIdBeforeId() {
+        Long postId = 1L;
+        List<Comment> commentsDb = commentRepository.findByPostIdAndIdLessThanOrderByIdDesc(postId, Long.MAX_VALUE, Pageable.ofSize(2));
+
+        assertThat(commentsDb).hasSize(2)
+                .containsExactly(
+                        EmbeddedDatabase.createCommentNo(3),
+                        EmbeddedDatabase.createCommentNo(2)
+                );
+    }
+
+    @Test
+    void shouldFindCommentSummariesByPostIdAfterId() {
+        Long postId = 2L;
+        List<CommentSummary> commentsDb = commentRepository.findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(postId, 0L, Pageable.ofSize(5));
+
+        assertThat(commentsDb).containsExactly(
+                new CommentSummary(4L, "comment no 1 to post2"),
+                new CommentSummary(5L, "comment no 2 to post2")
+        );
+    }
+
+    @Test
+    void shouldCountCommentsByPostId() {
+        Long postId = 1L;
+        long count = commentRepository.countByPostId(postId);
+
+        assertThat(count).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldFindCommentsForExportByAccountIds() {
+        List<Comment> commentsDb = commentRepository.findForExportByAccountIdIn(List.of(1L, 2L));
+
+        assertThat(commentsDb).containsExactly(
+                EmbeddedDatabase.createCommentNo(1),
+                EmbeddedDatabase.createCommentNo(2),
+                EmbeddedDatabase.createCommentNo(3),
+                EmbeddedDatabase.createCommentNo(4),
+                EmbeddedDatabase.createCommentNo(5)
+        );
+        assertThat(commentRepository.findForExportByAccountIdIn(List.of(2L))).isEmpty();
+    }
+
+    @Test
+    void shouldStreamAllCommentsToIndexOrderedById() {
+        try (Stream<IndexedComment> commentsDb = commentRepository.streamIndexedByOrderByIdAsc()) {
+            assertThat(commentsDb).containsExactly(
+                    new IndexedComment(1L, 1L, "comment no 1 to post1"),
+                    new IndexedComment(2L, 1L, "comment no 2 to post1"),
+                    new IndexedComment(3L, 1L, "comment no 3 to post1"),
+                    new IndexedComment(4L, 2L, "comment no 1 to post2"),
+                    new IndexedComment(5L, 2L, "comment no 2 to post2")
+            );
+        }
+    }
+
+    @Test
+    void shouldFindCommentSummariesByIds() {
+        List<CommentSummary> commentsDb = commentRepository.findSummariesByIdIn(List.of(4L, 1L, 0L));
+
+        assertThat(commentsDb).containsExactlyInAnyOrder(
+                new CommentSummary(1L, "comment no 1 to post1"),
+                new CommentSummary(4L, "comment no 1 to post2")
+        );
+    }
+
     @Test
     void shouldFindCommentById() {
         Long commentId = 1L;
@@ -57,6 +144,16 @@ public class CommentRepositoryTests {
         assertThat(commentDb).isEmpty();
     }
 
+    @Test
+    void shouldFindCommentVersionById() {
+        assertThat(commentRepository.findVersionById(1L)).contains(0L);
+    }
+
+    @Test
+    void shouldNotFindCommentVersionByIdWhenCommentDoesNotExist() {
+        assertThat(commentRepository.findVersionById(0L)).isEmpty();
+    }
+
     @Test
     void shouldCreateComment() {
         Post postDb = EmbeddedDatabase.createPostNo(1);
@@ -86,6 +183,58 @@ public class CommentRepositoryTests {
         assertThat(savedComment).hasFieldOrPropertyWithValue("post", oldComment.getPost());
     }
 
+    @Test
+    void shouldFindCommentWithPostById() {
+        Comment commentDb = commentRepository.findWithPostById(4L).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(commentDb.getPost())).isTrue();
+        assertThat(commentDb.getPost().getAccount().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldFindCommentParentById() {
+        Optional<CommentParent> parent = commentRepository.findParentById(4L);
+
+        assertThat(parent).contains(new CommentParent(2L, 1L));
+    }
+
+    @Test
+    void shouldNotFindCommentParentByIdWhenCommentDoesNotExist() {
+        assertThat(commentRepository.findParentById(0L)).isEmpty();
+    }
+
+    @Test
+    void shouldUpdateCommentContent() {
+        int updatedComments = commentRepository.updateContent(1L, "updated comment");
+        Comment commentDb = commentRepository.findById(1L).orElseThrow();
+
+        assertThat(updatedComments).isEqualTo(1);
+        assertThat(commentDb).hasFieldOrPropertyWithValue("content", "updated comment");
+        assertThat(commentDb).hasFieldOrPropertyWithValue("version", 1L);
+    }
+
+    @Test
+    void shouldUpdateNoCommentContentWhenCommentDoesNotExist() {
+        assertThat(commentRepository.updateContent(0L, "updated comment")).isZero();
+    }
+
+    @Test
+    void shouldDeleteCommentFromPost() {
+        int deletedComments = commentRepository.deleteFromPost(1L, 1L);
+
+        assertThat(deletedComments).isEqualTo(1);
+        assertThat(commentRepository.findById(1L)).isEmpty();
+        assertThat(commentRepository.findAll()).hasSize(4);
+    }
+
+    @Test
+    void shouldDeleteNoCommentFromOtherPost() {
+        int deletedComments = commentRepository.deleteFromPost(2L, 1L);
+
+        assertThat(deletedComments).isZero();
+        assertThat(commentRepository.findAll()).hasSize(5);
+    }
+
     @Test
     void shouldDeleteCommentById() {
         Long commentId = 1L;
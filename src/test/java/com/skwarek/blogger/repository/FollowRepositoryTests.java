@@ -0,0 +1,81 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.domain.Follow;
+import com.skwarek.blogger.domain.FollowId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class FollowRepositoryTests {
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Test
+    void shouldFindFolloweeIdsByAccountId() {
+        List<Long> followeeIds = followRepository.findFolloweeIdsByAccountId(3L);
+
+        assertThat(followeeIds).containsOnly(1L, 2L);
+    }
+
+    @Test
+    void shouldFindNoFolloweeIdsByAccountId() {
+        List<Long> followeeIds = followRepository.findFolloweeIdsByAccountId(1L);
+
+        assertThat(followeeIds).isEmpty();
+    }
+
+    @Test
+    void shouldFindFanOutOnReadFolloweeIdsByAccountId() {
+        List<Long> followeeIds = followRepository.findFanOutOnReadFolloweeIdsByAccountId(3L);
+
+        assertThat(followeeIds).containsExactly(2L);
+    }
+
+    @Test
+    void shouldCreateFollow() {
+        FollowId followId = new FollowId(1L, 2L);
+        Follow savedFollow = followRepository.saveAndFlush(Follow.builder()
+                .id(followId)
+                .build());
+
+        assertThat(savedFollow.getCreatedAt()).isNotNull();
+        assertThat(followRepository.existsById(followId)).isTrue();
+        assertThat(followRepository.findFolloweeIdsByAccountId(1L)).containsExactly(2L);
+    }
+
+    @Test
+    void shouldDeleteFollowInBulkById() {
+        int deletedFollows = followRepository.deleteInBulkById(3L, 1L);
+
+        assertThat(deletedFollows).isEqualTo(1);
+        assertThat(followRepository.existsById(new FollowId(3L, 1L))).isFalse();
+        assertThat(followRepository.existsById(new FollowId(3L, 2L))).isTrue();
+    }
+
+    @Test
+    void shouldDeleteNoFollowInBulkWhenFollowDoesNotExist() {
+        int deletedFollows = followRepository.deleteInBulkById(1L, 3L);
+
+        assertThat(deletedFollows).isZero();
+    }
+
+    @Test
+    void shouldDeleteFollowsInBulkOfFollowerAndFollowee() {
+        followRepository.saveAndFlush(Follow.builder()
+                .id(new FollowId(1L, 2L))
+                .build());
+
+        int deletedFollows = followRepository.deleteInBulkByAccountId(2L);
+
+        assertThat(deletedFollows).isEqualTo(2);
+        assertThat(followRepository.findAll()).extracting(Follow::getId)
+                .containsOnly(new FollowId(3L, 1L));
+    }
+
+}
@@ -3,12 +3,20 @@ package com.skwarek.blogger.repository;
 import com.skwarek.blogger.EmbeddedDatabase;
 import com.skwarek.blogger.domain.Account;
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.FeedItem;
+import com.skwarek.blogger.dto.PostSummary;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -43,6 +51,232 @@ public class PostRepositoryTests {
         assertThat(postsDb).isEmpty();
     }
 
+    @Test
+    void shouldFindNewestPostsByAccountId() {
+        Long accountId = 1L;
+        List<Post> postsDb = postRepository.findByAccountIdAndIdLessThanOrderByIdDesc(accountId, Long.MAX_VALUE, Pageable.ofSize(2));
+
+        assertThat(postsDb).hasSize(2)
+                .containsExactly(
+                        EmbeddedDatabase.createPostNo(3),
+                        EmbeddedDatabase.createPostNo(2)
+                );
+    }
+
+    @Test
+    void shouldFindPostsByAccountIdBeforeId() {
+        Long accountId = 1L;
+        List<Post> postsDb = postRepository.findByAccountIdAndIdLessThanOrderByIdDesc(accountId, 2L, Pageable.ofSize(2));
+
+        assertThat(postsDb).hasSize(1)
+                .containsExactly(
+                        EmbeddedDatabase.createPostNo(1)
+                );
+    }
+
+    @Test
+    void shouldFindPostSummariesByAccountIdBeforeId() {
+        Long accountId = 1L;
+        List<PostSummary> postsDb = postRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(accountId, 3L, Pageable.ofSize(5));
+
+        assertThat(postsDb).containsExactly(
+                new PostSummary(2L, "post no 2 to account1", 2L),
+                new PostSummary(1L, "post no 1 to account1", 3L)
+        );
+    }
+
+    @Test
+    void shouldFindPostsForExportByAccountIds() {
+        List<Post> postsDb = postRepository.findForExportByAccountIdInOrderByAccountIdAscIdAsc(List.of(2L, 1L));
+
+        assertThat(postsDb).containsExactly(
+                EmbeddedDatabase.createPostNo(1),
+                EmbeddedDatabase.createPostNo(2),
+                EmbeddedDatabase.createPostNo(3),
+                EmbeddedDatabase.createPostNo(4)
+        );
+        assertThat(postRepository.findForExportByAccountIdInOrderByAccountIdAscIdAsc(List.of(3L))).isEmpty();
+    }
+
+    @Test
+    void shouldStreamAllPostSummariesOrderedById() {
+        try (Stream<PostSummary> postsDb = postRepository.streamSummariesByOrderByIdAsc()) {
+            assertThat(postsDb).extracting(PostSummary::id).containsExactly(1L, 2L, 3L, 4L);
+        }
+    }
+
+    @Test
+    void shouldFindPostSummariesByIds() {
+        List<PostSummary> postsDb = postRepository.findSummariesByIdIn(List.of(3L, 1L, 0L));
+
+        assertThat(postsDb).containsExactlyInAnyOrder(
+                new PostSummary(1L, "post no 1 to account1", 3L),
+                new PostSummary(3L, "post no 3 to account1", 0L)
+        );
+    }
+
+    @Test
+    void shouldFindPostIdsByAccountId() {
+        assertThat(postRepository.findIdsByAccountId(1L)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(postRepository.findIdsByAccountId(0L)).isEmpty();
+    }
+
+    @Test
+    void shouldFindNewestFeedItems() {
+        List<FeedItem> feedDb = postRepository.findFeedItems(Pageable.ofSize(3));
+
+        assertThat(feedDb).containsExactly(
+                new FeedItem(4L, "post no 1 to account2", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(2L, "b2@gmail.com")),
+                new FeedItem(3L, "post no 3 to account1", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(1L, "a1@gmail.com")),
+                new FeedItem(2L, "post no 2 to account1", 2L, EmbeddedDatabase.at("11:00"), new AccountSummary(1L, "a1@gmail.com"))
+        );
+    }
+
+    @Test
+    void shouldFindFeedItemsBeforeCreatedAtAndId() {
+        Instant createdAt = EmbeddedDatabase.at("12:00");
+
+        assertThat(postRepository.findFeedItemsBefore(createdAt, 4L, Pageable.ofSize(5)))
+                .extracting(FeedItem::id).containsExactly(3L, 2L, 1L);
+        assertThat(postRepository.findFeedItemsBefore(createdAt, 3L, Pageable.ofSize(5)))
+                .extracting(FeedItem::id).containsExactly(2L, 1L);
+        assertThat(postRepository.findFeedItemsBefore(EmbeddedDatabase.at("10:00"), 1L, Pageable.ofSize(5))).isEmpty();
+    }
+
+    @Test
+    void shouldFindNewestFeedItemsByAccountIds() {
+        List<FeedItem> postsDb = postRepository.findFeedItemsByAccountIdIn(List.of(1L, 2L), Pageable.ofSize(3));
+
+        assertThat(postsDb).extracting(FeedItem::id).containsExactly(4L, 3L, 2L);
+        assertThat(postRepository.findFeedItemsByAccountIdIn(List.of(2L), Pageable.ofSize(3)))
+                .extracting(FeedItem::id).containsExactly(4L);
+    }
+
+    @Test
+    void shouldFindFeedItemsByAccountIdsBeforeCreatedAtAndId() {
+        List<FeedItem> postsDb = postRepository.findFeedItemsByAccountIdInBefore(List.of(1L, 2L), EmbeddedDatabase.at("12:00"), 4L, Pageable.ofSize(5));
+
+        assertThat(postsDb).extracting(FeedItem::id).containsExactly(3L, 2L, 1L);
+        assertThat(postRepository.findFeedItemsByAccountIdInBefore(List.of(2L), EmbeddedDatabase.at("12:00"), 4L, Pageable.ofSize(5))).isEmpty();
+    }
+
+    @Test
+    void shouldFindAccountIdByPostId() {
+        Optional<Long> accountId = postRepository.findAccountIdById(4L);
+
+        assertThat(accountId).contains(2L);
+    }
+
+    @Test
+    void shouldNotFindAccountIdByPostIdWhenPostDoesNotExist() {
+        Optional<Long> accountId = postRepository.findAccountIdById(0L);
+
+        assertThat(accountId).isEmpty();
+    }
+
+    @Test
+    void shouldAddToCommentCount() {
+        int updatedPosts = postRepository.addToCommentCount(2L, 3);
+        Post postDb = postRepository.findById(2L).orElseThrow();
+
+        assertThat(updatedPosts).isEqualTo(1);
+        assertThat(postDb.getCommentCount()).isEqualTo(5L);
+        assertThat(postDb.getVersion()).isEqualTo(1L);
+        assertThat(accountRepository.findVersionById(1L)).contains(1L);
+    }
+
+    @Test
+    void shouldSubtractFromCommentCount() {
+        postRepository.addToCommentCount(1L, -1);
+        Post postDb = postRepository.findById(1L).orElseThrow();
+
+        assertThat(postDb.getCommentCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void shouldAddToNoCommentCountWhenPostDoesNotExist() {
+        int updatedPosts = postRepository.addToCommentCount(0L, 1);
+
+        assertThat(updatedPosts).isZero();
+    }
+
+    @Test
+    void shouldFindPostsWithDriftedCommentCount() {
+        postRepository.addToCommentCount(2L, 1);
+        postRepository.addToCommentCount(4L, 7);
+
+        assertThat(postRepository.findIdsWithDriftedCommentCount(0L, 10L)).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(postRepository.findIdsWithDriftedCommentCount(0L, 3L)).containsExactly(2L);
+        assertThat(postRepository.findIdsWithDriftedCommentCount(3L, 10L)).containsExactly(4L);
+    }
+
+    @Test
+    void shouldRecountComments() {
+        postRepository.addToCommentCount(1L, 10);
+
+        int updatedPosts = postRepository.recountComments(1L);
+        Post postDb = postRepository.findById(1L).orElseThrow();
+
+        assertThat(updatedPosts).isEqualTo(1);
+        assertThat(postDb.getCommentCount()).isEqualTo(3L);
+        assertThat(postRepository.findIdsWithDriftedCommentCount(0L, 10L)).isEmpty();
+        assertThat(accountRepository.findVersionById(1L)).contains(2L);
+    }
+
+    @Test
+    void shouldUpdatePostContent() {
+        int updatedPosts = postRepository.updateContent(1L, "updated post");
+        Post postDb = postRepository.findById(1L).orElseThrow();
+
+        assertThat(updatedPosts).isEqualTo(1);
+        assertThat(postDb).hasFieldOrPropertyWithValue("content", "updated post");
+        assertThat(postDb).hasFieldOrPropertyWithValue("version", 1L);
+        assertThat(postDb).hasFieldOrPropertyWithValue("commentCount", 3L);
+        assertThat(postDb).hasFieldOrPropertyWithValue("createdAt", EmbeddedDatabase.at("10:00"));
+        assertThat(postDb.getUpdatedAt()).isAfter(EmbeddedDatabase.at("10:00"));
+        assertThat(accountRepository.findVersionById(1L)).contains(1L);
+    }
+
+    @Test
+    void shouldUpdateNoPostContentWhenPostDoesNotExist() {
+        assertThat(postRepository.updateContent(0L, "updated post")).isZero();
+        assertThat(accountRepository.findVersionById(1L)).contains(0L);
+    }
+
+    @Test
+    void shouldIncrementPostVersion() {
+        int updatedPosts = postRepository.incrementVersion(1L);
+
+        assertThat(updatedPosts).isEqualTo(1);
+        assertThat(postRepository.findVersionById(1L)).contains(1L);
+        assertThat(accountRepository.findVersionById(1L)).contains(1L);
+    }
+
+    @Test
+    void shouldIncrementPostVersionOnUpdate() {
+        Post postDb = postRepository.findById(1L).orElseThrow();
+        postDb.setContent("updated post");
+
+        postRepository.saveAndFlush(postDb);
+
+        assertThat(postRepository.findVersionById(1L)).contains(1L);
+    }
+
+    @Test
+    void shouldFindPostVersionById() {
+        assertThat(postRepository.findVersionById(1L)).contains(0L);
+    }
+
+    @Test
+    void shouldNotFindPostVersionByIdWhenPostDoesNotExist() {
+        assertThat(postRepository.findVersionById(0L)).isEmpty();
+    }
+
+    @Test
+    void shouldFindMaxPostId() {
+        assertThat(postRepository.findMaxId()).contains(4L);
+    }
+
     @Test
     void shouldFindPostById() {
         Long postId = 1L;
@@ -52,6 +286,18 @@ public class PostRepositoryTests {
                 .hasValue(EmbeddedDatabase.createPostNo(1));
     }
 
+    @Test
+    void shouldFindPostWithCommentsById() {
+        Long postId = 1L;
+        Optional<Post> postDb = postRepository.findWithCommentsById(postId);
+
+        assertThat(postDb).isNotEmpty()
+                .hasValue(EmbeddedDatabase.createPostNo(1));
+        assertThat(Hibernate.isInitialized(postDb.get().getComments())).isTrue();
+        assertThat(Hibernate.isInitialized(postDb.get().getAccount())).isFalse();
+        assertThat(postDb.get().getComments()).hasSize(3);
+    }
+
     @Test
     void shouldNotFindPostByIdWhenPostDoesNotExist() {
         Long postId = 0L;
@@ -75,6 +321,8 @@ public class PostRepositoryTests {
         assertThat(savedPost).hasFieldOrPropertyWithValue("id", 5L);
         assertThat(savedPost).hasFieldOrPropertyWithValue("content", "new post");
         assertThat(savedPost).hasFieldOrPropertyWithValue("account", accountDb);
+        assertThat(savedPost.getCreatedAt()).isNotNull();
+        assertThat(savedPost.getUpdatedAt()).isNotNull();
         assertThat(savedPost).hasFieldOrProperty("comments");
         assertThat(savedPost.getComments()).containsExactlyElementsOf(Collections.emptyList());
     }
@@ -135,4 +383,30 @@ public class PostRepositoryTests {
                 );
     }
 
+    @Test
+    void shouldDeletePostWithCommentsInBulk() {
+        Long postId = 1L;
+        int deletedComments = commentRepository.deleteInBulkByPostId(postId);
+        int deletedPosts = postRepository.deleteInBulkById(postId);
+
+        assertThat(deletedComments).isEqualTo(3);
+        assertThat(deletedPosts).isEqualTo(1);
+        assertThat(commentRepository.findAll()).hasSize(2);
+        assertThat(postRepository.findAll()).hasSize(3)
+                .containsOnly(
+                        EmbeddedDatabase.createPostNo(2),
+                        EmbeddedDatabase.createPostNo(3),
+                        EmbeddedDatabase.createPostNo(4)
+                );
+    }
+
+    @Test
+    void shouldDeleteNoPostInBulkWhenPostDoesNotExist() {
+        Long postId = 0L;
+        int deletedPosts = postRepository.deleteInBulkById(postId);
+
+        assertThat(deletedPosts).isZero();
+        assertThat(postRepository.findAll()).hasSize(4);
+    }
+
 }
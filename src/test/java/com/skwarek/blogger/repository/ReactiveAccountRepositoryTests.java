@@ -0,0 +1,51 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.dto.AccountSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+@Import(ReactiveAccountRepository.class)
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-accounts?options=DB_CLOSE_DELAY=-1;MODE=MySQL")
+public class ReactiveAccountRepositoryTests {
+
+    @Autowired
+    private ReactiveAccountRepository reactiveAccountRepository;
+
+    @Test
+    void shouldFindIdById() {
+        StepVerifier.create(reactiveAccountRepository.findIdById(2L))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFindNoIdById() {
+        StepVerifier.create(reactiveAccountRepository.findIdById(99L))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamAccountSummariesAfterId() {
+        StepVerifier.create(reactiveAccountRepository.findSummariesByIdGreaterThanOrderByIdAsc(1L))
+                .expectNext(new AccountSummary(2L, "b2@gmail.com"))
+                .expectNext(new AccountSummary(3L, "c3@gmail.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamAccountSummariesOnDemand() {
+        StepVerifier.create(reactiveAccountRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L), 1)
+                .expectNext(new AccountSummary(1L, "a1@gmail.com"))
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(2)
+                .expectNext(new AccountSummary(2L, "b2@gmail.com"))
+                .expectNext(new AccountSummary(3L, "c3@gmail.com"))
+                .verifyComplete();
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.dto.CommentSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import reactor.test.StepVerifier;
+
+@Import(ReactiveCommentRepository.class)
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-comments?options=DB_CLOSE_DELAY=-1;MODE=MySQL")
+public class ReactiveCommentRepositoryTests {
+
+    @Autowired
+    private ReactiveCommentRepository reactiveCommentRepository;
+
+    @Test
+    void shouldStreamCommentSummariesByPostId() {
+        StepVerifier.create(reactiveCommentRepository.findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(2L, 0L))
+                .expectNext(new CommentSummary(4L, "comment no 1 to post2"))
+                .expectNext(new CommentSummary(5L, "comment no 2 to post2"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamCommentSummariesByPostIdAfterId() {
+        StepVerifier.create(reactiveCommentRepository.findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(1L, 2L))
+                .expectNext(new CommentSummary(3L, "comment no 3 to post1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamNoCommentSummariesByPostId() {
+        StepVerifier.create(reactiveCommentRepository.findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(3L, 0L))
+                .verifyComplete();
+    }
+
+}
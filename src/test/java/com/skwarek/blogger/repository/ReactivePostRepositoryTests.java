@@ -0,0 +1,46 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.dto.PostSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import reactor.test.StepVerifier;
+
+@Import(ReactivePostRepository.class)
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-posts?options=DB_CLOSE_DELAY=-1;MODE=MySQL")
+public class ReactivePostRepositoryTests {
+
+    @Autowired
+    private ReactivePostRepository reactivePostRepository;
+
+    @Test
+    void shouldFindIdById() {
+        StepVerifier.create(reactivePostRepository.findIdById(1L))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamNewestPostSummariesByAccountId() {
+        StepVerifier.create(reactivePostRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(1L, Long.MAX_VALUE))
+                .expectNext(new PostSummary(3L, "post no 3 to account1", 0L))
+                .expectNext(new PostSummary(2L, "post no 2 to account1", 2L))
+                .expectNext(new PostSummary(1L, "post no 1 to account1", 3L))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamPostSummariesByAccountIdBeforeId() {
+        StepVerifier.create(reactivePostRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(1L, 2L))
+                .expectNext(new PostSummary(1L, "post no 1 to account1", 3L))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamNoPostSummariesByAccountId() {
+        StepVerifier.create(reactivePostRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(3L, Long.MAX_VALUE))
+                .verifyComplete();
+    }
+
+}
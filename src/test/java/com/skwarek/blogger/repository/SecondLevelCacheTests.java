@@ -0,0 +1,169 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.CacheRegionStats;
+import com.skwarek.blogger.service.CacheService;
+import com.skwarek.blogger.service.impl.CacheServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without the usual test transaction: READ_WRITE regions only serve entries to
+ * transactions that started after the entry was cached, so every step commits on its own.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(CacheServiceImpl.class)
+public class SecondLevelCacheTests {
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CacheService cacheService;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void shouldReadAccountFromSecondLevelCache() {
+        accountRepository.findById(1L);
+        String email = accountRepository.findById(1L).orElseThrow().getEmail();
+
+        assertThat(email).isEqualTo("a1@gmail.com");
+        assertThat(statistics.getDomainDataRegionStatistics("account").getMissCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("account").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReadPostCommentsFromSecondLevelCache() {
+        countCommentsOfPost(1L);
+        int comments = countCommentsOfPost(1L);
+
+        assertThat(comments).isEqualTo(3);
+        assertThat(statistics.getDomainDataRegionStatistics("post-comments").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("comment").getHitCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldEvictPostOnBulkDelete() {
+        Long postId = createPost2Account(3L);
+
+        postRepository.findById(postId);
+        assertThat(entityManagerFactory.getCache().contains(Post.class, postId)).isTrue();
+
+        transactionTemplate.executeWithoutResult(status -> postRepository.deleteInBulkById(postId));
+
+        assertThat(entityManagerFactory.getCache().contains(Post.class, postId)).isFalse();
+        assertThat(postRepository.findById(postId)).isEmpty();
+    }
+
+    @Test
+    void shouldEvictPostCommentsWhenCommentIsAddedWithoutCollection() {
+        Long postId = 2L;
+        countCommentsOfPost(postId);
+        assertThat(entityManagerFactory.getCache().contains(Post.class, postId)).isTrue();
+
+        Long commentId = transactionTemplate.execute(status -> commentRepository.save(Comment.builder()
+                .content("new comment")
+                .post(postRepository.getReferenceById(postId))
+                .build()).getId());
+
+        try {
+            assertThat(countCommentsOfPost(postId)).isEqualTo(3);
+        } finally {
+            commentRepository.deleteById(commentId);
+        }
+    }
+
+    @Test
+    void shouldEvictOnlyUpdatedPostWhenCommentCountChanges() {
+        postRepository.findById(3L);
+        postRepository.findById(4L);
+
+        transactionTemplate.executeWithoutResult(status -> postRepository.addToCommentCount(3L, 1));
+
+        try {
+            assertThat(entityManagerFactory.getCache().contains(Post.class, 3L)).isFalse();
+            assertThat(entityManagerFactory.getCache().contains(Post.class, 4L)).isTrue();
+            assertThat(postRepository.findById(3L).orElseThrow().getCommentCount()).isEqualTo(1L);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> postRepository.addToCommentCount(3L, -1));
+        }
+    }
+
+    @Test
+    void shouldEvictOnlyDeletedCommentAndItsPostComments() {
+        Long commentId = transactionTemplate.execute(status -> commentRepository.save(Comment.builder()
+                .content("comment to delete")
+                .post(postRepository.getReferenceById(2L))
+                .build()).getId());
+        countCommentsOfPost(1L);
+        countCommentsOfPost(2L);
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        String postComments = Post.class.getName() + ".comments";
+        assertThat(cache.containsCollection(postComments, 2L)).isTrue();
+
+        transactionTemplate.executeWithoutResult(status -> commentRepository.deleteFromPost(2L, commentId));
+
+        assertThat(cache.containsEntity(Comment.class, commentId)).isFalse();
+        assertThat(cache.containsCollection(postComments, 2L)).isFalse();
+        assertThat(cache.containsCollection(postComments, 1L)).isTrue();
+        assertThat(cache.containsEntity(Comment.class, 4L)).isTrue();
+        assertThat(countCommentsOfPost(2L)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReportRegionStats() {
+        accountRepository.findById(2L);
+        accountRepository.findById(2L);
+
+        assertThat(cacheService.findRegionStats())
+                .extracting(CacheRegionStats::region)
+                .containsExactly("account", "account-posts", "comment", "post", "post-comments");
+        assertThat(cacheService.findRegionStats())
+                .filteredOn(stats -> stats.region().equals("account"))
+                .containsExactly(new CacheRegionStats("account", 1, 1, 1, 0.5));
+    }
+
+    private Long createPost2Account(Long accountId) {
+        return transactionTemplate.execute(status -> postRepository.save(Post.builder()
+                .content("cached post")
+                .account(accountRepository.getReferenceById(accountId))
+                .build()).getId());
+    }
+
+    private int countCommentsOfPost(Long postId) {
+        return transactionTemplate.execute(status -> postRepository.findById(postId).orElseThrow().getComments().size());
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.skwarek.blogger.repository;
+
+import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.domain.Follow;
+import com.skwarek.blogger.domain.FollowId;
+import com.skwarek.blogger.domain.TimelineEntry;
+import com.skwarek.blogger.domain.TimelineEntryId;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.FeedItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class TimelineRepositoryTests {
+
+    @Autowired
+    private TimelineRepository timelineRepository;
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Test
+    void shouldFindNewestFeedItemsByAccountId() {
+        List<FeedItem> postsDb = timelineRepository.findFeedItemsByAccountId(3L, Pageable.ofSize(2));
+
+        assertThat(postsDb).extracting(FeedItem::id).containsExactly(3L, 2L);
+        assertThat(postsDb.get(0)).isEqualTo(new FeedItem(3L, "post no 3 to account1", 0L, EmbeddedDatabase.at("12:00"),
+                new AccountSummary(1L, "a1@gmail.com")));
+    }
+
+    @Test
+    void shouldFindFeedItemsByAccountIdBeforeCreatedAtAndId() {
+        List<FeedItem> postsDb = timelineRepository.findFeedItemsByAccountIdBefore(3L, EmbeddedDatabase.at("11:00"), 2L, Pageable.ofSize(2));
+
+        assertThat(postsDb).extracting(FeedItem::id).containsExactly(1L);
+    }
+
+    @Test
+    void shouldFindNoFeedItemsByAccountId() {
+        List<FeedItem> postsDb = timelineRepository.findFeedItemsByAccountId(1L, Pageable.ofSize(2));
+
+        assertThat(postsDb).isEmpty();
+    }
+
+    @Test
+    void shouldFanOutPostToFollowersOfAuthor() {
+        followRepository.saveAndFlush(Follow.builder()
+                .id(new FollowId(2L, 1L))
+                .build());
+
+        int insertedEntries = timelineRepository.fanOut(4L, 1L, EmbeddedDatabase.at("12:00"));
+
+        assertThat(insertedEntries).isEqualTo(2);
+        assertThat(timelineRepository.findById(new TimelineEntryId(2L, 4L))).get()
+                .isEqualTo(new TimelineEntry(new TimelineEntryId(2L, 4L), 1L, EmbeddedDatabase.at("12:00")));
+        assertThat(timelineRepository.existsById(new TimelineEntryId(3L, 4L))).isTrue();
+    }
+
+    @Test
+    void shouldFanOutPostToNoOneWhenAuthorHasNoFollowers() {
+        int insertedEntries = timelineRepository.fanOut(5L, 3L, EmbeddedDatabase.at("13:00"));
+
+        assertThat(insertedEntries).isZero();
+    }
+
+    @Test
+    void shouldBackfillNewestPostsOfFollowee() {
+        int insertedEntries = timelineRepository.backfill(2L, 1L, 2);
+
+        assertThat(insertedEntries).isEqualTo(2);
+        assertThat(timelineRepository.findFeedItemsByAccountId(2L, Pageable.ofSize(3)))
+                .extracting(FeedItem::id).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void shouldBackfillOnlyPostsMissingFromTimeline() {
+        timelineRepository.deleteInBulkByPostId(3L);
+
+        int insertedEntries = timelineRepository.backfill(3L, 1L, 10);
+
+        assertThat(insertedEntries).isEqualTo(1);
+        assertThat(timelineRepository.findFeedItemsByAccountId(3L, Pageable.ofSize(4)))
+                .extracting(FeedItem::id).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void shouldDeleteTimelineEntriesInBulkByAccountIdAndAuthorId() {
+        int deletedEntries = timelineRepository.deleteInBulkByAccountIdAndAuthorId(3L, 1L);
+
+        assertThat(deletedEntries).isEqualTo(3);
+        assertThat(timelineRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void shouldDeleteTimelineEntriesInBulkByPostId() {
+        int deletedEntries = timelineRepository.deleteInBulkByPostId(1L);
+
+        assertThat(deletedEntries).isEqualTo(1);
+        assertThat(timelineRepository.findAll()).extracting(entry -> entry.getId().getPostId())
+                .containsOnly(2L, 3L);
+    }
+
+    @Test
+    void shouldDeleteTimelineEntriesInBulkOfOwnerAndAuthor() {
+        assertThat(timelineRepository.deleteInBulkByAccountId(1L)).isEqualTo(3);
+        assertThat(timelineRepository.deleteInBulkByAccountId(3L)).isZero();
+    }
+
+}
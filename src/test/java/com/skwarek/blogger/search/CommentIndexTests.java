@@ -0,0 +1,108 @@
+package com.skwarek.blogger.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommentIndexTests {
+
+    private final CommentIndex commentIndex = new CommentIndex(4);
+
+    @AfterEach
+    void tearDown() {
+        commentIndex.close();
+    }
+
+    @Test
+    void shouldSearchOnlyCommentsOfPost() {
+        commentIndex.put(1L, 1L, "great post about caching");
+        commentIndex.put(2L, 5L, "caching is hard");
+        commentIndex.put(3L, 1L, "thanks");
+
+        assertThat(commentIndex.searchPost(1L, "caching", 10)).containsExactly(1L);
+        assertThat(commentIndex.searchPost(5L, "caching", 10)).containsExactly(2L);
+        assertThat(commentIndex.searchPost(2L, "caching", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldMergeBestHitsOfPostsAcrossShards() {
+        LongStream.rangeClosed(1, 8).forEach(postId -> {
+            commentIndex.put(postId * 10, postId, "spam spam spam");
+            commentIndex.put(postId * 10 + 1, postId, "spam and eggs, then more words around it");
+        });
+
+        assertThat(commentIndex.searchPosts(List.of(1L, 2L, 3L, 4L, 5L, 6L), "spam", 4)).containsExactly(60L, 50L, 40L, 30L);
+        assertThat(commentIndex.searchPosts(List.of(2L, 7L), "eggs spam", 10)).containsExactly(71L, 21L, 70L, 20L);
+    }
+
+    @Test
+    void shouldScoreAlikeInEveryShard() {
+        commentIndex.put(1L, 1L, "apple pie");
+        LongStream.rangeClosed(2, 10).forEach(commentId -> commentIndex.put(commentId, 1L, "filler text"));
+        LongStream.rangeClosed(11, 20).forEach(commentId -> commentIndex.put(commentId, 3L, "apple apple"));
+
+        assertThat(commentIndex.searchPosts(List.of(1L, 3L), "apple", 1)).containsExactly(20L);
+    }
+
+    @Test
+    void shouldReplaceAndRemoveComments() {
+        commentIndex.put(1L, 1L, "first draft");
+        commentIndex.put(1L, 1L, "second draft");
+        commentIndex.put(2L, 1L, "another draft");
+        commentIndex.remove(2L, 1L);
+
+        assertThat(commentIndex.searchPost(1L, "first", 10)).isEmpty();
+        assertThat(commentIndex.searchPost(1L, "draft", 10)).containsExactly(1L);
+        assertThat(commentIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRemoveAllCommentsOfPost() {
+        commentIndex.put(1L, 1L, "first comment");
+        commentIndex.put(2L, 1L, "second comment");
+        commentIndex.put(3L, 5L, "comment of another post in the same shard");
+        commentIndex.removePost(1L);
+
+        assertThat(commentIndex.searchPosts(List.of(1L, 5L), "comment", 10)).containsExactly(3L);
+        assertThat(commentIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRemoveAllCommentsOfPostsAcrossShards() {
+        LongStream.rangeClosed(1, 8).forEach(postId -> commentIndex.put(postId * 10, postId, "comment"));
+        commentIndex.removePosts(List.of(1L, 2L, 3L, 5L, 6L));
+
+        assertThat(commentIndex.searchPosts(LongStream.rangeClosed(1, 8).boxed().toList(), "comment", 10)).containsExactly(80L, 70L, 40L);
+        assertThat(commentIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRankCommentsOfPostAfterCompaction() {
+        LongStream.rangeClosed(1, 3000).forEach(commentId -> commentIndex.put(commentId, commentId % 2 == 0 ? 1L : 5L, "spam and eggs"));
+        commentIndex.removePost(5L);
+        commentIndex.put(3001L, 1L, "spam spam");
+
+        assertThat(commentIndex.searchPost(1L, "spam", 3)).containsExactly(3001L, 3000L, 2998L);
+        assertThat(commentIndex.searchPost(5L, "spam", 3)).isEmpty();
+    }
+
+    @Test
+    void shouldNotLoadOverCommentsChangedSinceLoadStarted() {
+        commentIndex.startLoad();
+        commentIndex.put(1L, 1L, "edited while loading");
+        commentIndex.removePost(5L);
+        commentIndex.load(1L, 1L, "stale snapshot");
+        commentIndex.load(2L, 5L, "comment of a post deleted while loading");
+        commentIndex.load(3L, 1L, "untouched comment");
+        commentIndex.finishLoad();
+
+        assertThat(commentIndex.searchPost(1L, "edited stale untouched", 10)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(commentIndex.searchPost(1L, "stale", 10)).isEmpty();
+        assertThat(commentIndex.searchPost(5L, "comment", 10)).isEmpty();
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.skwarek.blogger.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PostIndexTests {
+
+    private final PostIndex postIndex = new PostIndex();
+
+    @Test
+    void shouldRankPostsByBm25() {
+        postIndex.put(1L, "spring boot with spring data");
+        postIndex.put(2L, "a long post about java, threads, pools, queues and spring");
+        postIndex.put(3L, "java records");
+
+        assertThat(postIndex.search("spring", 10)).containsExactly(1L, 2L);
+        assertThat(postIndex.search("java spring", 10)).containsExactly(2L, 1L, 3L);
+        assertThat(postIndex.search("java records", 10)).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void shouldMatchStemmedQueryTerms() {
+        postIndex.put(1L, "Hopping between caches");
+
+        assertThat(postIndex.search("hops cache", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void shouldReturnOnlyBestHitsUpToLimit() {
+        postIndex.put(1L, "java");
+        postIndex.put(2L, "java java");
+        postIndex.put(3L, "java and more words");
+
+        assertThat(postIndex.search("java", 2)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldStopWalkingCommonTermOnceItCannotChangeBestHits() {
+        IntStream.rangeClosed(1, 2000).forEach(id -> postIndex.put((long) id, id % 500 == 0 ? "common filler rare" : "common filler"));
+
+        assertThat(postIndex.search("common rare", 3)).containsExactly(2000L, 1500L, 1000L);
+        assertThat(postIndex.search("common rare", 6)).containsExactly(2000L, 1500L, 1000L, 500L, 1999L, 1998L);
+    }
+
+    @Test
+    void shouldSkipBlocksThatCannotChangeBestHits() {
+        IntStream.rangeClosed(1, 2000).forEach(id -> postIndex.put((long) id, id % 400 == 0 ? "common common common filler" : "common filler"));
+
+        assertThat(postIndex.search("common", 3)).containsExactly(2000L, 1600L, 1200L);
+        assertThat(postIndex.search("common filler", 6)).containsExactly(2000L, 1600L, 1200L, 800L, 400L, 1999L);
+    }
+
+    @Test
+    void shouldFindNothingForUnknownOrStopWordQuery() {
+        postIndex.put(1L, "spring boot");
+
+        assertThat(postIndex.search("hibernate", 10)).isEmpty();
+        assertThat(postIndex.search("the and of", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceChangedPost() {
+        postIndex.put(1L, "spring boot");
+        postIndex.put(1L, "hibernate caches");
+
+        assertThat(postIndex.search("spring", 10)).isEmpty();
+        assertThat(postIndex.search("caches", 10)).containsExactly(1L);
+        assertThat(postIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldForgetRemovedPost() {
+        postIndex.put(1L, "spring boot");
+        postIndex.put(2L, "spring data");
+        postIndex.remove(1L);
+        postIndex.remove(99L);
+
+        assertThat(postIndex.search("spring", 10)).containsExactly(2L);
+        assertThat(postIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepSearchingAfterCompaction() {
+        IntStream.rangeClosed(1, 5000).forEach(id -> postIndex.put((long) id, "post " + id + (id % 2 == 0 ? " even" : " odd")));
+        IntStream.rangeClosed(1, 4000).forEach(id -> postIndex.remove((long) id));
+
+        assertThat(postIndex.size()).isEqualTo(1000);
+        assertThat(postIndex.search("4001", 10)).containsExactly(4001L);
+        assertThat(postIndex.search("even", 2000)).hasSize(500)
+                .allMatch(id -> id > 4000 && id % 2 == 0);
+    }
+
+    @Test
+    void shouldApplyChangesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postIndex.put(1L, "spring boot");
+
+            assertThat(postIndex.search("spring", 10)).isEmpty();
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(postIndex.search("spring", 10)).containsExactly(1L);
+    }
+
+
+    @Test
+    void shouldNotLoadOverPostsChangedSinceLoadStarted() {
+        postIndex.startLoad();
+        postIndex.put(1L, "edited while loading");
+        postIndex.remove(2L);
+        postIndex.load(1L, "stale snapshot");
+        postIndex.load(2L, "deleted while loading");
+        postIndex.load(3L, "untouched post");
+        postIndex.finishLoad();
+
+        assertThat(postIndex.search("edited", 10)).containsExactly(1L);
+        assertThat(postIndex.search("stale", 10)).isEmpty();
+        assertThat(postIndex.search("deleted", 10)).isEmpty();
+        assertThat(postIndex.search("untouched", 10)).containsExactly(3L);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.skwarek.blogger.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TextAnalyzerTests {
+
+    @Test
+    void shouldSplitLowerCaseAndDropStopWords() {
+        assertThat(TextAnalyzer.terms("The Spring-Boot post, no. 2!")).containsExactly("spring", "boot", "post", "2");
+    }
+
+    @Test
+    void shouldFindNoTermsInBlankOrMissingText() {
+        assertThat(TextAnalyzer.terms("  ")).isEmpty();
+        assertThat(TextAnalyzer.terms(null)).isEmpty();
+    }
+
+    @Test
+    void shouldKeepNonAsciiWordsUnstemmed() {
+        assertThat(TextAnalyzer.terms("Zażółć gęślą jaźń")).containsExactly("zażółć", "gęślą", "jaźń");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "caresses, caress", "ponies, poni", "cats, cat", "caress, caress",
+            "feed, feed", "agreed, agree", "plastered, plaster", "motoring, motor", "sing, sing",
+            "conflated, conflate", "troubled, trouble", "sized, size", "hopping, hop", "falling, fall",
+            "filing, file", "failing, fail", "happy, happi", "sky, sky"
+    })
+    void shouldStemWithPorterStepOne(String word, String stem) {
+        assertThat(TextAnalyzer.stem(word)).isEqualTo(stem);
+    }
+
+}
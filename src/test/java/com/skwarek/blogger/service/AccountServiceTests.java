@@ -1,17 +1,34 @@
 package com.skwarek.blogger.service;
 
 import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.cache.EmailFilter;
+import com.skwarek.blogger.cache.ListCache;
 import com.skwarek.blogger.domain.Account;
 import com.skwarek.blogger.dto.AccountRequest;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
 import com.skwarek.blogger.exception.DuplicateAccountException;
+import com.skwarek.blogger.exception.InvalidPageRequestException;
 import com.skwarek.blogger.exception.NotFoundAccountException;
 import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.repository.FollowRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.repository.TimelineRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.search.PostIndex;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +42,22 @@ public class AccountServiceTests {
 
     @MockBean
     private AccountRepository accountRepository;
+    @MockBean
+    private PostRepository postRepository;
+    @MockBean
+    private CommentRepository commentRepository;
+    @MockBean
+    private FollowRepository followRepository;
+    @MockBean
+    private TimelineRepository timelineRepository;
+    @MockBean
+    private ListCache listCache;
+    @MockBean
+    private EmailFilter emailFilter;
+    @MockBean
+    private PostIndex postIndex;
+    @MockBean
+    private CommentIndex commentIndex;
 
     @Autowired
     private AccountService accountService;
@@ -37,10 +70,11 @@ public class AccountServiceTests {
                 EmbeddedDatabase.createAccountNo(3)
         );
 
-        when(accountRepository.findAll()).thenReturn(accountsDb);
-        List<Account> accounts = accountService.findAll();
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(accountsDb);
+        CursorPage<Account> accounts = accountService.findAll(null, null);
 
-        assertThat(accounts).hasSize(3)
+        assertThat(accounts.getNextCursor()).isNull();
+        assertThat(accounts.getItems()).hasSize(3)
                 .containsOnly(
                         EmbeddedDatabase.createAccountNo(1),
                         EmbeddedDatabase.createAccountNo(2),
@@ -48,14 +82,62 @@ public class AccountServiceTests {
                 );
     }
 
+    @Test
+    void shouldFindAllAccountsAfterCursor() {
+        List<Account> accountsDb = List.of(
+                EmbeddedDatabase.createAccountNo(2),
+                EmbeddedDatabase.createAccountNo(3)
+        );
+
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(1L, Pageable.ofSize(2))).thenReturn(accountsDb);
+        CursorPage<Account> accounts = accountService.findAll(Cursor.encode(1L), 1);
+
+        assertThat(accounts.getNextCursor()).isEqualTo(Cursor.encode(2L));
+        assertThat(accounts.getItems()).hasSize(1)
+                .containsOnly(
+                        EmbeddedDatabase.createAccountNo(2)
+                );
+    }
+
+    @Test
+    void shouldFindAllAccountSummaries() {
+        List<AccountSummary> accountsDb = List.of(
+                new AccountSummary(1L, "a1@gmail.com"),
+                new AccountSummary(2L, "b2@gmail.com")
+        );
+
+        when(accountRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(2))).thenReturn(accountsDb);
+        CursorPage<AccountSummary> accounts = accountService.findAllSummaries(null, 1);
+
+        assertThat(accounts.getNextCursor()).isEqualTo(Cursor.encode(1L));
+        assertThat(accounts.getItems()).containsExactly(new AccountSummary(1L, "a1@gmail.com"));
+    }
+
     @Test
     void shouldFindNoAccounts() {
         List<Account> accountsDb = Collections.emptyList();
 
-        when(accountRepository.findAll()).thenReturn(accountsDb);
-        List<Account> accounts = accountService.findAll();
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(accountsDb);
+        CursorPage<Account> accounts = accountService.findAll(null, null);
 
-        assertThat(accounts).isEmpty();
+        assertThat(accounts.getNextCursor()).isNull();
+        assertThat(accounts.getItems()).isEmpty();
+    }
+
+    @Test
+    void shouldNotFindAccountsWhenCursorIsInvalid() {
+        String after = "xxx";
+        String expectedMessage = "Invalid cursor: " + after;
+
+        Exception exception = assertThrows(InvalidPageRequestException.class, () -> accountService.findAll(after, null));
+        assertThat(exception).hasMessage(expectedMessage);
+    }
+
+    @Test
+    void shouldCapAccountsLimit() {
+        accountService.findAll(null, 1000);
+
+        verify(accountRepository).findByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(CursorPage.MAX_LIMIT + 1));
     }
 
     @Test
@@ -80,6 +162,49 @@ public class AccountServiceTests {
         assertThat(exception).hasMessage(expectedMessage);
     }
 
+    @Test
+    void shouldFindAccountETagById() {
+        Long accountId = 1L;
+
+        when(accountRepository.findVersionById(accountId)).thenReturn(Optional.of(3L));
+        String eTag = accountService.findETagById(accountId);
+
+        assertThat(eTag).isEqualTo("\"3\"");
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void shouldNotFindAccountETagByIdWhenAccountDoesNotExist() {
+        Long accountId = 0L;
+        String expectedMessage = "Not found account with id: " + accountId;
+
+        Exception exception = assertThrows(NotFoundAccountException.class, () -> accountService.findETagById(accountId));
+        assertThat(exception).hasMessage(expectedMessage);
+    }
+
+    @Test
+    void shouldFindAccountWithPostsById() {
+        Long accountId = 1L;
+        Optional<Account> accountDb = Optional.of(EmbeddedDatabase.createAccountNo(1));
+
+        when(accountRepository.findWithPostsById(accountId)).thenReturn(accountDb);
+        Account account = accountService.findWithPostsById(accountId);
+
+        assertThat(account).isNotNull()
+                .isEqualTo(EmbeddedDatabase.createAccountNo(1));
+        verify(postRepository, times(1)).findWithCommentsByAccountId(accountId);
+    }
+
+    @Test
+    void shouldNotFindAccountWithPostsByIdWhenAccountDoesNotExist() {
+        Long accountId = 0L;
+        String expectedMessage = "Not found account with id: " + accountId;
+
+        Exception exception = assertThrows(NotFoundAccountException.class, () -> accountService.findWithPostsById(accountId));
+        assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(postRepository);
+    }
+
     @Test
     void shouldCreateAccount() {
         AccountRequest accountRequest = AccountRequest.builder()
@@ -87,16 +212,33 @@ public class AccountServiceTests {
                 .password("newPassword")
                 .build();
 
-        when(accountRepository.existsByEmail(accountRequest.getEmail())).thenReturn(false);
+        when(emailFilter.mightContain(accountRequest.getEmail())).thenReturn(false);
         accountService.create(accountRequest);
         ArgumentCaptor<Account> accountArgumentCaptor = ArgumentCaptor.forClass(Account.class);
-        verify(accountRepository).save(accountArgumentCaptor.capture());
+        verify(accountRepository).saveAndFlush(accountArgumentCaptor.capture());
         Account createdAccount = accountArgumentCaptor.getValue();
 
         assertThat(createdAccount).hasFieldOrPropertyWithValue("id", null);
         assertThat(createdAccount).hasFieldOrPropertyWithValue("email", "newEmail@gmail.com");
         assertThat(createdAccount).hasFieldOrPropertyWithValue("password", "newPassword");
         assertThat(createdAccount).hasFieldOrPropertyWithValue("posts", Collections.emptyList());
+        verify(accountRepository, never()).existsByEmail(any());
+        verify(emailFilter).put("newEmail@gmail.com");
+    }
+
+    @Test
+    void shouldCreateAccountWhenEmailFilterGivesFalsePositive() {
+        AccountRequest accountRequest = AccountRequest.builder()
+                .email("newEmail@gmail.com")
+                .password("newPassword")
+                .build();
+
+        when(emailFilter.mightContain(accountRequest.getEmail())).thenReturn(true);
+        when(accountRepository.existsByEmail(accountRequest.getEmail())).thenReturn(false);
+        accountService.create(accountRequest);
+
+        verify(accountRepository).saveAndFlush(any(Account.class));
+        verify(emailFilter).put("newEmail@gmail.com");
     }
 
     @Test
@@ -107,10 +249,57 @@ public class AccountServiceTests {
                 .build();
         String expectedMessage = "Duplicate account with email: " + accountRequest.getEmail();
 
+        when(emailFilter.mightContain(accountRequest.getEmail())).thenReturn(true);
         when(accountRepository.existsByEmail(accountRequest.getEmail())).thenReturn(true);
 
         Exception exception = assertThrows(DuplicateAccountException.class, () -> accountService.create(accountRequest));
         assertThat(exception).hasMessage(expectedMessage);
+        verify(accountRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldNotCreateAccountWhenEmailIsTakenConcurrently() {
+        AccountRequest accountRequest = AccountRequest.builder()
+                .email("a1@gmail.com")
+                .password("newPassword")
+                .build();
+        String expectedMessage = "Duplicate account with email: " + accountRequest.getEmail();
+
+        when(emailFilter.mightContain(accountRequest.getEmail())).thenReturn(false);
+        when(accountRepository.saveAndFlush(any(Account.class))).thenThrow(uniqueEmailViolation());
+
+        Exception exception = assertThrows(DuplicateAccountException.class, () -> accountService.create(accountRequest));
+        assertThat(exception).hasMessage(expectedMessage);
+        verify(emailFilter, never()).put(any());
+    }
+
+    @Test
+    void shouldRethrowOtherDataIntegrityViolationOnCreate() {
+        AccountRequest accountRequest = AccountRequest.builder()
+                .email("a1@gmail.com")
+                .password("newPassword")
+                .build();
+
+        when(emailFilter.mightContain(accountRequest.getEmail())).thenReturn(false);
+        when(accountRepository.saveAndFlush(any(Account.class))).thenThrow(new DataIntegrityViolationException("Value too long"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> accountService.create(accountRequest));
+    }
+
+    @Test
+    void shouldRethrowOtherConstraintViolationOnCreate() {
+        AccountRequest accountRequest = AccountRequest.builder()
+                .email("a1@gmail.com")
+                .password("newPassword")
+                .build();
+        DataIntegrityViolationException otherViolation = new DataIntegrityViolationException("Cannot be null",
+                new ConstraintViolationException("Cannot be null", new SQLException(), "ck_account_password"));
+
+        when(emailFilter.mightContain(accountRequest.getEmail())).thenReturn(false);
+        when(accountRepository.saveAndFlush(any(Account.class))).thenThrow(otherViolation);
+
+        assertThrows(DataIntegrityViolationException.class, () -> accountService.create(accountRequest));
+        verify(emailFilter, never()).put(any());
     }
 
     @Test
@@ -120,19 +309,19 @@ public class AccountServiceTests {
                 .email("updateda1@gmail.com")
                 .password("updated111")
                 .build();
-        Optional<Account> oldAccount = Optional.of(EmbeddedDatabase.createAccountNo(1));
+        Account accountDb = EmbeddedDatabase.createAccountNo(1);
+        accountDb.setEmail("updateda1@gmail.com");
+        accountDb.setPassword("updated111");
 
-        when(accountRepository.findById(accountId)).thenReturn(oldAccount);
-        when(accountRepository.existsByEmail(accountRequest.getEmail())).thenReturn(false);
-        accountService.update(accountId, accountRequest);
-        ArgumentCaptor<Account> accountArgumentCaptor = ArgumentCaptor.forClass(Account.class);
-        verify(accountRepository).save(accountArgumentCaptor.capture());
-        Account updatedAccount = accountArgumentCaptor.getValue();
+        when(accountRepository.updateCredentials(accountId, "updateda1@gmail.com", "updated111")).thenReturn(1);
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(accountDb));
+        Account updatedAccount = accountService.update(accountId, accountRequest);
 
         assertThat(updatedAccount).hasFieldOrPropertyWithValue("id", 1L);
         assertThat(updatedAccount).hasFieldOrPropertyWithValue("email", "updateda1@gmail.com");
         assertThat(updatedAccount).hasFieldOrPropertyWithValue("password", "updated111");
-        assertThat(updatedAccount).hasFieldOrPropertyWithValue("posts", oldAccount.get().getPosts());
+        verify(accountRepository, never()).existsByEmail(any());
+        verify(accountRepository, never()).save(any());
     }
 
     @Test
@@ -142,10 +331,9 @@ public class AccountServiceTests {
                 .email("updateda1@gmail.com")
                 .password("updated111")
                 .build();
-        Optional<Account> oldAccount = Optional.empty();
         String expectedMessage = "Not found account with id: " + accountId;
 
-        when(accountRepository.findById(accountId)).thenReturn(oldAccount);
+        when(accountRepository.updateCredentials(accountId, "updateda1@gmail.com", "updated111")).thenReturn(0);
 
         Exception exception = assertThrows(NotFoundAccountException.class, () -> accountService.update(accountId, accountRequest));
         assertThat(exception).hasMessage(expectedMessage);
@@ -158,11 +346,10 @@ public class AccountServiceTests {
                 .email("b2@gmail.com")
                 .password("updated111")
                 .build();
-        Optional<Account> oldAccount = Optional.of(EmbeddedDatabase.createAccountNo(1));
         String expectedMessage = "Duplicate account with email: " + accountRequest.getEmail();
 
-        when(accountRepository.findById(accountId)).thenReturn(oldAccount);
-        when(accountRepository.existsByEmail(accountRequest.getEmail())).thenReturn(true);
+        when(accountRepository.updateCredentials(accountId, "b2@gmail.com", "updated111"))
+                .thenThrow(uniqueEmailViolation());
 
         Exception exception = assertThrows(DuplicateAccountException.class, () -> accountService.update(accountId, accountRequest));
         assertThat(exception).hasMessage(expectedMessage);
@@ -171,26 +358,43 @@ public class AccountServiceTests {
     @Test
     void shouldDeleteAccountById() {
         Long accountId = 1L;
-        Optional<Account> accountDb = Optional.of(EmbeddedDatabase.createAccountNo(1));
 
-        when(accountRepository.findById(accountId)).thenReturn(accountDb);
-        doNothing().when(accountRepository).deleteById(accountDb.get().getId());
+        when(postRepository.findIdsByAccountId(accountId)).thenReturn(List.of(1L, 2L, 3L));
+        when(followRepository.findFolloweeIdsByAccountId(accountId)).thenReturn(List.of(2L));
+        when(accountRepository.deleteInBulkById(accountId)).thenReturn(1);
         accountService.deleteById(accountId);
 
-        assertThat(accountDb.get().getPosts()).isEmpty();
-        verify(accountRepository, times(1)).deleteById(accountDb.get().getId());
+        InOrder inOrder = inOrder(followRepository, timelineRepository, commentRepository, postRepository, accountRepository);
+        inOrder.verify(accountRepository, times(1)).decrementFollowerCounts(List.of(2L));
+        inOrder.verify(followRepository, times(1)).deleteInBulkByAccountId(accountId);
+        inOrder.verify(timelineRepository, times(1)).deleteInBulkByAccountId(accountId);
+        inOrder.verify(commentRepository, times(1)).deleteInBulkByAccountId(accountId);
+        inOrder.verify(postRepository, times(1)).deleteInBulkByAccountId(accountId);
+        inOrder.verify(accountRepository, times(1)).deleteInBulkById(accountId);
+        verify(accountRepository, never()).findById(accountId);
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, accountId);
+        verify(postIndex).remove(1L);
+        verify(postIndex).remove(2L);
+        verify(postIndex).remove(3L);
+        verify(commentIndex).removePosts(List.of(1L, 2L, 3L));
     }
 
     @Test
     void shouldNotDeleteAccountByIdWhenAccountDoesNotExist() {
         Long accountId = 0L;
-        Optional<Account> accountDb = Optional.empty();
         String expectedMessage = "Not found account with id: " + accountId;
 
-        when(accountRepository.findById(accountId)).thenReturn(accountDb);
+        when(accountRepository.deleteInBulkById(accountId)).thenReturn(0);
 
         Exception exception = assertThrows(NotFoundAccountException.class, () -> accountService.deleteById(accountId));
         assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(postIndex);
+        verifyNoInteractions(commentIndex);
+    }
+
+    private static DataIntegrityViolationException uniqueEmailViolation() {
+        return new DataIntegrityViolationException("Duplicate entry",
+                new ConstraintViolationException("Duplicate entry", new SQLException(), "account." + Account.EMAIL_UNIQUE_KEY));
     }
 
 }
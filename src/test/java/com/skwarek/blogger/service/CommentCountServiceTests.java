@@ -0,0 +1,67 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(CommentCountService.class)
+@TestPropertySource(properties = "blogger.comment-count.repair-chunk-size=2")
+public class CommentCountServiceTests {
+
+    @MockBean
+    private PostRepository postRepository;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CommentCountService commentCountService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void shouldRepairDriftedCommentCountsInChunks() {
+        when(postRepository.findMaxId()).thenReturn(Optional.of(5L));
+        when(postRepository.findIdsWithDriftedCommentCount(anyLong(), anyLong())).thenReturn(Collections.emptyList());
+        when(postRepository.findIdsWithDriftedCommentCount(2L, 4L)).thenReturn(List.of(3L, 4L));
+
+        int repairedPosts = commentCountService.repairCommentCounts();
+
+        assertThat(repairedPosts).isEqualTo(2);
+        verify(postRepository).findIdsWithDriftedCommentCount(0L, 2L);
+        verify(postRepository).findIdsWithDriftedCommentCount(2L, 4L);
+        verify(postRepository).findIdsWithDriftedCommentCount(4L, 6L);
+        verify(postRepository).recountComments(3L);
+        verify(postRepository).recountComments(4L);
+        verify(postRepository, times(2)).recountComments(anyLong());
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void shouldRepairNothingWhenThereAreNoPosts() {
+        when(postRepository.findMaxId()).thenReturn(Optional.empty());
+
+        int repairedPosts = commentCountService.repairCommentCounts();
+
+        assertThat(repairedPosts).isZero();
+        verify(postRepository, never()).findIdsWithDriftedCommentCount(anyLong(), anyLong());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.IndexedComment;
+import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(CommentIndexService.class)
+public class CommentIndexServiceTests {
+
+    @MockBean
+    private CommentRepository commentRepository;
+    @MockBean
+    private CommentIndex commentIndex;
+
+    @Autowired
+    private CommentIndexService commentIndexService;
+
+    @Test
+    void shouldIndexEveryComment() {
+        when(commentRepository.streamIndexedByOrderByIdAsc()).thenReturn(Stream.of(
+                new IndexedComment(1L, 1L, "comment no 1 to post1"),
+                new IndexedComment(4L, 2L, "comment no 1 to post2")));
+
+        long loadedComments = commentIndexService.loadCommentIndex();
+
+        assertThat(loadedComments).isEqualTo(2);
+        InOrder inOrder = inOrder(commentIndex);
+        inOrder.verify(commentIndex).startLoad();
+        inOrder.verify(commentIndex).load(1L, 1L, "comment no 1 to post1");
+        inOrder.verify(commentIndex).load(4L, 2L, "comment no 1 to post2");
+        inOrder.verify(commentIndex).finishLoad();
+        verify(commentIndex, never()).put(anyLong(), anyLong(), anyString());
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.domain.Comment;
+import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.QueuedComment;
+import com.skwarek.blogger.exception.FullCommentQueueException;
+import com.skwarek.blogger.exception.InvalidCommentException;
+import com.skwarek.blogger.exception.NotFoundPostException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(value = CommentQueueService.class, properties = {
+        "blogger.comment-queue.enabled=true",
+        "blogger.comment-queue.capacity=3",
+        "blogger.comment-queue.flush-interval-ms=3600000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class CommentQueueServiceTests {
+
+    @TempDir
+    private static Path directory;
+    private static Path deadLettersPath;
+
+    @MockBean
+    private CommentService commentService;
+    @MockBean
+    private PostService postService;
+
+    @Autowired
+    private CommentQueueService commentQueueService;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("blogger.comment-queue.journal", () -> directory.resolve(UUID.randomUUID() + ".journal").toString());
+        registry.add("blogger.comment-queue.dead-letters", () -> {
+            deadLettersPath = directory.resolve(UUID.randomUUID() + ".dead-letters");
+            return deadLettersPath.toString();
+        });
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(postService.findById(1L)).thenReturn(EmbeddedDatabase.createPostNo(1));
+        when(postService.findById(2L)).thenReturn(EmbeddedDatabase.createPostNo(2));
+    }
+
+    @Test
+    void shouldQueueCommentWithoutWritingIt() {
+        QueuedComment queuedComment = commentQueueService.enqueue2Post(1L, new CommentRequest("new comment"));
+
+        assertThat(queuedComment).isEqualTo(new QueuedComment(1L, 1L));
+        verifyNoInteractions(commentService);
+    }
+
+    @Test
+    void shouldNotQueueCommentLongerThanItsColumn() {
+        CommentRequest commentRequest = new CommentRequest("x".repeat(Comment.MAX_CONTENT_LENGTH + 1));
+
+        assertThrows(InvalidCommentException.class, () -> commentQueueService.enqueue2Post(1L, commentRequest));
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void shouldNotQueueCommentWhenPostNotExists() {
+        when(postService.findById(99L)).thenThrow(new NotFoundPostException("Not found post with id: 99"));
+
+        assertThrows(NotFoundPostException.class, () -> commentQueueService.enqueue2Post(99L, new CommentRequest("new comment")));
+    }
+
+    @Test
+    void shouldRejectCommentWhenQueueIsFull() {
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 1"));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 2"));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 3"));
+
+        assertThrows(FullCommentQueueException.class, () -> commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 4")));
+    }
+
+    @Test
+    void shouldFlushQueuedCommentsInOneBatchPerPost() {
+        when(commentService.createAll2Post(eq(1L), anyList())).thenReturn(List.of(6L, 7L));
+        when(commentService.createAll2Post(eq(2L), anyList())).thenReturn(List.of(8L));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 1"));
+        commentQueueService.enqueue2Post(2L, new CommentRequest("comment no 2"));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 3"));
+
+        int writtenComments = commentQueueService.flush();
+
+        assertThat(writtenComments).isEqualTo(3);
+        verify(commentService).createAll2Post(1L, List.of(new CommentRequest("comment no 1"), new CommentRequest("comment no 3")));
+        verify(commentService).createAll2Post(2L, List.of(new CommentRequest("comment no 2")));
+        assertThat(commentQueueService.flush()).isZero();
+    }
+
+    @Test
+    void shouldDeadLetterCommentsOfDeletedPost() throws IOException {
+        when(commentService.createAll2Post(eq(1L), anyList())).thenThrow(new NotFoundPostException("Not found post with id: 1"));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 1"));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 2"));
+
+        assertThat(commentQueueService.flush()).isZero();
+        assertThat(commentQueueService.flush()).isZero();
+        verify(commentService, times(1)).createAll2Post(eq(1L), anyList());
+        assertThat(Files.readAllLines(deadLettersPath)).hasSize(2)
+                .allSatisfy(line -> assertThat(line).contains("Not found post with id: 1"));
+    }
+
+    @Test
+    void shouldKeepCommentsQueuedWhenWriteFails() {
+        when(commentService.createAll2Post(eq(1L), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(List.of(6L));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 1"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> commentQueueService.flush());
+
+        assertThat(commentQueueService.flush()).isEqualTo(1);
+        verify(commentService, times(2)).createAll2Post(1L, List.of(new CommentRequest("comment no 1")));
+    }
+
+    @Test
+    void shouldDeadLetterOnlyTheCommentRejectedForGood() throws IOException {
+        CommentRequest rejectedRequest = new CommentRequest("comment no 2");
+        when(commentService.createAll2Post(eq(1L), anyList())).thenAnswer(invocation -> {
+            if (invocation.<List<CommentRequest>>getArgument(1).contains(rejectedRequest)) {
+                throw new DataIntegrityViolationException("Value too long for column");
+            }
+            return List.of(6L);
+        });
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 1"));
+        commentQueueService.enqueue2Post(1L, rejectedRequest);
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 3"));
+
+        int writtenComments = commentQueueService.flush();
+
+        assertThat(writtenComments).isEqualTo(2);
+        verify(commentService).createAll2Post(1L, List.of(new CommentRequest("comment no 1")));
+        verify(commentService).createAll2Post(1L, List.of(new CommentRequest("comment no 3")));
+        assertThat(Files.readAllLines(deadLettersPath)).singleElement().asString()
+                .contains("\"seq\":2", "\"content\":\"comment no 2\"", "Value too long for column");
+        assertThat(commentQueueService.flush()).isZero();
+    }
+
+    @Test
+    void shouldNotBlockQueueBehindCommentRejectedForGood() {
+        when(commentService.createAll2Post(eq(1L), anyList())).thenThrow(new DataIntegrityViolationException("Value too long for column"));
+        when(commentService.createAll2Post(eq(2L), anyList())).thenReturn(List.of(6L));
+        commentQueueService.enqueue2Post(1L, new CommentRequest("comment no 1"));
+        commentQueueService.enqueue2Post(2L, new CommentRequest("comment no 2"));
+
+        assertThat(commentQueueService.flush()).isEqualTo(1);
+
+        assertThat(commentQueueService.flush()).isZero();
+        verify(commentService, times(1)).createAll2Post(eq(1L), anyList());
+    }
+
+}
@@ -1,21 +1,36 @@
 package com.skwarek.blogger.service;
 
 import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.cache.ListCache;
 import com.skwarek.blogger.domain.Comment;
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.CommentParent;
 import com.skwarek.blogger.dto.CommentRequest;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.exception.InvalidSearchQueryException;
+import com.skwarek.blogger.exception.NotFoundAccountException;
 import com.skwarek.blogger.exception.NotFoundCommentException;
 import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.exception.TooLargeBatchException;
 import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -27,11 +42,25 @@ public class CommentServiceTests {
     @MockBean
     private CommentRepository commentRepository;
     @MockBean
+    private PostRepository postRepository;
+    @MockBean
     private PostService postService;
+    @MockBean
+    private AccountService accountService;
+    @MockBean
+    private ListCache listCache;
+    @MockBean
+    private CommentIndex commentIndex;
 
     @Autowired
     private CommentService commentService;
 
+    @BeforeEach
+    void setUp() {
+        when(listCache.get(any(), any(), anyLong(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+    }
+
     @Test
     void shouldFindAllCommentsByPostId() {
         Long postId = 1L;
@@ -43,15 +72,65 @@ public class CommentServiceTests {
         );
 
         when(postService.findById(postId)).thenReturn(post);
-        when(commentRepository.findByPostId(post.getId())).thenReturn(commentsDb);
-        List<Comment> comments = commentService.findAllByPostId(postId);
+        when(commentRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(post.getId(), 0L, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(commentsDb);
+        CursorPage<Comment> comments = commentService.findAllByPostId(postId, null, null, Sort.Direction.ASC, false);
 
-        assertThat(comments).hasSize(3)
-                .containsOnly(
+        assertThat(comments.getNextCursor()).isNull();
+        assertThat(comments.getTotal()).isNull();
+        assertThat(comments.getItems()).hasSize(3)
+                .containsExactly(
                         EmbeddedDatabase.createCommentNo(1),
                         EmbeddedDatabase.createCommentNo(2),
                         EmbeddedDatabase.createCommentNo(3)
                 );
+        InOrder inOrder = inOrder(listCache, postService);
+        inOrder.verify(listCache).generation(ListCache.Scope.POST_COMMENTS, postId);
+        inOrder.verify(postService).findById(postId);
+    }
+
+    @Test
+    void shouldFindNewestCommentsByPostIdWithTotal() {
+        Long postId = 1L;
+        Post post = EmbeddedDatabase.createPostNo(1);
+        List<Comment> commentsDb = List.of(
+                EmbeddedDatabase.createCommentNo(3),
+                EmbeddedDatabase.createCommentNo(2),
+                EmbeddedDatabase.createCommentNo(1)
+        );
+
+        when(postService.findById(postId)).thenReturn(post);
+        when(commentRepository.findByPostIdAndIdLessThanOrderByIdDesc(post.getId(), Long.MAX_VALUE, Pageable.ofSize(3))).thenReturn(commentsDb);
+        post.setCommentCount(3L);
+        CursorPage<Comment> comments = commentService.findAllByPostId(postId, null, 2, Sort.Direction.DESC, true);
+
+        assertThat(comments.getNextCursor()).isEqualTo(Cursor.encode(2L));
+        assertThat(comments.getTotal()).isEqualTo(3L);
+        verify(commentRepository, never()).countByPostId(any());
+        assertThat(comments.getItems()).hasSize(2)
+                .containsExactly(
+                        EmbeddedDatabase.createCommentNo(3),
+                        EmbeddedDatabase.createCommentNo(2)
+                );
+    }
+
+    @Test
+    void shouldFindAllCommentSummariesByPostId() {
+        Long postId = 1L;
+        Post post = EmbeddedDatabase.createPostNo(1);
+        List<CommentSummary> commentsDb = List.of(
+                new CommentSummary(3L, "comment no 3 to post1"),
+                new CommentSummary(2L, "comment no 2 to post1")
+        );
+
+        when(postService.findById(postId)).thenReturn(post);
+        when(commentRepository.findSummariesByPostIdAndIdLessThanOrderByIdDesc(post.getId(), Long.MAX_VALUE, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(commentsDb);
+        CursorPage<CommentSummary> comments = commentService.findAllSummariesByPostId(postId, null, null, Sort.Direction.DESC, false);
+
+        assertThat(comments.getNextCursor()).isNull();
+        assertThat(comments.getItems()).containsExactly(
+                new CommentSummary(3L, "comment no 3 to post1"),
+                new CommentSummary(2L, "comment no 2 to post1")
+        );
     }
 
     @Test
@@ -61,10 +140,10 @@ public class CommentServiceTests {
         List<Comment> commentsDb = Collections.emptyList();
 
         when(postService.findById(postId)).thenReturn(post);
-        when(commentRepository.findByPostId(post.getId())).thenReturn(commentsDb);
-        List<Comment> comments = commentService.findAllByPostId(postId);
+        when(commentRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(post.getId(), 0L, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(commentsDb);
+        CursorPage<Comment> comments = commentService.findAllByPostId(postId, null, null, Sort.Direction.ASC, false);
 
-        assertThat(comments).isEmpty();
+        assertThat(comments.getItems()).isEmpty();
     }
 
     @Test
@@ -78,6 +157,117 @@ public class CommentServiceTests {
         assertThat(exception).hasMessage(expectedMessage);
     }
 
+    @Test
+    void shouldSearchCommentsByPostIdInIndexOrder() {
+        Long postId = 1L;
+
+        when(postService.findById(postId)).thenReturn(EmbeddedDatabase.createPostNo(1));
+        when(commentIndex.searchPost(postId, "comment", 5)).thenReturn(List.of(3L, 1L));
+        when(commentRepository.findSummariesByIdIn(List.of(3L, 1L))).thenReturn(List.of(
+                new CommentSummary(1L, "comment no 1 to post1"),
+                new CommentSummary(3L, "comment no 3 to post1")
+        ));
+        List<CommentSummary> commentsDb = commentService.searchByPostId(postId, "comment", 5);
+
+        assertThat(commentsDb).containsExactly(
+                new CommentSummary(3L, "comment no 3 to post1"),
+                new CommentSummary(1L, "comment no 1 to post1")
+        );
+    }
+
+    @Test
+    void shouldSearchNoCommentsByPostIdWithoutReadingDatabase() {
+        Long postId = 1L;
+
+        when(postService.findById(postId)).thenReturn(EmbeddedDatabase.createPostNo(1));
+        when(commentIndex.searchPost(postId, "nothing", CursorPage.DEFAULT_LIMIT)).thenReturn(List.of());
+        List<CommentSummary> commentsDb = commentService.searchByPostId(postId, "nothing", null);
+
+        assertThat(commentsDb).isEmpty();
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void shouldNotSearchCommentsByPostIdWhenPostDoesNotExist() {
+        Long postId = 0L;
+        String expectedMessage = "Not found post with id: " + postId;
+
+        when(postService.findById(postId)).thenThrow(new NotFoundPostException(expectedMessage));
+
+        Exception exception = assertThrows(NotFoundPostException.class, () -> commentService.searchByPostId(postId, "comment", null));
+        assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(commentIndex);
+    }
+
+    @Test
+    void shouldNotSearchCommentsWithBlankQuery() {
+        assertThrows(InvalidSearchQueryException.class, () -> commentService.searchByPostId(1L, " ", null));
+        assertThrows(InvalidSearchQueryException.class, () -> commentService.searchByAccountId(1L, null, null));
+        verifyNoInteractions(postService, accountService, commentIndex);
+    }
+
+    @Test
+    void shouldSearchCommentsByAccountIdAcrossItsPosts() {
+        Long accountId = 1L;
+
+        when(accountService.findById(accountId)).thenReturn(EmbeddedDatabase.createAccountNo(1));
+        when(postRepository.findIdsByAccountId(accountId)).thenReturn(List.of(1L, 2L, 3L));
+        when(commentIndex.searchPosts(List.of(1L, 2L, 3L), "comment", CursorPage.DEFAULT_LIMIT)).thenReturn(List.of(4L, 9L, 1L));
+        when(commentRepository.findSummariesByIdIn(List.of(4L, 9L, 1L))).thenReturn(List.of(
+                new CommentSummary(1L, "comment no 1 to post1"),
+                new CommentSummary(4L, "comment no 1 to post2")
+        ));
+        List<CommentSummary> commentsDb = commentService.searchByAccountId(accountId, "comment", null);
+
+        assertThat(commentsDb).containsExactly(
+                new CommentSummary(4L, "comment no 1 to post2"),
+                new CommentSummary(1L, "comment no 1 to post1")
+        );
+    }
+
+    @Test
+    void shouldSearchNoCommentsByAccountIdWithoutPosts() {
+        Long accountId = 3L;
+
+        when(accountService.findById(accountId)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        when(postRepository.findIdsByAccountId(accountId)).thenReturn(List.of());
+        List<CommentSummary> commentsDb = commentService.searchByAccountId(accountId, "comment", null);
+
+        assertThat(commentsDb).isEmpty();
+        verifyNoInteractions(commentIndex);
+    }
+
+    @Test
+    void shouldNotSearchCommentsByAccountIdWhenAccountDoesNotExist() {
+        Long accountId = 0L;
+        String expectedMessage = "Not found account with id: " + accountId;
+
+        when(accountService.findById(accountId)).thenThrow(new NotFoundAccountException(expectedMessage));
+
+        Exception exception = assertThrows(NotFoundAccountException.class, () -> commentService.searchByAccountId(accountId, "comment", null));
+        assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(commentIndex);
+    }
+
+    @Test
+    void shouldFindCommentETagById() {
+        Long commentId = 1L;
+
+        when(commentRepository.findVersionById(commentId)).thenReturn(Optional.of(2L));
+        String eTag = commentService.findETagById(commentId);
+
+        assertThat(eTag).isEqualTo("\"2\"");
+    }
+
+    @Test
+    void shouldNotFindCommentETagByIdWhenCommentDoesNotExist() {
+        Long commentId = 0L;
+        String expectedMessage = "Not found comment with id: " + commentId;
+
+        Exception exception = assertThrows(NotFoundCommentException.class, () -> commentService.findETagById(commentId));
+        assertThat(exception).hasMessage(expectedMessage);
+    }
+
     @Test
     void shouldFindCommentById() {
         Long commentId = 1L;
@@ -109,6 +299,7 @@ public class CommentServiceTests {
         Post post = EmbeddedDatabase.createPostNo(1);
 
         when(postService.findById(postId)).thenReturn(post);
+        when(commentRepository.save(any(Comment.class))).thenReturn(Comment.builder().id(7L).content("new comment").build());
         commentService.create2Post(postId, commentRequest);
         ArgumentCaptor<Comment> commentArgumentCaptor = ArgumentCaptor.forClass(Comment.class);
         verify(commentRepository).save(commentArgumentCaptor.capture());
@@ -117,6 +308,10 @@ public class CommentServiceTests {
         assertThat(createdComment).hasFieldOrPropertyWithValue("id", null);
         assertThat(createdComment).hasFieldOrPropertyWithValue("content", "new comment");
         assertThat(createdComment).hasFieldOrPropertyWithValue("post", post);
+        verify(postRepository).addToCommentCount(post.getId(), 1);
+        verify(listCache).invalidate(ListCache.Scope.POST_COMMENTS, 1L);
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        verify(commentIndex).put(7L, 1L, "new comment");
     }
 
     @Test
@@ -131,6 +326,65 @@ public class CommentServiceTests {
 
         Exception exception = assertThrows(NotFoundPostException.class, () -> commentService.create2Post(postId, commentRequest));
         assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(postRepository);
+        verifyNoInteractions(commentIndex);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreateAllComments2Post() {
+        Long postId = 1L;
+        List<CommentRequest> commentRequests = List.of(
+                CommentRequest.builder().content("comment no 1 to post1").build(),
+                CommentRequest.builder().content("comment no 2 to post1").build()
+        );
+        Post post = EmbeddedDatabase.createPostNo(1);
+
+        when(postService.findById(postId)).thenReturn(post);
+        when(commentRepository.saveAll(anyList())).thenReturn(List.of(
+                EmbeddedDatabase.createCommentNo(1),
+                EmbeddedDatabase.createCommentNo(2)
+        ));
+        List<Long> createdCommentIds = commentService.createAll2Post(postId, commentRequests);
+        ArgumentCaptor<List<Comment>> commentsArgumentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(postService, times(1)).findById(postId);
+        verify(commentRepository).saveAll(commentsArgumentCaptor.capture());
+        List<Comment> createdComments = commentsArgumentCaptor.getValue();
+
+        assertThat(createdCommentIds).containsExactly(1L, 2L);
+        assertThat(createdComments).hasSize(2);
+        assertThat(createdComments.get(0)).hasFieldOrPropertyWithValue("id", null);
+        assertThat(createdComments.get(0)).hasFieldOrPropertyWithValue("content", "comment no 1 to post1");
+        assertThat(createdComments.get(1)).hasFieldOrPropertyWithValue("content", "comment no 2 to post1");
+        assertThat(createdComments).allSatisfy(comment -> assertThat(comment.getPost()).isEqualTo(post));
+        verify(postRepository).addToCommentCount(post.getId(), 2);
+        verify(listCache).invalidate(ListCache.Scope.POST_COMMENTS, 1L);
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        verify(commentIndex).put(1L, 1L, "comment no 1 to post1");
+        verify(commentIndex).put(2L, 1L, "comment no 2 to post1");
+    }
+
+    @Test
+    void shouldNotCreateAllComments2PostWhenPostDoesNotExist() {
+        Long postId = 0L;
+        List<CommentRequest> commentRequests = List.of(CommentRequest.builder().content("new comment").build());
+        String expectedMessage = "Not found post with id: " + postId;
+
+        when(postService.findById(postId)).thenThrow(new NotFoundPostException(expectedMessage));
+
+        Exception exception = assertThrows(NotFoundPostException.class, () -> commentService.createAll2Post(postId, commentRequests));
+        assertThat(exception).hasMessage(expectedMessage);
+        verify(commentRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldNotCreateAllComments2PostWhenBatchIsTooLarge() {
+        Long postId = 1L;
+        List<CommentRequest> commentRequests = Collections.nCopies(1001, CommentRequest.builder().content("new comment").build());
+
+        Exception exception = assertThrows(TooLargeBatchException.class, () -> commentService.createAll2Post(postId, commentRequests));
+        assertThat(exception).hasMessage("Too many comments in batch: 1001");
+        verifyNoInteractions(postService);
     }
 
     @Test
@@ -139,17 +393,20 @@ public class CommentServiceTests {
         CommentRequest commentRequest = CommentRequest.builder()
                 .content("updated comment no 1 to post1")
                 .build();
-        Optional<Comment> oldComment = Optional.of(EmbeddedDatabase.createCommentNo(1));
+        Comment commentDb = EmbeddedDatabase.createCommentNo(1);
+        commentDb.setContent("updated comment no 1 to post1");
 
-        when(commentRepository.findById(commentId)).thenReturn(oldComment);
-        commentService.update(commentId, commentRequest);
-        ArgumentCaptor<Comment> commentArgumentCaptor = ArgumentCaptor.forClass(Comment.class);
-        verify(commentRepository).save(commentArgumentCaptor.capture());
-        Comment updatedComment = commentArgumentCaptor.getValue();
+        when(commentRepository.updateContent(commentId, "updated comment no 1 to post1")).thenReturn(1);
+        when(commentRepository.findWithPostById(commentId)).thenReturn(Optional.of(commentDb));
+        Comment updatedComment = commentService.update(commentId, commentRequest);
 
         assertThat(updatedComment).hasFieldOrPropertyWithValue("id", 1L);
         assertThat(updatedComment).hasFieldOrPropertyWithValue("content", "updated comment no 1 to post1");
-        assertThat(updatedComment).hasFieldOrPropertyWithValue("post", oldComment.get().getPost());
+        verify(commentRepository, never()).save(any());
+        verify(postRepository).incrementVersion(1L);
+        verify(listCache).invalidate(ListCache.Scope.POST_COMMENTS, 1L);
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        verify(commentIndex).put(1L, 1L, "updated comment no 1 to post1");
     }
 
     @Test
@@ -158,37 +415,43 @@ public class CommentServiceTests {
         CommentRequest commentRequest = CommentRequest.builder()
                 .content("updated comment no 1 to post1")
                 .build();
-        Optional<Comment> oldComment = Optional.empty();
         String expectedMessage = "Not found comment with id: " + commentId;
 
-        when(commentRepository.findById(commentId)).thenReturn(oldComment);
+        when(commentRepository.updateContent(commentId, "updated comment no 1 to post1")).thenReturn(0);
 
         Exception exception = assertThrows(NotFoundCommentException.class, () -> commentService.update(commentId, commentRequest));
         assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(postRepository);
+        verifyNoInteractions(commentIndex);
     }
 
     @Test
     void shouldDeleteCommentById() {
         Long commentId = 1L;
-        Optional<Comment> commentDb = Optional.of(EmbeddedDatabase.createCommentNo(1));
 
-        when(commentRepository.findById(commentId)).thenReturn(commentDb);
-        doNothing().when(commentRepository).deleteById(commentDb.get().getId());
+        when(commentRepository.findParentById(commentId)).thenReturn(Optional.of(new CommentParent(1L, 1L)));
+        when(commentRepository.deleteFromPost(1L, commentId)).thenReturn(1);
         commentService.deleteById(commentId);
 
-        verify(commentRepository, times(1)).deleteById(commentDb.get().getId());
+        verify(commentRepository, times(1)).deleteFromPost(1L, commentId);
+        verify(commentRepository, never()).findById(any());
+        verify(postRepository).addToCommentCount(1L, -1);
+        verify(listCache).invalidate(ListCache.Scope.POST_COMMENTS, 1L);
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        verify(commentIndex).remove(commentId, 1L);
     }
 
     @Test
     void shouldNotDeleteCommentByIdWhenCommentDoesNotExist() {
         Long commentId = 0L;
-        Optional<Comment> commentDb = Optional.empty();
         String expectedMessage = "Not found comment with id: " + commentId;
 
-        when(commentRepository.findById(commentId)).thenReturn(commentDb);
+        when(commentRepository.findParentById(commentId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(NotFoundCommentException.class, () -> commentService.deleteById(commentId));
         assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(postRepository);
+        verifyNoInteractions(commentIndex);
     }
 
 }
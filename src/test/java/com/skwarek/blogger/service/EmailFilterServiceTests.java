@@ -0,0 +1,57 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.cache.EmailFilter;
+import com.skwarek.blogger.config.ReadYourWrites;
+import com.skwarek.blogger.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(EmailFilterService.class)
+public class EmailFilterServiceTests {
+
+    @MockBean
+    private AccountRepository accountRepository;
+    @MockBean
+    private EmailFilter emailFilter;
+
+    @Autowired
+    private EmailFilterService emailFilterService;
+
+    @Test
+    void shouldLoadEveryEmailBeforeMarkingFilterLoaded() {
+        when(accountRepository.streamAllEmails()).thenReturn(Stream.of("a1@gmail.com", "b2@gmail.com"));
+
+        long loadedEmails = emailFilterService.loadEmailFilter();
+
+        assertThat(loadedEmails).isEqualTo(2);
+        InOrder inOrder = inOrder(emailFilter);
+        inOrder.verify(emailFilter).put("a1@gmail.com");
+        inOrder.verify(emailFilter).put("b2@gmail.com");
+        inOrder.verify(emailFilter).markLoaded();
+    }
+
+    @Test
+    void shouldReadEmailsFromPrimary() {
+        List<Boolean> pinned = new ArrayList<>();
+        when(accountRepository.streamAllEmails()).thenAnswer(invocation -> {
+            pinned.add(ReadYourWrites.isPinned());
+            return Stream.of("a1@gmail.com");
+        });
+
+        emailFilterService.loadEmailFilter();
+
+        assertThat(pinned).containsExactly(true);
+        assertThat(ReadYourWrites.isPinned()).isFalse();
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.ImportReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:export-import;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "spring.r2dbc.url=r2dbc:h2:mem:///export-import?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "blogger.export.chunk-size=2"})
+public class ExportImportTests {
+
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void shouldImportWhatWasExported() throws IOException {
+        byte[] exported = exportAll();
+
+        new ResourceDatabasePopulator(new ClassPathResource("sql/cleanup_data.sql")).execute(dataSource);
+        ImportReport report = importService.importAccounts(new ByteArrayInputStream(exported));
+
+        assertThat(report).isEqualTo(new ImportReport(3, 4, 5, 0, List.of()));
+        assertThat(new String(exportAll(), StandardCharsets.UTF_8)).isEqualTo(new String(exported, StandardCharsets.UTF_8));
+    }
+
+    private byte[] exportAll() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportAll(out);
+
+        return out.toByteArray();
+    }
+
+}
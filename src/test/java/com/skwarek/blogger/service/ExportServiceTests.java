@@ -0,0 +1,92 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.CommentRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(ExportService.class)
+@TestPropertySource(properties = "blogger.export.chunk-size=2")
+public class ExportServiceTests {
+
+    @MockBean
+    private AccountRepository accountRepository;
+    @MockBean
+    private PostRepository postRepository;
+    @MockBean
+    private CommentRepository commentRepository;
+    @MockBean
+    private EntityManager entityManager;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Test
+    void shouldExportAccountsWithPostsAndCommentsNested() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        when(accountRepository.findForExportByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(2))).thenReturn(List.of(
+                EmbeddedDatabase.createAccountNo(1),
+                EmbeddedDatabase.createAccountNo(2)
+        ));
+        when(postRepository.findForExportByAccountIdInOrderByAccountIdAscIdAsc(List.of(1L, 2L))).thenReturn(List.of(
+                EmbeddedDatabase.createPostNo(1),
+                EmbeddedDatabase.createPostNo(4)
+        ));
+        when(commentRepository.findForExportByAccountIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                EmbeddedDatabase.createCommentNo(1),
+                EmbeddedDatabase.createCommentNo(2)
+        ));
+        exportService.exportAll(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "{\"email\":\"a1@gmail.com\",\"password\":\"111\",\"posts\":[{\"content\":\"post no 1 to account1\"," +
+                        "\"comments\":[{\"content\":\"comment no 1 to post1\"},{\"content\":\"comment no 2 to post1\"}]}]}",
+                "{\"email\":\"b2@gmail.com\",\"password\":\"222\",\"posts\":[{\"content\":\"post no 1 to account2\",\"comments\":[]}]}"
+        );
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("}\n");
+        verify(accountRepository).findForExportByIdGreaterThanOrderByIdAsc(2L, Pageable.ofSize(2));
+    }
+
+    @Test
+    void shouldClearPersistenceContextAfterEveryChunk() throws Exception {
+        when(accountRepository.findForExportByIdGreaterThanOrderByIdAsc(0L, Pageable.ofSize(2))).thenReturn(List.of(
+                EmbeddedDatabase.createAccountNo(1),
+                EmbeddedDatabase.createAccountNo(2)
+        ));
+        when(accountRepository.findForExportByIdGreaterThanOrderByIdAsc(2L, Pageable.ofSize(2))).thenReturn(List.of(
+                EmbeddedDatabase.createAccountNo(3)
+        ));
+        exportService.exportAll(new ByteArrayOutputStream());
+
+        verify(entityManager, times(2)).clear();
+        verify(postRepository).findForExportByAccountIdInOrderByAccountIdAscIdAsc(List.of(3L));
+        verify(commentRepository).findForExportByAccountIdIn(List.of(3L));
+    }
+
+    @Test
+    void shouldExportNothingWhenDatabaseIsEmpty() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportAll(out);
+
+        assertThat(out.toByteArray()).isEmpty();
+        verify(entityManager, never()).clear();
+        verifyNoInteractions(postRepository, commentRepository);
+    }
+
+}
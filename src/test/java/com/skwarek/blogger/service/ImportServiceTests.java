@@ -0,0 +1,166 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.cache.EmailFilter;
+import com.skwarek.blogger.domain.Account;
+import com.skwarek.blogger.dto.ImportError;
+import com.skwarek.blogger.dto.ImportReport;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.search.PostIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(ImportService.class)
+@TestPropertySource(properties = {"blogger.import.chunk-size=2", "blogger.import.max-line-size=128B"})
+public class ImportServiceTests {
+
+    @MockBean
+    private AccountRepository accountRepository;
+    @MockBean
+    private EmailFilter emailFilter;
+    @MockBean
+    private PostIndex postIndex;
+    @MockBean
+    private CommentIndex commentIndex;
+    @MockBean
+    private EntityManager entityManager;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(accountRepository.save(any(Account.class))).thenAnswer(returnsFirstArg());
+        when(emailFilter.mightContain(any())).thenReturn(true);
+    }
+
+    @Test
+    void shouldImportAccountsWithPostsAndComments() {
+        InputStream ndjson = ndjson("""
+                {"email":"x1@gmail.com","password":"1","posts":[{"content":"p1","comments":[{"content":"c1"},{"content":"c2"}]}]}
+                {"email":"x2@gmail.com","password":"2","posts":[{"content":"p2"},{"content":"p3"}]}
+                {"email":"x3@gmail.com","password":"3"}
+                """);
+
+        ImportReport report = importService.importAccounts(ndjson);
+
+        ArgumentCaptor<Account> accountArgumentCaptor = ArgumentCaptor.forClass(Account.class);
+        verify(accountRepository, times(3)).save(accountArgumentCaptor.capture());
+
+        assertThat(report).isEqualTo(new ImportReport(3, 3, 2, 0, List.of()));
+        assertThat(accountArgumentCaptor.getAllValues().get(0).getPosts().get(0).getCommentCount()).isEqualTo(2L);
+        assertThat(accountArgumentCaptor.getAllValues().get(1).getPosts().get(0).getCommentCount()).isZero();
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(entityManager, times(2)).clear();
+        verify(postIndex).put(null, "p1");
+        verify(postIndex).put(null, "p2");
+        verify(postIndex).put(null, "p3");
+        verify(commentIndex).put(null, null, "c1");
+        verify(commentIndex).put(null, null, "c2");
+    }
+
+    @Test
+    void shouldReportMalformedAndDuplicateLinesWithoutAbortingImport() {
+        InputStream ndjson = ndjson("""
+                {"email":"x1@gmail.com","password":"1"}
+                {"email":
+                {"email":"a1@gmail.com","password":"111"}
+
+                {"email":"x2@gmail.com","password":"2"}
+                """);
+
+        when(accountRepository.existsByEmail("a1@gmail.com")).thenReturn(true);
+        ImportReport report = importService.importAccounts(ndjson);
+
+        assertThat(report.importedAccounts()).isEqualTo(2);
+        assertThat(report.failedLines()).isEqualTo(2);
+        assertThat(report.errors()).hasSize(2);
+        assertThat(report.errors().get(0).line()).isEqualTo(2);
+        assertThat(report.errors().get(0).message()).startsWith("Malformed line: ");
+        assertThat(report.errors().get(1)).isEqualTo(new ImportError(3, "Duplicate account with email: a1@gmail.com"));
+    }
+
+    @Test
+    void shouldReplayFailedChunkLineByLine() {
+        InputStream ndjson = ndjson("""
+                {"email":"x1@gmail.com","password":"1"}
+                {"email":"x2@gmail.com","password":"2"}
+                """);
+
+        doThrow(new PersistenceException("chunk failed"))
+                .doNothing()
+                .doThrow(new PersistenceException("value too long"))
+                .when(entityManager).flush();
+        ImportReport report = importService.importAccounts(ndjson);
+
+        assertThat(report.importedAccounts()).isEqualTo(1);
+        assertThat(report.failedLines()).isEqualTo(1);
+        assertThat(report.errors()).containsExactly(new ImportError(2, "Rejected by database: value too long"));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void shouldSkipLineLongerThanLimit() {
+        InputStream ndjson = ndjson("""
+                {"email":"x1@gmail.com","password":"%s"}
+                {"email":"x2@gmail.com","password":"2"}
+                {"email":"x3@gmail.com","password":"3"}""".formatted("1".repeat(100)));
+
+        ImportReport report = importService.importAccounts(ndjson);
+
+        assertThat(report.importedAccounts()).isEqualTo(2);
+        assertThat(report.errors()).containsExactly(new ImportError(1, "Line longer than 128 bytes"));
+    }
+
+    @Test
+    void shouldReadLinesAcrossBufferBoundaries() {
+        StringBuilder lines = new StringBuilder();
+        IntStream.rangeClosed(1, 3000).forEach(i -> lines.append("{\"email\":\"x").append(i).append("@gmail.com\",\"password\":\"1\"}\n"));
+
+        ImportReport report = importService.importAccounts(ndjson(lines.toString()));
+
+        assertThat(report.importedAccounts()).isEqualTo(3000);
+        assertThat(report.failedLines()).isZero();
+        verify(accountRepository, times(3000)).save(any(Account.class));
+    }
+
+    @Test
+    void shouldCapReportedErrors() {
+        InputStream ndjson = ndjson("{\n".repeat(ImportReport.MAX_ERRORS + 50));
+
+        ImportReport report = importService.importAccounts(ndjson);
+
+        assertThat(report.importedAccounts()).isZero();
+        assertThat(report.failedLines()).isEqualTo(ImportReport.MAX_ERRORS + 50);
+        assertThat(report.errors()).hasSize(ImportReport.MAX_ERRORS);
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    private static InputStream ndjson(String lines) {
+        return new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.search.PostIndex;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(PostIndexService.class)
+public class PostIndexServiceTests {
+
+    @MockBean
+    private PostRepository postRepository;
+    @MockBean
+    private PostIndex postIndex;
+
+    @Autowired
+    private PostIndexService postIndexService;
+
+    @Test
+    void shouldIndexEveryPost() {
+        when(postRepository.streamSummariesByOrderByIdAsc()).thenReturn(Stream.of(
+                new PostSummary(1L, "post no 1 to account1", 3L),
+                new PostSummary(2L, "post no 2 to account1", 2L)));
+
+        long loadedPosts = postIndexService.loadPostIndex();
+
+        assertThat(loadedPosts).isEqualTo(2);
+        InOrder inOrder = inOrder(postIndex);
+        inOrder.verify(postIndex).startLoad();
+        inOrder.verify(postIndex).load(1L, "post no 1 to account1");
+        inOrder.verify(postIndex).load(2L, "post no 2 to account1");
+        inOrder.verify(postIndex).finishLoad();
+        verify(postIndex, never()).put(anyLong(), anyString());
+    }
+
+}
@@ -1,21 +1,40 @@
 package com.skwarek.blogger.service;
 
 import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.cache.ListCache;
 import com.skwarek.blogger.domain.Account;
 import com.skwarek.blogger.domain.Post;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
 import com.skwarek.blogger.dto.PostRequest;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.exception.InvalidPageRequestException;
+import com.skwarek.blogger.exception.InvalidSearchQueryException;
 import com.skwarek.blogger.exception.NotFoundAccountException;
 import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.CommentRepository;
 import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.repository.TimelineRepository;
+import com.skwarek.blogger.search.CommentIndex;
+import com.skwarek.blogger.search.PostIndex;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -27,31 +46,93 @@ public class PostServiceTests {
     @MockBean
     private PostRepository postRepository;
     @MockBean
+    private AccountRepository accountRepository;
+    @MockBean
+    private CommentRepository commentRepository;
+    @MockBean
+    private TimelineRepository timelineRepository;
+    @MockBean
     private AccountService accountService;
+    @MockBean
+    private ListCache listCache;
+    @MockBean
+    private PostIndex postIndex;
+    @MockBean
+    private CommentIndex commentIndex;
 
     @Autowired
     private PostService postService;
 
+    @BeforeEach
+    void setUp() {
+        when(listCache.get(any(), any(), anyLong(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+    }
+
     @Test
     void shouldFindAllPostsByAccountId() {
         Long accountId = 1L;
         Account account = EmbeddedDatabase.createAccountNo(1);
         List<Post> postsDb = List.of(
-                EmbeddedDatabase.createPostNo(1),
+                EmbeddedDatabase.createPostNo(3),
                 EmbeddedDatabase.createPostNo(2),
-                EmbeddedDatabase.createPostNo(3)
+                EmbeddedDatabase.createPostNo(1)
         );
 
         when(accountService.findById(accountId)).thenReturn(account);
-        when(postRepository.findByAccountId(account.getId())).thenReturn(postsDb);
-        List<Post> posts = postService.findAllByAccountId(accountId);
+        when(postRepository.findByAccountIdAndIdLessThanOrderByIdDesc(account.getId(), Long.MAX_VALUE, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(postsDb);
+        CursorPage<Post> posts = postService.findAllByAccountId(accountId, null, null);
 
-        assertThat(posts).hasSize(3)
-                .containsOnly(
-                        EmbeddedDatabase.createPostNo(1),
+        assertThat(posts.getNextCursor()).isNull();
+        assertThat(posts.getItems()).hasSize(3)
+                .containsExactly(
+                        EmbeddedDatabase.createPostNo(3),
                         EmbeddedDatabase.createPostNo(2),
-                        EmbeddedDatabase.createPostNo(3)
+                        EmbeddedDatabase.createPostNo(1)
                 );
+        InOrder inOrder = inOrder(listCache, accountService);
+        inOrder.verify(listCache).generation(ListCache.Scope.ACCOUNT_POSTS, accountId);
+        inOrder.verify(accountService).findById(accountId);
+    }
+
+    @Test
+    void shouldFindAllPostsByAccountIdAfterCursor() {
+        Long accountId = 1L;
+        Account account = EmbeddedDatabase.createAccountNo(1);
+        List<Post> postsDb = List.of(
+                EmbeddedDatabase.createPostNo(2),
+                EmbeddedDatabase.createPostNo(1)
+        );
+
+        when(accountService.findById(accountId)).thenReturn(account);
+        when(postRepository.findByAccountIdAndIdLessThanOrderByIdDesc(account.getId(), 3L, Pageable.ofSize(2))).thenReturn(postsDb);
+        CursorPage<Post> posts = postService.findAllByAccountId(accountId, Cursor.encode(3L), 1);
+
+        assertThat(posts.getNextCursor()).isEqualTo(Cursor.encode(2L));
+        assertThat(posts.getItems()).hasSize(1)
+                .containsExactly(
+                        EmbeddedDatabase.createPostNo(2)
+                );
+    }
+
+    @Test
+    void shouldFindAllPostSummariesByAccountId() {
+        Long accountId = 1L;
+        Account account = EmbeddedDatabase.createAccountNo(1);
+        List<PostSummary> postsDb = List.of(
+                new PostSummary(3L, "post no 3 to account1", 0L),
+                new PostSummary(2L, "post no 2 to account1", 2L)
+        );
+
+        when(accountService.findById(accountId)).thenReturn(account);
+        when(postRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(account.getId(), Long.MAX_VALUE, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(postsDb);
+        CursorPage<PostSummary> posts = postService.findAllSummariesByAccountId(accountId, null, null);
+
+        assertThat(posts.getNextCursor()).isNull();
+        assertThat(posts.getItems()).containsExactly(
+                new PostSummary(3L, "post no 3 to account1", 0L),
+                new PostSummary(2L, "post no 2 to account1", 2L)
+        );
     }
 
     @Test
@@ -61,10 +142,10 @@ public class PostServiceTests {
         List<Post> postsDb = Collections.emptyList();
 
         when(accountService.findById(accountId)).thenReturn(account);
-        when(postRepository.findByAccountId(account.getId())).thenReturn(postsDb);
-        List<Post> posts = postService.findAllByAccountId(accountId);
+        when(postRepository.findByAccountIdAndIdLessThanOrderByIdDesc(account.getId(), Long.MAX_VALUE, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(postsDb);
+        CursorPage<Post> posts = postService.findAllByAccountId(accountId, null, null);
 
-        assertThat(posts).isEmpty();
+        assertThat(posts.getItems()).isEmpty();
     }
 
     @Test
@@ -78,6 +159,81 @@ public class PostServiceTests {
         assertThat(exception).hasMessage(expectedMessage);
     }
 
+    @Test
+    void shouldFindFirstFeedPage() {
+        when(postRepository.findFeedItems(Pageable.ofSize(3))).thenReturn(List.of(
+                new FeedItem(4L, "post no 1 to account2", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(2L, "b2@gmail.com")),
+                new FeedItem(3L, "post no 3 to account1", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(1L, "a1@gmail.com")),
+                new FeedItem(2L, "post no 2 to account1", 2L, EmbeddedDatabase.at("11:00"), new AccountSummary(1L, "a1@gmail.com"))
+        ));
+        CursorPage<FeedItem> feed = postService.findFeed(null, 2);
+
+        assertThat(feed.getItems()).extracting(FeedItem::id).containsExactly(4L, 3L);
+        assertThat(feed.getNextCursor()).isEqualTo(Cursor.encode(ChronoUnit.MICROS.between(Instant.EPOCH, EmbeddedDatabase.at("12:00")), 3L));
+        verify(postRepository, never()).findFeedItemsBefore(any(), any(), any());
+    }
+
+    @Test
+    void shouldFindNextFeedPageBeforeCursor() {
+        String after = Cursor.encode(ChronoUnit.MICROS.between(Instant.EPOCH, EmbeddedDatabase.at("12:00")), 3L);
+
+        when(postRepository.findFeedItemsBefore(EmbeddedDatabase.at("12:00"), 3L, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(List.of(
+                new FeedItem(2L, "post no 2 to account1", 2L, EmbeddedDatabase.at("11:00"), new AccountSummary(1L, "a1@gmail.com")),
+                new FeedItem(1L, "post no 1 to account1", 3L, EmbeddedDatabase.at("10:00"), new AccountSummary(1L, "a1@gmail.com"))
+        ));
+        CursorPage<FeedItem> feed = postService.findFeed(after, null);
+
+        assertThat(feed.getItems()).extracting(FeedItem::id).containsExactly(2L, 1L);
+        assertThat(feed.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldNotFindFeedWhenCursorIsInvalid() {
+        String after = Cursor.encode(3L);
+
+        assertThrows(InvalidPageRequestException.class, () -> postService.findFeed(after, null));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void shouldSearchPostsInIndexOrder() {
+        when(postIndex.search("spring boot", CursorPage.DEFAULT_LIMIT)).thenReturn(List.of(3L, 1L));
+        when(postRepository.findSummariesByIdIn(List.of(3L, 1L))).thenReturn(List.of(
+                new PostSummary(1L, "post no 1 to account1", 3L),
+                new PostSummary(3L, "post no 3 to account1", 0L)));
+
+        List<PostSummary> posts = postService.search("spring boot", null);
+
+        assertThat(posts).extracting(PostSummary::id).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void shouldSkipSearchHitsDeletedMeanwhile() {
+        when(postIndex.search("spring", 5)).thenReturn(List.of(3L, 1L));
+        when(postRepository.findSummariesByIdIn(List.of(3L, 1L))).thenReturn(List.of(
+                new PostSummary(1L, "post no 1 to account1", 3L)));
+
+        List<PostSummary> posts = postService.search("spring", 5);
+
+        assertThat(posts).extracting(PostSummary::id).containsExactly(1L);
+    }
+
+    @Test
+    void shouldSearchNoPostsWithoutReadingDatabase() {
+        when(postIndex.search("nothing", CursorPage.DEFAULT_LIMIT)).thenReturn(List.of());
+
+        List<PostSummary> posts = postService.search("nothing", null);
+
+        assertThat(posts).isEmpty();
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void shouldNotSearchPostsWithBlankQuery() {
+        assertThrows(InvalidSearchQueryException.class, () -> postService.search(" ", null));
+        verifyNoInteractions(postIndex);
+    }
+
     @Test
     void shouldFindPostById() {
         Long postId = 1L;
@@ -100,6 +256,46 @@ public class PostServiceTests {
         assertThat(exception).hasMessage(expectedMessage);
     }
 
+    @Test
+    void shouldFindPostETagById() {
+        Long postId = 1L;
+
+        when(postRepository.findVersionById(postId)).thenReturn(Optional.of(7L));
+        String eTag = postService.findETagById(postId);
+
+        assertThat(eTag).isEqualTo("\"7\"");
+    }
+
+    @Test
+    void shouldNotFindPostETagByIdWhenPostDoesNotExist() {
+        Long postId = 0L;
+        String expectedMessage = "Not found post with id: " + postId;
+
+        Exception exception = assertThrows(NotFoundPostException.class, () -> postService.findETagById(postId));
+        assertThat(exception).hasMessage(expectedMessage);
+    }
+
+    @Test
+    void shouldFindPostWithCommentsById() {
+        Long postId = 1L;
+        Optional<Post> postDb = Optional.of(EmbeddedDatabase.createPostNo(1));
+
+        when(postRepository.findWithCommentsById(postId)).thenReturn(postDb);
+        Post post = postService.findWithCommentsById(postId);
+
+        assertThat(post).isNotNull()
+                .isEqualTo(EmbeddedDatabase.createPostNo(1));
+    }
+
+    @Test
+    void shouldNotFindPostWithCommentsByIdWhenPostDoesNotExist() {
+        Long postId = 0L;
+        String expectedMessage = "Not found post with id: " + postId;
+
+        Exception exception = assertThrows(NotFoundPostException.class, () -> postService.findWithCommentsById(postId));
+        assertThat(exception).hasMessage(expectedMessage);
+    }
+
     @Test
     void shouldCreatePost2Account() {
         Long accountId = 1L;
@@ -109,15 +305,37 @@ public class PostServiceTests {
         Account account = EmbeddedDatabase.createAccountNo(1);
 
         when(accountService.findById(accountId)).thenReturn(account);
+        when(postRepository.saveAndFlush(any(Post.class))).thenReturn(Post.builder().id(5L).content("new post").createdAt(EmbeddedDatabase.at("13:00")).build());
         postService.create2Account(accountId, postRequest);
         ArgumentCaptor<Post> postArgumentCaptor = ArgumentCaptor.forClass(Post.class);
-        verify(postRepository).save(postArgumentCaptor.capture());
+        verify(postRepository).saveAndFlush(postArgumentCaptor.capture());
         Post createdPost = postArgumentCaptor.getValue();
 
         assertThat(createdPost).hasFieldOrPropertyWithValue("id", null);
         assertThat(createdPost).hasFieldOrPropertyWithValue("content", "new post");
         assertThat(createdPost).hasFieldOrPropertyWithValue("account", account);
         assertThat(createdPost).hasFieldOrPropertyWithValue("comments", Collections.emptyList());
+        verify(accountRepository).incrementVersion(accountId);
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, accountId);
+        verify(postIndex).put(5L, "new post");
+        verify(timelineRepository).fanOut(5L, accountId, EmbeddedDatabase.at("13:00"));
+    }
+
+    @Test
+    void shouldCreatePost2AccountWithoutFanOutWhenFollowersReadIt() {
+        Long accountId = 2L;
+        PostRequest postRequest = PostRequest.builder()
+                .content("new post")
+                .build();
+        Account account = EmbeddedDatabase.createAccountNo(2);
+
+        when(accountService.findById(accountId)).thenReturn(account);
+        when(postRepository.saveAndFlush(any(Post.class))).thenReturn(Post.builder().id(5L).content("new post").createdAt(EmbeddedDatabase.at("13:00")).build());
+        postService.create2Account(accountId, postRequest);
+
+        verify(postRepository).saveAndFlush(any(Post.class));
+        verify(postIndex).put(5L, "new post");
+        verifyNoInteractions(timelineRepository);
     }
 
     @Test
@@ -140,18 +358,18 @@ public class PostServiceTests {
         PostRequest postRequest = PostRequest.builder()
                 .content("updated post no 1 to account1")
                 .build();
-        Optional<Post> oldPost = Optional.of(EmbeddedDatabase.createPostNo(1));
+        Post postDb = EmbeddedDatabase.createPostNo(1);
+        postDb.setContent("updated post no 1 to account1");
 
-        when(postRepository.findById(postId)).thenReturn(oldPost);
-        postService.update(postId, postRequest);
-        ArgumentCaptor<Post> postArgumentCaptor = ArgumentCaptor.forClass(Post.class);
-        verify(postRepository).save(postArgumentCaptor.capture());
-        Post updatedPost = postArgumentCaptor.getValue();
+        when(postRepository.updateContent(postId, "updated post no 1 to account1")).thenReturn(1);
+        when(postRepository.findById(postId)).thenReturn(Optional.of(postDb));
+        Post updatedPost = postService.update(postId, postRequest);
 
         assertThat(updatedPost).hasFieldOrPropertyWithValue("id", 1L);
         assertThat(updatedPost).hasFieldOrPropertyWithValue("content", "updated post no 1 to account1");
-        assertThat(updatedPost).hasFieldOrPropertyWithValue("account", oldPost.get().getAccount());
-        assertThat(updatedPost).hasFieldOrPropertyWithValue("comments", oldPost.get().getComments());
+        verify(postRepository, never()).save(any());
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        verify(postIndex).put(1L, "updated post no 1 to account1");
     }
 
     @Test
@@ -160,38 +378,50 @@ public class PostServiceTests {
         PostRequest postRequest = PostRequest.builder()
                 .content("updated post no 1 to account1")
                 .build();
-        Optional<Post> oldPost = Optional.empty();
         String expectedMessage = "Not found post with id: " + postId;
 
-        when(postRepository.findById(postId)).thenReturn(oldPost);
+        when(postRepository.updateContent(postId, "updated post no 1 to account1")).thenReturn(0);
 
         Exception exception = assertThrows(NotFoundPostException.class, () -> postService.update(postId, postRequest));
         assertThat(exception).hasMessage(expectedMessage);
+        verifyNoInteractions(postIndex);
     }
 
     @Test
     void shouldDeletePostById() {
         Long postId = 1L;
-        Optional<Post> postDb = Optional.of(EmbeddedDatabase.createPostNo(1));
 
-        when(postRepository.findById(postId)).thenReturn(postDb);
-        doNothing().when(postRepository).deleteById(postDb.get().getId());
+        when(postRepository.findAccountIdById(postId)).thenReturn(Optional.of(1L));
+        when(postRepository.deleteInBulkById(postId)).thenReturn(1);
         postService.deleteById(postId);
 
-        assertThat(postDb.get().getComments()).isEmpty();
-        verify(postRepository, times(1)).deleteById(postDb.get().getId());
+        InOrder inOrder = inOrder(commentRepository, timelineRepository, postRepository);
+        inOrder.verify(commentRepository, times(1)).deleteInBulkByPostId(postId);
+        inOrder.verify(timelineRepository, times(1)).deleteInBulkByPostId(postId);
+        inOrder.verify(postRepository, times(1)).deleteInBulkById(postId);
+        verify(accountRepository).incrementVersion(1L);
+        verify(postRepository, never()).findById(postId);
+        verify(listCache).invalidate(ListCache.Scope.ACCOUNT_POSTS, 1L);
+        verify(listCache).invalidate(ListCache.Scope.POST_COMMENTS, postId);
+        verify(postIndex).remove(postId);
+        verify(commentIndex).removePost(postId);
     }
 
     @Test
     void shouldNotDeletePostByIdWhenPostDoesNotExist() {
         Long postId = 0L;
-        Optional<Post> postDb = Optional.empty();
         String expectedMessage = "Not found post with id: " + postId;
 
-        when(postRepository.findById(postId)).thenReturn(postDb);
+        when(postRepository.findAccountIdById(postId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(NotFoundPostException.class, () -> postService.deleteById(postId));
         assertThat(exception).hasMessage(expectedMessage);
+        verify(commentRepository, never()).deleteInBulkByPostId(postId);
+        verify(postRepository, never()).deleteInBulkById(postId);
+        verifyNoInteractions(accountRepository);
+        verifyNoInteractions(listCache);
+        verifyNoInteractions(postIndex);
+        verifyNoInteractions(commentIndex);
     }
 
 }
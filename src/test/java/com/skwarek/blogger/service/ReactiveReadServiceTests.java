@@ -0,0 +1,86 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.CommentSummary;
+import com.skwarek.blogger.dto.PostSummary;
+import com.skwarek.blogger.exception.NotFoundAccountException;
+import com.skwarek.blogger.exception.NotFoundPostException;
+import com.skwarek.blogger.repository.ReactiveAccountRepository;
+import com.skwarek.blogger.repository.ReactiveCommentRepository;
+import com.skwarek.blogger.repository.ReactivePostRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(ReactiveReadService.class)
+public class ReactiveReadServiceTests {
+
+    @MockBean
+    private ReactiveAccountRepository reactiveAccountRepository;
+    @MockBean
+    private ReactivePostRepository reactivePostRepository;
+    @MockBean
+    private ReactiveCommentRepository reactiveCommentRepository;
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    @Test
+    void shouldStreamAccountsFromTheStart() {
+        AccountSummary account = new AccountSummary(1L, "a1@gmail.com");
+        when(reactiveAccountRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L)).thenReturn(Flux.just(account));
+
+        StepVerifier.create(reactiveReadService.streamAccounts(null))
+                .expectNext(account)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldStreamPostsByAccountIdFromTheNewest() {
+        PostSummary post = new PostSummary(3L, "post no 3 to account1", 0L);
+        when(reactiveAccountRepository.findIdById(1L)).thenReturn(Mono.just(1L));
+        when(reactivePostRepository.findSummariesByAccountIdAndIdLessThanOrderByIdDesc(1L, Long.MAX_VALUE)).thenReturn(Flux.just(post));
+
+        StepVerifier.create(reactiveReadService.streamPostsByAccountId(1L, null))
+                .expectNext(post)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotStreamPostsByAccountIdWhenAccountNotExists() {
+        when(reactiveAccountRepository.findIdById(99L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveReadService.streamPostsByAccountId(99L, null))
+                .verifyError(NotFoundAccountException.class);
+
+        verifyNoInteractions(reactivePostRepository);
+    }
+
+    @Test
+    void shouldStreamCommentsByPostIdAfterId() {
+        CommentSummary comment = new CommentSummary(3L, "comment no 3 to post1");
+        when(reactivePostRepository.findIdById(1L)).thenReturn(Mono.just(1L));
+        when(reactiveCommentRepository.findSummariesByPostIdAndIdGreaterThanOrderByIdAsc(1L, 2L)).thenReturn(Flux.just(comment));
+
+        StepVerifier.create(reactiveReadService.streamCommentsByPostId(1L, 2L))
+                .expectNext(comment)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotStreamCommentsByPostIdWhenPostNotExists() {
+        when(reactivePostRepository.findIdById(99L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveReadService.streamCommentsByPostId(99L, null))
+                .verifyError(NotFoundPostException.class);
+
+        verifyNoInteractions(reactiveCommentRepository);
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.skwarek.blogger.service;
+
+import com.skwarek.blogger.EmbeddedDatabase;
+import com.skwarek.blogger.domain.Follow;
+import com.skwarek.blogger.domain.FollowId;
+import com.skwarek.blogger.dto.AccountSummary;
+import com.skwarek.blogger.dto.Cursor;
+import com.skwarek.blogger.dto.CursorPage;
+import com.skwarek.blogger.dto.FeedItem;
+import com.skwarek.blogger.exception.InvalidFollowException;
+import com.skwarek.blogger.exception.NotFoundAccountException;
+import com.skwarek.blogger.repository.AccountRepository;
+import com.skwarek.blogger.repository.FollowRepository;
+import com.skwarek.blogger.repository.PostRepository;
+import com.skwarek.blogger.repository.TimelineRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(value = TimelineService.class, properties = {
+        "blogger.timeline.fan-out-max-followers=10",
+        "blogger.timeline.follow-backfill=5"
+})
+public class TimelineServiceTests {
+
+    private static final FeedItem POST_1 = new FeedItem(1L, "post no 1 to account1", 3L, EmbeddedDatabase.at("10:00"), new AccountSummary(1L, "a1@gmail.com"));
+    private static final FeedItem POST_2 = new FeedItem(2L, "post no 2 to account1", 2L, EmbeddedDatabase.at("11:00"), new AccountSummary(1L, "a1@gmail.com"));
+    private static final FeedItem POST_3 = new FeedItem(3L, "post no 3 to account1", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(1L, "a1@gmail.com"));
+    private static final FeedItem POST_4 = new FeedItem(4L, "post no 1 to account2", 0L, EmbeddedDatabase.at("12:00"), new AccountSummary(2L, "b2@gmail.com"));
+
+    @MockBean
+    private TimelineRepository timelineRepository;
+    @MockBean
+    private FollowRepository followRepository;
+    @MockBean
+    private PostRepository postRepository;
+    @MockBean
+    private AccountRepository accountRepository;
+    @MockBean
+    private AccountService accountService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Test
+    void shouldFindTimelineMergingPostsReadFromFollowees() {
+        Long accountId = 3L;
+        Pageable pageable = Pageable.ofSize(3);
+
+        when(accountService.findById(accountId)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        when(followRepository.findFanOutOnReadFolloweeIdsByAccountId(accountId)).thenReturn(List.of(2L));
+        when(timelineRepository.findFeedItemsByAccountId(accountId, pageable)).thenReturn(List.of(POST_3, POST_2, POST_1));
+        when(postRepository.findFeedItemsByAccountIdIn(List.of(2L), pageable)).thenReturn(List.of(POST_4));
+        CursorPage<FeedItem> timeline = timelineService.findTimeline(accountId, null, 2);
+
+        assertThat(timeline.getItems()).containsExactly(POST_4, POST_3);
+        assertThat(timeline.getNextCursor()).isEqualTo(Cursor.encode(ChronoUnit.MICROS.between(Instant.EPOCH, EmbeddedDatabase.at("12:00")), 3L));
+    }
+
+    @Test
+    void shouldFindTimelineBeforeCursorKeepingPostsReadTwiceOnce() {
+        Long accountId = 3L;
+        String after = Cursor.encode(ChronoUnit.MICROS.between(Instant.EPOCH, EmbeddedDatabase.at("12:00")), 3L);
+        Pageable pageable = Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1);
+
+        when(accountService.findById(accountId)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        when(followRepository.findFanOutOnReadFolloweeIdsByAccountId(accountId)).thenReturn(List.of(1L));
+        when(timelineRepository.findFeedItemsByAccountIdBefore(accountId, EmbeddedDatabase.at("12:00"), 3L, pageable)).thenReturn(List.of(POST_2, POST_1));
+        when(postRepository.findFeedItemsByAccountIdInBefore(List.of(1L), EmbeddedDatabase.at("12:00"), 3L, pageable)).thenReturn(List.of(POST_2, POST_1));
+        CursorPage<FeedItem> timeline = timelineService.findTimeline(accountId, after, null);
+
+        assertThat(timeline.getItems()).containsExactly(POST_2, POST_1);
+        assertThat(timeline.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldFindTimelineWithoutReadingPostsWhenNoFolloweeIsReadFrom() {
+        Long accountId = 3L;
+
+        when(accountService.findById(accountId)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        when(followRepository.findFanOutOnReadFolloweeIdsByAccountId(accountId)).thenReturn(List.of());
+        when(timelineRepository.findFeedItemsByAccountId(accountId, Pageable.ofSize(CursorPage.DEFAULT_LIMIT + 1))).thenReturn(List.of(POST_3, POST_2, POST_1));
+        CursorPage<FeedItem> timeline = timelineService.findTimeline(accountId, null, null);
+
+        assertThat(timeline.getItems()).containsExactly(POST_3, POST_2, POST_1);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void shouldNotFindTimelineWhenAccountDoesNotExist() {
+        Long accountId = 0L;
+
+        when(accountService.findById(accountId)).thenThrow(new NotFoundAccountException("Not found account with id: " + accountId));
+
+        assertThrows(NotFoundAccountException.class, () -> timelineService.findTimeline(accountId, null, null));
+        verifyNoInteractions(timelineRepository, postRepository);
+    }
+
+    @Test
+    void shouldFollowAccountAndBackfillItsPosts() {
+        when(accountService.findById(2L)).thenReturn(EmbeddedDatabase.createAccountNo(2));
+        when(accountService.findById(3L)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        timelineService.follow(2L, 3L);
+
+        verify(followRepository).saveAndFlush(Follow.builder()
+                .id(new FollowId(2L, 3L))
+                .build());
+        verify(accountRepository).addToFollowerCount(3L, 1, 10);
+        verify(timelineRepository).backfill(2L, 3L, 5);
+    }
+
+    @Test
+    void shouldFollowAccountReadFromWithoutBackfill() {
+        when(accountService.findById(1L)).thenReturn(EmbeddedDatabase.createAccountNo(1));
+        when(accountService.findById(2L)).thenReturn(EmbeddedDatabase.createAccountNo(2));
+        timelineService.follow(1L, 2L);
+
+        verify(followRepository).saveAndFlush(any(Follow.class));
+        verify(accountRepository).addToFollowerCount(2L, 1, 10);
+        verifyNoInteractions(timelineRepository);
+    }
+
+    @Test
+    void shouldNotFollowAccountTwice() {
+        when(accountService.findById(3L)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        when(accountService.findById(1L)).thenReturn(EmbeddedDatabase.createAccountNo(1));
+        when(followRepository.existsById(new FollowId(3L, 1L))).thenReturn(true);
+        timelineService.follow(3L, 1L);
+
+        verify(followRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(accountRepository, timelineRepository);
+    }
+
+    @Test
+    void shouldNotFollowAccountItself() {
+        when(accountService.findById(1L)).thenReturn(EmbeddedDatabase.createAccountNo(1));
+
+        Exception exception = assertThrows(InvalidFollowException.class, () -> timelineService.follow(1L, 1L));
+        assertThat(exception).hasMessage("Account can't follow itself: 1");
+        verify(followRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldNotFollowAccountWhenFolloweeDoesNotExist() {
+        when(accountService.findById(1L)).thenReturn(EmbeddedDatabase.createAccountNo(1));
+        when(accountService.findById(0L)).thenThrow(new NotFoundAccountException("Not found account with id: 0"));
+
+        assertThrows(NotFoundAccountException.class, () -> timelineService.follow(1L, 0L));
+        verifyNoInteractions(followRepository, accountRepository, timelineRepository);
+    }
+
+    @Test
+    void shouldUnfollowAccountAndRemoveItsPostsFromTimeline() {
+        when(accountService.findById(3L)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        when(accountService.findById(1L)).thenReturn(EmbeddedDatabase.createAccountNo(1));
+        when(followRepository.deleteInBulkById(3L, 1L)).thenReturn(1);
+        timelineService.unfollow(3L, 1L);
+
+        verify(accountRepository).addToFollowerCount(1L, -1, 10);
+        verify(timelineRepository).deleteInBulkByAccountIdAndAuthorId(3L, 1L);
+    }
+
+    @Test
+    void shouldUnfollowAccountNotFollowed() {
+        when(accountService.findById(1L)).thenReturn(EmbeddedDatabase.createAccountNo(1));
+        when(accountService.findById(3L)).thenReturn(EmbeddedDatabase.createAccountNo(3));
+        when(followRepository.deleteInBulkById(1L, 3L)).thenReturn(0);
+        timelineService.unfollow(1L, 3L);
+
+        verifyNoInteractions(accountRepository, timelineRepository);
+    }
+
+}
@@ -1,3 +1,5 @@
+DELETE FROM timeline_entry;
+DELETE FROM follow;
 DELETE FROM comment;
 DELETE FROM post;
 DELETE FROM account;
\ No newline at end of file
@@ -1,17 +1,24 @@
 -- add few accounts
-INSERT INTO account (email, password) VALUES ('a1@gmail.com', '111');
-INSERT INTO account (email, password) VALUES ('b2@gmail.com', '222');
+INSERT INTO account (email, password, follower_count) VALUES ('a1@gmail.com', '111', 1);
+INSERT INTO account (email, password, follower_count, fan_out_on_read) VALUES ('b2@gmail.com', '222', 1, true);
 INSERT INTO account (email, password) VALUES ('c3@gmail.com', '333');
 
 -- add few posts
-INSERT INTO post (content, account_id) VALUES ('post no 1 to account1', 1);
-INSERT INTO post (content, account_id) VALUES ('post no 2 to account1', 1);
-INSERT INTO post (content, account_id) VALUES ('post no 3 to account1', 1);
-INSERT INTO post (content, account_id) VALUES ('post no 1 to account2', 2);
+INSERT INTO post (content, comment_count, account_id, created_at, updated_at) VALUES ('post no 1 to account1', 3, 1, '2023-06-01 10:00:00+00', '2023-06-01 10:00:00+00');
+INSERT INTO post (content, comment_count, account_id, created_at, updated_at) VALUES ('post no 2 to account1', 2, 1, '2023-06-01 11:00:00+00', '2023-06-01 11:00:00+00');
+INSERT INTO post (content, comment_count, account_id, created_at, updated_at) VALUES ('post no 3 to account1', 0, 1, '2023-06-01 12:00:00+00', '2023-06-01 12:00:00+00');
+INSERT INTO post (content, comment_count, account_id, created_at, updated_at) VALUES ('post no 1 to account2', 0, 2, '2023-06-01 12:00:00+00', '2023-06-01 12:00:00+00');
 
 -- add few comments
-INSERT INTO comment (content, post_id) VALUES ('comment no 1 to post1', 1);
-INSERT INTO comment (content, post_id) VALUES ('comment no 2 to post1', 1);
-INSERT INTO comment (content, post_id) VALUES ('comment no 3 to post1', 1);
-INSERT INTO comment (content, post_id) VALUES ('comment no 1 to post2', 2);
-INSERT INTO comment (content, post_id) VALUES ('comment no 2 to post2', 2);
+INSERT INTO comment (content, post_id, created_at, updated_at) VALUES ('comment no 1 to post1', 1, '2023-06-01 10:05:00+00', '2023-06-01 10:05:00+00');
+INSERT INTO comment (content, post_id, created_at, updated_at) VALUES ('comment no 2 to post1', 1, '2023-06-01 10:10:00+00', '2023-06-01 10:10:00+00');
+INSERT INTO comment (content, post_id, created_at, updated_at) VALUES ('comment no 3 to post1', 1, '2023-06-01 10:15:00+00', '2023-06-01 10:15:00+00');
+INSERT INTO comment (content, post_id, created_at, updated_at) VALUES ('comment no 1 to post2', 2, '2023-06-01 11:05:00+00', '2023-06-01 11:05:00+00');
+INSERT INTO comment (content, post_id, created_at, updated_at) VALUES ('comment no 2 to post2', 2, '2023-06-01 11:10:00+00', '2023-06-01 11:10:00+00');
+
+-- account3 follows account1, whose posts are written to its timeline, and account2, whose posts are read from it
+INSERT INTO follow (account_id, followee_id, created_at) VALUES (3, 1, '2023-06-01 09:00:00+00');
+INSERT INTO follow (account_id, followee_id, created_at) VALUES (3, 2, '2023-06-01 09:00:00+00');
+INSERT INTO timeline_entry (account_id, post_id, author_id, created_at) VALUES (3, 1, 1, '2023-06-01 10:00:00+00');
+INSERT INTO timeline_entry (account_id, post_id, author_id, created_at) VALUES (3, 2, 1, '2023-06-01 11:00:00+00');
+INSERT INTO timeline_entry (account_id, post_id, author_id, created_at) VALUES (3, 3, 1, '2023-06-01 12:00:00+00');
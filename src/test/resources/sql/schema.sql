@@ -4,7 +4,10 @@ create table account
         primary key,
     email    varchar(255) null,
     password varchar(255) null,
-    constraint UK_q0uja26qgu1atulenwup9rxyr
+    follower_count bigint default 0 not null,
+    fan_out_on_read boolean default false not null,
+    version  bigint default 0 not null,
+    constraint uk_account_email
         unique (email)
 );
 
@@ -14,6 +17,10 @@ create table post
     id         bigint auto_increment
         primary key,
     content    varchar(255) null,
+    comment_count bigint default 0 not null,
+    version    bigint default 0 not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
     constraint FKe5hjewhnd6trrdgt8i6uapkhy
         foreign key (account_id) references account (id)
 );
@@ -24,7 +31,57 @@ create table comment
         primary key,
     post_id bigint       null,
     content varchar(255) null,
+    version bigint default 0 not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
     constraint FKs1slvnkuemjsq2kj4h3vhx7i1
         foreign key (post_id) references post (id)
 );
 
+create table follow
+(
+    account_id  bigint not null,
+    followee_id bigint not null,
+    created_at  timestamp(6) with time zone not null,
+    primary key (account_id, followee_id)
+);
+
+create table timeline_entry
+(
+    account_id bigint not null,
+    post_id    bigint not null,
+    author_id  bigint not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (account_id, post_id)
+);
+
+create index idx_post_account_id_id
+    on post (account_id, id);
+
+create index idx_post_created_at_id
+    on post (created_at, id);
+
+create index idx_post_account_id_created_at_id
+    on post (account_id, created_at, id);
+
+create index idx_comment_post_id_id
+    on comment (post_id, id);
+
+create index idx_follow_followee_id_account_id
+    on follow (followee_id, account_id);
+
+create index idx_timeline_entry_account_id_created_at_post_id
+    on timeline_entry (account_id, created_at, post_id);
+
+create index idx_timeline_entry_author_id_account_id
+    on timeline_entry (author_id, account_id);
+
+create index idx_timeline_entry_post_id
+    on timeline_entry (post_id);
+
+create sequence account_seq start with 4 increment by 50;
+
+create sequence post_seq start with 5 increment by 50;
+
+create sequence comment_seq start with 6 increment by 50;
+